@@ -0,0 +1,86 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.mapper.TransactionMapperImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the transaction request and response bodies, with an
+ * {@link ObjectMapper} configured the way Spring Boot configures the one used by MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonSerializationBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter transactionWriter;
+    private byte[] requestJson;
+    private TransactionResponse transaction;
+
+    @Setup
+    public void createPayloads() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        requestReader = objectMapper.readerFor(TransactionRequest.class);
+        transactionWriter = objectMapper.writerFor(TransactionResponse.class);
+
+        requestJson = """
+                {"fromAccountNumber":"CHK001","toAccountNumber":"SAV001","amount":125.30,\
+                "type":"TRANSFER","description":"Rent share"}""".getBytes();
+
+        Account fromAccount = account(1L, "CHK001", "4874.70");
+        Account toAccount = account(2L, "SAV001", "10125.30");
+        Transaction entity = new Transaction();
+        entity.setId(1L);
+        entity.setTransactionReference("2f1c7d9e-4b3a-4e8b-9c55-0d6f1e2a3b4c");
+        entity.setAmount(Money.parse("125.30"));
+        entity.setType(Transaction.TransactionType.TRANSFER);
+        entity.setStatus(Transaction.TransactionStatus.COMPLETED);
+        entity.setFromAccount(fromAccount);
+        entity.setToAccount(toAccount);
+        entity.setDescription("Rent share");
+        entity.setCreatedAt(LocalDateTime.now());
+        entity.setProcessedAt(LocalDateTime.now());
+        transaction = new TransactionMapperImpl().toResponse(entity);
+    }
+
+    @Benchmark
+    public TransactionRequest readTransactionRequest() throws Exception {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] writeTransaction() throws Exception {
+        return transactionWriter.writeValueAsBytes(transaction);
+    }
+
+    private static Account account(Long id, String accountNumber, String balance) {
+        Account account = new Account();
+        account.setId(id);
+        account.setVersion(3L);
+        account.setAccountNumber(accountNumber);
+        account.setCustomerName("Benchmark Customer");
+        account.setEmail("benchmark@example.com");
+        account.setAccountType(Account.AccountType.CHECKING);
+        account.setBalance(Money.parse(balance));
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setUpdatedAt(LocalDateTime.now());
+        return account;
+    }
+}
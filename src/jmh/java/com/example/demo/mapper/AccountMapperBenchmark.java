@@ -0,0 +1,51 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.entity.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated {@link AccountMapper}, shared between threads like the Spring singleton.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountMapperBenchmark {
+
+    private AccountMapper accountMapper;
+    private CreateAccountRequest request;
+    private Account account;
+
+    @Setup
+    public void createMapper() {
+        accountMapper = new AccountMapperImpl();
+        request = new CreateAccountRequest();
+        request.setAccountNumber("JMH-MAPPER");
+        request.setCustomerName("Benchmark Customer");
+        request.setEmail("benchmark@example.com");
+        request.setAccountType(Account.AccountType.SAVINGS);
+        request.setInitialBalance(new BigDecimal("2500.00"));
+        account = accountMapper.toAccount(request);
+        account.setId(42L);
+        account.setVersion(7L);
+    }
+
+    @Benchmark
+    public Account toAccount() {
+        return accountMapper.toAccount(request);
+    }
+
+    @Benchmark
+    public Account copy() {
+        return accountMapper.copy(account);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches a populated {@link AccountSearchIndex} against the linear case-insensitive scan that a
+ * {@code LIKE '%x%'} query amounts to. Run with {@code -PjmhInclude=AccountSearch}; the one million
+ * account case needs a couple of gigabytes of heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Carol", "David", "Erin", "Frank", "Grace",
+            "Heidi", "Ivan", "Judy", "Mallory", "Niaj", "Olivia", "Peggy", "Rupert", "Sybil", "Trent", "Victor"};
+    private static final String[] LAST_NAMES = {"Johnson", "Smith", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson"};
+
+    @Param({"100000", "1000000"})
+    public int accounts;
+
+    @Param({"ali", "johnson", "olivia gar", "CHK00042"})
+    public String query;
+
+    private AccountSearchIndex index;
+    private String[] customerNames;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        index = new AccountSearchIndex(null, null, null);
+        customerNames = new String[accounts];
+        Random random = new Random(42);
+        for (int i = 0; i < accounts; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            customerNames[i] = first + " " + last + " " + i;
+            index.index(i + 1, "CHK" + String.format("%08d", i), customerNames[i],
+                    first.toLowerCase(Locale.ROOT) + "." + last.toLowerCase(Locale.ROOT) + i + "@example.com");
+        }
+    }
+
+    @Benchmark
+    public AccountSearchIndex.Ranking rankedFirstPage() {
+        return index.search(query, 0, 20);
+    }
+
+    @Benchmark
+    public int customerNameIndex() {
+        return index.findIdsByCustomerName(query).size();
+    }
+
+    @Benchmark
+    public int customerNameScan() {
+        String fragment = query.toLowerCase(Locale.ROOT);
+        int matches = 0;
+        for (String customerName : customerNames) {
+            if (customerName.toLowerCase(Locale.ROOT).contains(fragment)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance arithmetic with {@code BigDecimal} against {@link Money} and raw minor units as used by the
+ * ledger, plus the account validation helpers used by every transaction. Run with
+ * {@code -PjmhProfilers=gc} to compare allocation rates. The state is shared between threads, as
+ * concurrent requests share accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BalanceBenchmark {
+
+    private Account account;
+    private BigDecimal decimalBalance;
+    private BigDecimal decimalAmount;
+    private Money balance;
+    private Money amount;
+    private long minorBalance;
+    private long minorAmount;
+
+    @Setup
+    public void createAccount() {
+        decimalBalance = new BigDecimal("15234.57");
+        decimalAmount = new BigDecimal("125.30");
+        balance = Money.of(decimalBalance);
+        amount = Money.of(decimalAmount);
+        minorBalance = balance.minorUnits();
+        minorAmount = amount.minorUnits();
+        account = new Account();
+        account.setAccountNumber("JMH-BALANCE");
+        account.setBalance(balance);
+        account.setStatus(Account.AccountStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public BigDecimal decimalDebit() {
+        return decimalBalance.subtract(decimalAmount);
+    }
+
+    @Benchmark
+    public BigDecimal decimalCredit() {
+        return decimalBalance.add(decimalAmount);
+    }
+
+    @Benchmark
+    public int decimalCompare() {
+        return decimalBalance.compareTo(decimalAmount);
+    }
+
+    @Benchmark
+    public Money moneyDebit() {
+        return balance.minus(amount);
+    }
+
+    @Benchmark
+    public Money moneyCredit() {
+        return balance.plus(amount);
+    }
+
+    @Benchmark
+    public boolean moneyCompare() {
+        return balance.isLessThan(amount);
+    }
+
+    @Benchmark
+    public long minorUnitsDebit() {
+        return Money.subtractExact(minorBalance, minorAmount);
+    }
+
+    @Benchmark
+    public void validateAccountStatus() {
+        BankingService.validateAccountStatus(account, "From account");
+    }
+
+    @Benchmark
+    public void validateSufficientBalance() {
+        BankingService.validateSufficientBalance(account, amount);
+    }
+}
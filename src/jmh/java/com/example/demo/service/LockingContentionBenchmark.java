@@ -0,0 +1,154 @@
+package com.example.demo.service;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.ConcurrentTransactionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfers between Zipf-distributed accounts under each JPA-mode locking strategy. A skew of 0 is
+ * uniform; higher values send more of the traffic to a few hot accounts. Only meaningful contended,
+ * e.g. {@code ./gradlew jmh -PjmhThreads=8 -PjmhInclude=LockingContention}. Conflicts that reach the
+ * caller and server-side retries are the {@code conflicts} and {@code retries} secondary metrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockingContentionBenchmark {
+
+    private static final int ACCOUNTS = 100;
+    private static final String PREFIX = "JMH-LOCK-";
+
+    /**
+     * {@code optimistic-retry} retries each conflict up to 10 times with the default backoff.
+     */
+    @Param({"optimistic", "optimistic-retry", "pessimistic"})
+    public String locking;
+
+    @Param({"0.0", "0.8", "1.2", "1.6"})
+    public double skew;
+
+    private ConfigurableApplicationContext context;
+    private BankingService bankingService;
+    private double[] cumulative;
+    private Counter retryCounter;
+    private final AtomicLong retriesClaimed = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long conflicts;
+
+        /**
+         * Retries of the shared server-side counter, each claimed by the first thread to see it,
+         * so the threads' counts add up to the retries of the iteration.
+         */
+        public long retries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+            retries = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "banking.engine.locking=" + (locking.equals("pessimistic") ? "pessimistic" : "optimistic"),
+                        "banking.engine.retry.max-attempts=" + (locking.equals("optimistic-retry") ? 10 : 1))
+                .run();
+        bankingService = context.getBean(BankingService.class);
+        retryCounter = context.getBean(MeterRegistry.class).counter("banking.transactions.retries");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            CreateAccountRequest account = new CreateAccountRequest();
+            account.setAccountNumber(PREFIX + i);
+            account.setCustomerName("Benchmark " + PREFIX + i);
+            account.setEmail((PREFIX + i).toLowerCase() + "@example.com");
+            account.setAccountType(Account.AccountType.BUSINESS);
+            // Large enough that no account runs dry during a trial
+            account.setInitialBalance(new BigDecimal("1000000000000.00"));
+            bankingService.createAccount(account);
+        }
+
+        cumulative = new double[ACCOUNTS];
+        double sum = 0;
+        for (int rank = 1; rank <= ACCOUNTS; rank++) {
+            sum += 1.0 / Math.pow(rank, skew);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < ACCOUNTS; i++) {
+            cumulative[i] /= sum;
+        }
+        retriesClaimed.set((long) retryCounter.count());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction transfer(Outcomes outcomes) {
+        int from = pick();
+        int to = pick();
+        while (to == from) {
+            to = pick();
+        }
+        TransactionRequest request = new TransactionRequest();
+        request.setType(TransactionType.TRANSFER);
+        request.setFromAccountNumber(PREFIX + from);
+        request.setToAccountNumber(PREFIX + to);
+        request.setAmount(BigDecimal.ONE);
+        try {
+            return bankingService.processTransaction(request);
+        } catch (ConcurrentTransactionException e) {
+            outcomes.conflicts++;
+            return null;
+        } finally {
+            claimRetries(outcomes);
+        }
+    }
+
+    private void claimRetries(Outcomes outcomes) {
+        long seen = (long) retryCounter.count();
+        long claimed = retriesClaimed.getAndAccumulate(seen, Math::max);
+        if (seen > claimed) {
+            outcomes.retries += seen - claimed;
+        }
+    }
+
+    private int pick() {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, ACCOUNTS - 1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TransactionLimitProperties;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link TransactionLimits#check} adds to each withdrawal and transfer, against an account type
+ * without limits as the baseline. The limits are too high to be reached, so every check reserves.
+ * With one account all threads update the same window buckets; run with {@code -PjmhThreads=8} to
+ * see the cost of contended compare-and-sets, and compare with {@code TransactionProcessingBenchmark}
+ * for the share of a whole transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionLimitsBenchmark {
+
+    private static final long AMOUNT = 125_30;
+
+    @Param({"1", "10000"})
+    public int accounts;
+
+    private TransactionLimits limits;
+    private Account[] limited;
+    private Account[] unlimited;
+
+    @Setup
+    public void createLimits() {
+        TransactionLimitProperties.Limits savings = new TransactionLimitProperties.Limits();
+        savings.setDailyWithdrawal(new BigDecimal("100000000000000.00"));
+        savings.setTransfersPerMinute(Integer.MAX_VALUE);
+        TransactionLimitProperties properties = new TransactionLimitProperties();
+        properties.setEnabled(true);
+        properties.getAccountTypes().put(Account.AccountType.SAVINGS, savings);
+        // Never rehydrated, so no database is needed
+        limits = new TransactionLimits(properties, null, null);
+        limits.init();
+
+        limited = new Account[accounts];
+        unlimited = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            limited[i] = account(i, Account.AccountType.SAVINGS);
+            unlimited[i] = account(i, Account.AccountType.CHECKING);
+        }
+    }
+
+    @Benchmark
+    public TransactionLimits.Reservation unlimitedAccount() {
+        return limits.check(pick(unlimited), Transaction.TransactionType.WITHDRAWAL, AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionLimits.Reservation dailyWithdrawal() {
+        return limits.check(pick(limited), Transaction.TransactionType.WITHDRAWAL, AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionLimits.Reservation transferVelocity() {
+        return limits.check(pick(limited), Transaction.TransactionType.TRANSFER, AMOUNT);
+    }
+
+    private static Account pick(Account[] candidates) {
+        return candidates.length == 1 ? candidates[0] : candidates[ThreadLocalRandom.current().nextInt(candidates.length)];
+    }
+
+    private static Account account(long id, Account.AccountType accountType) {
+        Account account = new Account();
+        account.setId(id);
+        account.setAccountNumber("JMH-LIMIT-" + id);
+        account.setAccountType(accountType);
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        return account;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.service;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.ConcurrentTransactionException;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BankingService#processTransaction} per transaction type against the embedded H2 database.
+ * All threads share one pair of accounts, so runs with more than one thread measure the contended
+ * path; optimistic lock conflicts are reported as the {@code conflicts} secondary metric.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionProcessingBenchmark {
+
+    private static final String HOT_FROM = "JMH-FROM";
+    private static final String HOT_TO = "JMH-TO";
+
+    @Param({"DEPOSIT", "WITHDRAWAL", "TRANSFER", "PAYMENT", "REFUND"})
+    public TransactionType type;
+
+    @Param({"true", "false"})
+    public boolean accountCache;
+
+    private ConfigurableApplicationContext context;
+    private BankingService bankingService;
+    private TransactionRequest request;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long conflicts;
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "banking.account-cache.enabled=" + accountCache)
+                .run();
+        bankingService = context.getBean(BankingService.class);
+        createAccount(HOT_FROM);
+        createAccount(HOT_TO);
+
+        request = new TransactionRequest();
+        request.setType(type);
+        request.setAmount(new BigDecimal("1.00"));
+        request.setDescription("JMH " + type);
+        switch (type) {
+            case DEPOSIT -> request.setToAccountNumber(HOT_TO);
+            case WITHDRAWAL -> request.setFromAccountNumber(HOT_FROM);
+            case TRANSFER, PAYMENT, REFUND -> {
+                request.setFromAccountNumber(HOT_FROM);
+                request.setToAccountNumber(HOT_TO);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction processTransaction(Outcomes outcomes) {
+        try {
+            return bankingService.processTransaction(request);
+        } catch (ConcurrentTransactionException e) {
+            outcomes.conflicts++;
+            return null;
+        }
+    }
+
+    private void createAccount(String accountNumber) {
+        CreateAccountRequest account = new CreateAccountRequest();
+        account.setAccountNumber(accountNumber);
+        account.setCustomerName("Benchmark " + accountNumber);
+        account.setEmail(accountNumber.toLowerCase() + "@example.com");
+        account.setAccountType(Account.AccountType.CHECKING);
+        // Large enough that withdrawals never run dry during a trial
+        account.setInitialBalance(new BigDecimal("1000000000000.00"));
+        bankingService.createAccount(account);
+    }
+}
@@ -0,0 +1,467 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator for a running application. Requests arrive as a Poisson process
+ * at the configured rate whatever the response times, so a slow server builds up outstanding
+ * requests the way it would under real client traffic. Each arrival is a deposit, withdrawal,
+ * transfer, payment, refund, balance inquiry or search drawn from the configured mix, against
+ * accounts picked with a Zipf distribution so a few accounts take most of the traffic.
+ *
+ * <p>The generator creates its own accounts, sends every write with an {@code Idempotency-Key} and
+ * finally checks that the total balance of those accounts changed by exactly the completed
+ * deposits minus the completed withdrawals. Writes that timed out are replayed with the same key
+ * to learn whether they were applied. Writes answered with {@code 202 Outcome Unknown} are looked
+ * up by their transaction reference after the run and count only once they show as completed.
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="--rate=500 --duration=PT10M --mix=TRANSFER=60,DEPOSIT=20,BALANCE=20"
+ * </pre>
+ */
+public final class LoadGenerator implements AutoCloseable {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int REPLAY_ATTEMPTS = 3;
+    private static final Duration STATUS_POLL_INTERVAL = Duration.ofMillis(100);
+    private static final String[] SURNAMES = {"Smith", "Garcia", "Chen", "Okafor", "Novak", "Silva", "Kumar", "Larsen"};
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final double[] accountCumulative;
+    private final Operation[] operations = Operation.values();
+    private final int[] operationCumulative;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Queue<Call> unknownOutcomes = new ConcurrentLinkedQueue<>();
+    private final Queue<Accepted> acceptedOutcomes = new ConcurrentLinkedQueue<>();
+    private final LongAdder netChange = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator(LoadTestOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.requestTimeout())
+                .build();
+
+        this.accountCumulative = new double[options.accounts()];
+        double sum = 0;
+        for (int rank = 1; rank <= options.accounts(); rank++) {
+            sum += 1.0 / Math.pow(rank, options.skew());
+            accountCumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < accountCumulative.length; i++) {
+            accountCumulative[i] /= sum;
+        }
+
+        this.operationCumulative = new int[operations.length];
+        int weights = 0;
+        for (int i = 0; i < operations.length; i++) {
+            weights += options.mix().getOrDefault(operations[i], 0);
+            operationCumulative[i] = weights;
+        }
+        for (Operation operation : operations) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            totals.put(operation, new Histogram(HIGHEST_TRACKABLE_NANOS, 3));
+            failures.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadReport report;
+        try (LoadGenerator generator = new LoadGenerator(LoadTestOptions.parse(args))) {
+            report = generator.run();
+        }
+        System.out.println(report);
+        System.exit(report.ledgerConserved() ? 0 : 1);
+    }
+
+    public LoadReport run() throws InterruptedException {
+        createAccounts();
+        long initialTotal = totalBalance();
+        System.out.printf("Created %d accounts holding %s; arriving at %.0f req/s for %s%n",
+                accountNumbers.size(), BigDecimal.valueOf(initialTotal, 2), options.rate(), options.duration());
+
+        long sent = 0;
+        long dropped = 0;
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long reportMillis = options.reportInterval().toMillis();
+        reporter.scheduleAtFixedRate(() -> drain(true), reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+        SplittableRandom random = new SplittableRandom();
+        long start = System.nanoTime();
+        long end = start + options.duration().toNanos();
+        long due = start;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (true) {
+                due += (long) (-Math.log(1 - random.nextDouble()) / options.rate() * 1e9);
+                if (due >= end) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.incrementAndGet() > options.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    dropped++;
+                    continue;
+                }
+                Call call = nextCall(random);
+                long scheduled = due;
+                workers.execute(() -> {
+                    try {
+                        execute(call, scheduled);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+                sent++;
+            }
+        } finally {
+            reporter.shutdownNow();
+            reporter.awaitTermination(options.reportInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        drain(false);
+
+        long unresolved = 0;
+        for (Call call : unknownOutcomes) {
+            if (!replay(call)) {
+                unresolved++;
+            }
+        }
+        long deadline = System.nanoTime() + options.requestTimeout().toNanos();
+        for (Accepted accepted : acceptedOutcomes) {
+            if (!lookUp(accepted, deadline)) {
+                unresolved++;
+            }
+        }
+        return new LoadReport(elapsed, sent, dropped, new EnumMap<>(totals), sum(failures), sum(errors), unresolved,
+                initialTotal + netChange.sum(), totalBalance());
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private void createAccounts() {
+        for (int i = 0; i < options.accounts(); i++) {
+            String accountNumber = options.prefix() + i;
+            String body = """
+                    {"accountNumber":"%s","customerName":"Load %s %d","email":"%s@loadtest.example.com",\
+                    "accountType":"CHECKING","initialBalance":%s}""".formatted(accountNumber,
+                    SURNAMES[i % SURNAMES.length], i, accountNumber.toLowerCase(), amount(options.initialBalanceMinor()));
+            HttpResponse<String> response = send(post("/api/accounts", body, null));
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Could not create account " + accountNumber + ": "
+                        + response.statusCode() + " " + response.body());
+            }
+            accountNumbers.add(accountNumber);
+        }
+    }
+
+    private long totalBalance() {
+        long total = 0;
+        for (String accountNumber : accountNumbers) {
+            HttpResponse<String> response = send(get("/api/accounts/" + accountNumber + "/balance"));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Could not read the balance of " + accountNumber + ": "
+                        + response.statusCode() + " " + response.body());
+            }
+            total += new BigDecimal(response.body().trim()).movePointRight(2).longValueExact();
+        }
+        return total;
+    }
+
+    private Call nextCall(SplittableRandom random) {
+        int draw = random.nextInt(operationCumulative[operationCumulative.length - 1]);
+        int index = 0;
+        while (operationCumulative[index] <= draw) {
+            index++;
+        }
+        Operation operation = operations[index];
+        String from = pickAccount(random);
+        String to = pickAccount(random);
+        while (to.equals(from)) {
+            to = pickAccount(random);
+        }
+        return switch (operation) {
+            case DEPOSIT -> write(operation, null, to, random.nextLong(100, 10_001));
+            case WITHDRAWAL -> write(operation, from, null, random.nextLong(100, 5_001));
+            case TRANSFER, REFUND -> write(operation, from, to, random.nextLong(100, 2_001));
+            case PAYMENT -> write(operation, from, to, random.nextLong(100, 5_001));
+            case BALANCE -> new Call(operation, get("/api/accounts/" + to + "/balance"), 0);
+            case SEARCH -> new Call(operation, get("/api/accounts/search/ranked?size=20&q="
+                    + URLEncoder.encode(SURNAMES[random.nextInt(SURNAMES.length)], StandardCharsets.UTF_8)), 0);
+        };
+    }
+
+    private Call write(Operation operation, String from, String to, long amount) {
+        String body = """
+                {"fromAccountNumber":%s,"toAccountNumber":%s,"amount":%s,"type":"%s","description":"load test"}"""
+                .formatted(quote(from), quote(to), amount(amount), operation.name());
+        long change = switch (operation) {
+            case DEPOSIT -> amount;
+            case WITHDRAWAL -> -amount;
+            default -> 0;
+        };
+        return new Call(operation, post("/api/transactions", body, UUID.randomUUID().toString()), change);
+    }
+
+    private String pickAccount(SplittableRandom random) {
+        int index = Arrays.binarySearch(accountCumulative, random.nextDouble());
+        return accountNumbers.get(Math.min(index < 0 ? -index - 1 : index, accountNumbers.size() - 1));
+    }
+
+    private void execute(Call call, long due) {
+        Operation operation = call.operation();
+        try {
+            HttpResponse<String> response = client.send(call.request(), HttpResponse.BodyHandlers.ofString());
+            record(operation, due);
+            if (response.statusCode() == 202) {
+                accepted(call, response);
+            } else if (response.statusCode() < 300) {
+                netChange.add(call.change());
+            } else {
+                fail(operation, errorType(response));
+            }
+        } catch (IOException e) {
+            record(operation, due);
+            fail(operation, e.getClass().getSimpleName());
+            if (operation.changesTotal()) {
+                unknownOutcomes.add(call);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends a write whose outcome is unknown again with the same idempotency key. The server either
+     * answers with the transaction it already completed or runs it now; both count as applied once.
+     * A replay answered with {@code 202} is left to the status lookup.
+     */
+    private boolean replay(Call call) {
+        for (int attempt = 0; attempt < REPLAY_ATTEMPTS; attempt++) {
+            try {
+                HttpResponse<String> response = client.send(call.request(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 202) {
+                    accepted(call, response);
+                    return true;
+                }
+                if (response.statusCode() < 300) {
+                    netChange.add(call.change());
+                    return true;
+                }
+                if (response.statusCode() < 500) {
+                    return true;
+                }
+            } catch (IOException e) {
+                // Try again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues a write the server accepted without deciding for a status lookup by the transaction
+     * reference in the {@code 202} body, or for a replay if the body has none.
+     */
+    private void accepted(Call call, HttpResponse<String> response) {
+        if (!call.operation().changesTotal()) {
+            return;
+        }
+        try {
+            JsonNode reference = objectMapper.readTree(response.body()).path("transactionReference");
+            if (reference.isTextual()) {
+                acceptedOutcomes.add(new Accepted(call, reference.asText()));
+                return;
+            }
+        } catch (IOException e) {
+            // Not a JSON body
+        }
+        unknownOutcomes.add(call);
+    }
+
+    /**
+     * Polls {@code GET /api/transactions/{reference}} until the transaction shows a final status or
+     * the deadline passes. Only a completed transaction counts as applied; a reference the server
+     * does not know yet is polled again, since the write-behind may not have stored it.
+     */
+    private boolean lookUp(Accepted accepted, long deadline) {
+        HttpRequest request = get("/api/transactions/"
+                + URLEncoder.encode(accepted.reference(), StandardCharsets.UTF_8));
+        while (true) {
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    String status = objectMapper.readTree(response.body()).path("status").asText();
+                    if ("COMPLETED".equals(status)) {
+                        netChange.add(accepted.call().change());
+                        return true;
+                    }
+                    if (!"PENDING".equals(status)) {
+                        return true;
+                    }
+                }
+            } catch (IOException e) {
+                // Try again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(STATUS_POLL_INTERVAL.toNanos());
+        }
+    }
+
+    private void record(Operation operation, long due) {
+        recorders.get(operation).recordValue(Math.min(System.nanoTime() - due, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    private void fail(Operation operation, String type) {
+        failures.get(operation).increment();
+        errors.computeIfAbsent(type, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Reads the status and {@code error} label of the body {@code GlobalExceptionHandler} writes,
+     * for example {@code 409 Concurrent Transaction}.
+     */
+    private String errorType(HttpResponse<String> response) {
+        try {
+            JsonNode error = objectMapper.readTree(response.body()).path("error");
+            if (error.isTextual()) {
+                return response.statusCode() + " " + error.asText();
+            }
+        } catch (IOException e) {
+            // Not a JSON error body
+        }
+        return response.statusCode() + " (no error body)";
+    }
+
+    /**
+     * Moves the latencies recorded since the last call into the totals, optionally printing them as
+     * one interval line per operation.
+     */
+    private synchronized void drain(boolean print) {
+        for (Operation operation : operations) {
+            Histogram interval = recorders.get(operation).getIntervalHistogram();
+            totals.get(operation).add(interval);
+            if (print && interval.getTotalCount() > 0) {
+                System.out.printf("  %-10s %7d req  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms%n", operation,
+                        interval.getTotalCount(), interval.getValueAtPercentile(50) / 1e6,
+                        interval.getValueAtPercentile(99) / 1e6, interval.getMaxValue() / 1e6);
+            }
+        }
+        if (print) {
+            System.out.printf("  in flight %d, errors %s%n", inFlight.get(), sum(errors));
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(options.requestTimeout())
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json, String idempotencyKey) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .timeout(options.requestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (idempotencyKey != null) {
+            builder.header("Idempotency-Key", idempotencyKey);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return options.baseUrl().resolve(path);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Request to " + request.uri() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + request.uri(), e);
+        }
+    }
+
+    private static String amount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2).toPlainString();
+    }
+
+    private static String quote(String value) {
+        return value == null ? "null" : "\"" + value + "\"";
+    }
+
+    private static <K, V extends LongAdder> Map<K, Long> sum(Map<K, V> counters) {
+        Map<K, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            if (counter.sum() > 0) {
+                sums.put(key, counter.sum());
+            }
+        });
+        return sums;
+    }
+
+    /**
+     * One request to send, with the change it makes to the total balance of the test accounts
+     * when it completes.
+     */
+    private record Call(Operation operation, HttpRequest request, long change) {
+    }
+
+    /**
+     * A write answered with {@code 202 Outcome Unknown}, to be looked up by its transaction reference.
+     */
+    private record Accepted(Call call, String reference) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outcome of a load-generator run. Latencies are measured from the moment each request was due to
+ * be sent, not from when it was actually sent, so a stalled server shows up in the percentiles
+ * instead of silently lowering the request rate.
+ *
+ * @param sent          requests started
+ * @param dropped       arrivals skipped because {@code max-in-flight} requests were outstanding
+ * @param latencies     latency histogram per operation, in nanoseconds
+ * @param failures      failed requests per operation
+ * @param errors        failed requests by error type: the status and {@code error} label from
+ *                      {@code GlobalExceptionHandler}, or the exception name for transport failures
+ * @param unresolved    deposits and withdrawals whose outcome could not be determined, by replay
+ *                      or by looking up the reference of a {@code 202 Outcome Unknown} answer
+ * @param expectedTotal total balance of the test accounts implied by the completed requests, in minor units
+ * @param actualTotal   total balance of the test accounts read back after the run, in minor units
+ */
+public record LoadReport(Duration elapsed, long sent, long dropped, Map<Operation, Histogram> latencies,
+                         Map<Operation, Long> failures, Map<String, Long> errors, long unresolved,
+                         long expectedTotal, long actualTotal) {
+
+    /**
+     * Whether money was neither created nor destroyed: transfers, payments and refunds moved it
+     * between test accounts, and only the completed deposits and withdrawals changed the total.
+     */
+    public boolean ledgerConserved() {
+        return unresolved == 0 && expectedTotal == actualTotal;
+    }
+
+    public long failed() {
+        return failures.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public double errorRate() {
+        return sent == 0 ? 0 : (double) failed() / sent;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d requests in %.1f s (%.0f req/s), %d dropped, error rate %.2f%%%n",
+                sent, elapsed.toNanos() / 1e9, sent * 1e9 / Math.max(1, elapsed.toNanos()), dropped, errorRate() * 100));
+        report.append(String.format("%-10s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        latencies.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                report.append(String.format("%-10s %9d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", operation,
+                        histogram.getTotalCount(), failures.getOrDefault(operation, 0L),
+                        millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                        millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                        millis(histogram.getMaxValue())));
+            }
+        });
+        errors.forEach((type, count) -> report.append(String.format("  %-40s %9d  %6.2f%%%n",
+                type, count, sent == 0 ? 0 : count * 100.0 / sent)));
+        report.append(String.format("Ledger %s: expected total %s, actual total %s, %d unresolved deposits/withdrawals",
+                ledgerConserved() ? "conserved" : "NOT CONSERVED",
+                BigDecimal.valueOf(expectedTotal, 2), BigDecimal.valueOf(actualTotal, 2), unresolved));
+        return report.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.loadtest;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of one load-generator run, read from {@code --name=value} arguments. Anything not given
+ * keeps the default below.
+ *
+ * <pre>
+ * --base-url=http://localhost:8080      application under test
+ * --rate=200                            mean arrivals per second (Poisson, open model)
+ * --duration=PT1M                       how long to keep arriving
+ * --accounts=1000                       accounts created for the run
+ * --skew=1.1                            Zipf exponent of account selection
+ * --initial-balance=10000.00            opening balance of every account
+ * --mix=DEPOSIT=20,WITHDRAWAL=15,TRANSFER=40,PAYMENT=15,REFUND=10,BALANCE=0,SEARCH=0
+ * --request-timeout=PT5S
+ * --max-in-flight=10000                 arrivals beyond this are counted as dropped
+ * --report-interval=PT10S               interval percentiles during long soaks
+ * --prefix=LT-&lt;millis&gt;-               account number prefix, unique per run by default
+ * </pre>
+ */
+public record LoadTestOptions(URI baseUrl, double rate, Duration duration, int accounts, double skew,
+                              long initialBalanceMinor, Map<Operation, Integer> mix, Duration requestTimeout,
+                              int maxInFlight, Duration reportInterval, String prefix) {
+
+    public static final String DEFAULT_MIX = "DEPOSIT=20,WITHDRAWAL=15,TRANSFER=40,PAYMENT=15,REFUND=10,BALANCE=0,SEARCH=0";
+
+    public LoadTestOptions {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        if (accounts < 2) {
+            throw new IllegalArgumentException("At least two accounts are needed for transfers");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The operation mix has no weight");
+        }
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.parse(values.getOrDefault("duration", "PT1M")),
+                Integer.parseInt(values.getOrDefault("accounts", "1000")),
+                Double.parseDouble(values.getOrDefault("skew", "1.1")),
+                new BigDecimal(values.getOrDefault("initial-balance", "10000.00"))
+                        .movePointRight(2).longValueExact(),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Duration.parse(values.getOrDefault("request-timeout", "PT5S")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                Duration.parse(values.getOrDefault("report-interval", "PT10S")),
+                values.getOrDefault("prefix", "LT-" + System.currentTimeMillis() + "-"));
+        values.keySet().removeAll(Set.of("base-url", "rate", "duration", "accounts", "skew",
+                "initial-balance", "mix", "request-timeout", "max-in-flight", "report-interval", "prefix"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+    /**
+     * Parses {@code OPERATION=weight} pairs. Operations left out get weight zero.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, 0);
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected OPERATION=weight in the mix but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.loadtest;
+
+/**
+ * One kind of request the load generator sends. The five writes map to the API's transaction
+ * types; {@link #BALANCE} and {@link #SEARCH} are the optional read traffic.
+ */
+public enum Operation {
+
+    DEPOSIT(true),
+    WITHDRAWAL(true),
+    TRANSFER(true),
+    PAYMENT(true),
+    REFUND(true),
+    BALANCE(false),
+    SEARCH(false);
+
+    private final boolean write;
+
+    Operation(boolean write) {
+        this.write = write;
+    }
+
+    public boolean isWrite() {
+        return write;
+    }
+
+    /**
+     * Whether a completed request of this kind changes the total money held by the test accounts.
+     */
+    public boolean changesTotal() {
+        return this == DEPOSIT || this == WITHDRAWAL;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.account-cache")
+public class AccountCacheProperties {
+
+    /**
+     * Whether account lookups by account number are served from the cache.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of cached accounts before the least valuable entries are evicted.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * How long an entry may be served after it was loaded or last updated.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+}
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.events")
+public class AccountEventProperties {
+
+    /**
+     * Events kept in the ring buffer, rounded up to a power of two. This is also the replay window
+     * for clients reconnecting with {@code Last-Event-ID}.
+     */
+    private int bufferSize = 65_536;
+
+    /**
+     * Concurrent subscriptions; further ones are rejected.
+     */
+    private int maxSubscribers = 10_000;
+
+    /**
+     * Accounts a single subscription may follow.
+     */
+    private int maxAccountsPerSubscription = 1_000;
+
+    /**
+     * What happens to a subscriber that falls a whole buffer behind: CONFLATE skips ahead and
+     * sends only the latest event of each of its accounts, DROP closes its stream.
+     */
+    private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.CONFLATE;
+
+    /**
+     * Idle time after which a comment is sent to keep the connection open and detect dead clients.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Lifetime of an SSE connection before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    public enum SlowConsumerPolicy {
+        CONFLATE, DROP
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.AccountImportFormat;
+import com.example.demo.dto.AccountImportReport;
+import com.example.demo.service.AccountImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command-line bulk loader: {@code --import-accounts=<file>} imports a {@code .csv} file, or
+ * NDJSON for any other extension, then shuts the application down. Every row error is written to
+ * {@code <file>.errors.ndjson}; the exit code is 1 if any row failed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountImportRunner implements ApplicationRunner {
+
+    private static final String OPTION = "import-accounts";
+
+    private final AccountImportService accountImportService;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!args.containsOption(OPTION) || args.getOptionValues(OPTION).isEmpty()) {
+            return;
+        }
+        Path file = Path.of(args.getOptionValues(OPTION).get(0));
+        AccountImportFormat format = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? AccountImportFormat.CSV
+                : AccountImportFormat.NDJSON;
+        Path errorFile = file.resolveSibling(file.getFileName() + ".errors.ndjson");
+        log.info("Importing accounts from {} as {}, row errors go to {}", file, format, errorFile);
+
+        AccountImportReport report;
+        try (InputStream input = Files.newInputStream(file);
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+            report = accountImportService.importAccounts(input, format, error -> {
+                try {
+                    errors.write(objectMapper.writeValueAsString(error));
+                    errors.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        System.exit(SpringApplication.exit(context, () -> report.getFailed() == 0 ? 0 : 1));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.totals")
+public class AccountTotalsProperties {
+
+    /**
+     * Threads used by the rebuild of the monthly totals.
+     */
+    private int rebuildThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of account ids each rebuild task covers.
+     */
+    private int rebuildRangeSize = 1_000;
+
+    /**
+     * How long after a month has ended the rebuild treats it as closed. Closed months are rebuilt
+     * without locks; the open ones are rebuilt under short locks on a few accounts at a time. Must
+     * cover how late the sharded write-behind can store a transaction.
+     */
+    private Duration closedMonthDelay = Duration.ofHours(1);
+}
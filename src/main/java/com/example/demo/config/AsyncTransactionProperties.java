@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.async")
+public class AsyncTransactionProperties {
+
+    /**
+     * Number of worker threads processing accepted transactions.
+     */
+    private int workers = 4;
+
+    /**
+     * Accepted transactions that may wait for a worker. Submissions beyond it are rejected with 429.
+     */
+    private int queueCapacity = 1_000;
+
+    /**
+     * How often a transaction that lost an optimistic-lock race is retried before it is marked failed.
+     */
+    private int conflictRetries = 3;
+
+    /**
+     * How long shutdown waits for queued transactions to drain before cancelling the rest.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "banking.batch")
+public class BatchProperties {
+
+    /**
+     * Number of batch items processed per database transaction. Each chunk loads its
+     * accounts in one query and is flushed as a single unit of work.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Upper bound on the number of items accepted in a single batch request.
+     */
+    private int maxItems = 50_000;
+}
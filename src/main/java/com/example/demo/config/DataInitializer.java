@@ -1,15 +1,19 @@
 package com.example.demo.config;
 
 import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
 import com.example.demo.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
+/**
+ * Seeds sample accounts into the in-memory development database. Not active in the durable prod profile.
+ */
 @Component
+@Profile("!prod")
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
@@ -36,7 +40,7 @@ public class DataInitializer implements CommandLineRunner {
         checkingAccount.setCustomerName("John Doe");
         checkingAccount.setEmail("john.doe@email.com");
         checkingAccount.setAccountType(Account.AccountType.CHECKING);
-        checkingAccount.setBalance(new BigDecimal("5000.00"));
+        checkingAccount.setBalance(Money.parse("5000.00"));
         checkingAccount.setStatus(Account.AccountStatus.ACTIVE);
         accountRepository.save(checkingAccount);
         
@@ -46,7 +50,7 @@ public class DataInitializer implements CommandLineRunner {
         savingsAccount.setCustomerName("Jane Smith");
         savingsAccount.setEmail("jane.smith@email.com");
         savingsAccount.setAccountType(Account.AccountType.SAVINGS);
-        savingsAccount.setBalance(new BigDecimal("15000.00"));
+        savingsAccount.setBalance(Money.parse("15000.00"));
         savingsAccount.setStatus(Account.AccountStatus.ACTIVE);
         accountRepository.save(savingsAccount);
         
@@ -56,7 +60,7 @@ public class DataInitializer implements CommandLineRunner {
         businessAccount.setCustomerName("Tech Startup GmbH");
         businessAccount.setEmail("finance@techstartup.com");
         businessAccount.setAccountType(Account.AccountType.BUSINESS);
-        businessAccount.setBalance(new BigDecimal("50000.00"));
+        businessAccount.setBalance(Money.parse("50000.00"));
         businessAccount.setStatus(Account.AccountStatus.ACTIVE);
         accountRepository.save(businessAccount);
         
@@ -66,7 +70,7 @@ public class DataInitializer implements CommandLineRunner {
         investmentAccount.setCustomerName("Robert Johnson");
         investmentAccount.setEmail("robert.johnson@email.com");
         investmentAccount.setAccountType(Account.AccountType.INVESTMENT);
-        investmentAccount.setBalance(new BigDecimal("100000.00"));
+        investmentAccount.setBalance(Money.parse("100000.00"));
         investmentAccount.setStatus(Account.AccountStatus.ACTIVE);
         accountRepository.save(investmentAccount);
         
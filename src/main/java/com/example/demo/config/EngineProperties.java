@@ -0,0 +1,98 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.engine")
+public class EngineProperties {
+
+    /**
+     * Transaction engine used by {@code processTransaction}.
+     */
+    private EngineMode mode = EngineMode.JPA;
+
+    /**
+     * Number of single-threaded ledger shards in {@link EngineMode#SHARDED} mode.
+     */
+    private int shards = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * How long a caller waits for its shard legs to be applied before giving up.
+     */
+    private Duration shardTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How {@link EngineMode#JPA} mode guards concurrent updates of the same account.
+     */
+    private Locking locking = Locking.OPTIMISTIC;
+
+    private Retry retry = new Retry();
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * Server-side retries of optimistic lock conflicts in {@link Locking#OPTIMISTIC} mode.
+     */
+    @Data
+    public static class Retry {
+
+        /**
+         * Attempts per transaction, including the first. 1 reports every conflict to the caller.
+         */
+        private int maxAttempts = 1;
+
+        /**
+         * Upper bound of the first backoff. Each further attempt doubles it, up to
+         * {@code max-backoff}, and the actual wait is drawn uniformly below the bound.
+         */
+        private Duration initialBackoff = Duration.ofMillis(5);
+
+        private Duration maxBackoff = Duration.ofMillis(200);
+    }
+
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * Maximum number of postings persisted in one database transaction.
+         */
+        private int batchSize = 500;
+
+        /**
+         * How long the writer waits for more postings before flushing a partial batch.
+         */
+        private Duration flushInterval = Duration.ofMillis(20);
+
+        /**
+         * Capacity of the posting queue. Callers block once it is full.
+         */
+        private int queueCapacity = 100_000;
+    }
+
+    public enum Locking {
+        /**
+         * Accounts are read from the cache and written with a version-checked update; concurrent
+         * writers of the same account fail with a conflict.
+         */
+        OPTIMISTIC,
+        /**
+         * Accounts are read with {@code SELECT ... FOR UPDATE}, lowest id first, so writers of the
+         * same account queue behind each other instead of failing.
+         */
+        PESSIMISTIC
+    }
+
+    public enum EngineMode {
+        /**
+         * Every transaction runs in its own JPA transaction, guarded by the optimistic {@code @Version} lock.
+         */
+        JPA,
+        /**
+         * Live balances are owned by single-threaded shards and persisted asynchronously.
+         */
+        SHARDED
+    }
+}
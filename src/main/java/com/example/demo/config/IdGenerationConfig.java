@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.PooledSequenceGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGenerationConfig {
+
+    /**
+     * Passes {@code banking.ids.allocation-size} to {@link PooledSequenceGenerator}, which reads it
+     * from the Hibernate settings while the entity mappings are built.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(IdGenerationProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(PooledSequenceGenerator.ALLOCATION_SIZE,
+                properties.getAllocationSize());
+    }
+}
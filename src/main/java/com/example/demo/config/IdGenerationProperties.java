@@ -0,0 +1,18 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.PooledSequenceGenerator;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "banking.ids")
+public class IdGenerationProperties {
+
+    /**
+     * Number of entity ids reserved per sequence call. Larger blocks mean fewer round trips but
+     * bigger gaps after restarts. Must equal the sequences' {@code INCREMENT BY}, which the
+     * migrations create as 50; changing it needs a migration that alters the sequences, or startup
+     * fails with a sequence increment mismatch.
+     */
+    private int allocationSize = PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE;
+}
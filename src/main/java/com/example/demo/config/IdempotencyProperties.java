@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Maximum number of idempotency keys answered from memory. Older keys fall back to the database.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * How long a key stays in memory after its transaction completed.
+     */
+    private Duration retention = Duration.ofHours(24);
+}
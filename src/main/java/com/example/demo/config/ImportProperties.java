@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "banking.import")
+public class ImportProperties {
+
+    /**
+     * Rows checked for duplicates, inserted as one JDBC batch and committed together. Only one
+     * chunk is held in memory at a time.
+     */
+    private int chunkSize = 1_000;
+
+    /**
+     * Row errors kept in the import report. Further errors are counted, and the command-line
+     * loader still writes all of them to its error file.
+     */
+    private int maxReportedErrors = 1_000;
+}
@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "banking.journal")
+public class JournalProperties {
+
+    /**
+     * Whether the sharded engine journals every transaction before acknowledging it.
+     * Has no effect in JPA mode, where the database commit is the acknowledgement.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the journal segment files.
+     */
+    private String directory = "data/journal";
+
+    /**
+     * Size of each memory-mapped journal segment.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Whether appends are forced to disk before they are acknowledged. Turning this off keeps the
+     * journal in the page cache only, which survives a process crash but not a power loss.
+     */
+    private boolean fsync = true;
+}
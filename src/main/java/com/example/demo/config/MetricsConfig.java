@@ -0,0 +1,44 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Meters that Spring Boot does not register on its own. Connection pool counts
+ * ({@code hikaricp.connections.*}) and repository method timings
+ * ({@code spring.data.repository.invocations}) are auto-configured.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Share of the pool in use plus the threads waiting for a connection, relative to the pool
+     * size. Values above 1 mean requests are queueing for connections.
+     */
+    @Bean
+    public MeterBinder connectionPoolSaturation(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return registry -> { };
+        }
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        return registry -> Gauge.builder("banking.db.pool.saturation", hikari, MetricsConfig::saturation)
+                .description("Active plus pending connections divided by the maximum pool size")
+                .register(registry);
+    }
+
+    private static double saturation(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection())
+                / hikari.getMaximumPoolSize();
+    }
+}
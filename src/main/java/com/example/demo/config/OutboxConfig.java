@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.example.demo.service.outbox.BinaryOutboxSink;
+import com.example.demo.service.outbox.NdjsonOutboxSink;
+import com.example.demo.service.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * File sink selected by {@code banking.outbox.sink}. Defining another {@link OutboxSink} bean,
+     * e.g. one publishing to a message broker, replaces it.
+     */
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public OutboxSink outboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return switch (properties.getSink()) {
+            case NDJSON -> new NdjsonOutboxSink(properties, objectMapper);
+            case BINARY -> new BinaryOutboxSink(properties);
+        };
+    }
+}
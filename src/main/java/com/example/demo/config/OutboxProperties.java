@@ -0,0 +1,60 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether the relay drains the outbox on a schedule. Entries are recorded either way, so a
+     * disabled relay only lets the backlog grow.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * Delay between relay runs. Each run drains until the outbox is empty.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * Entries handed to the sink per write and deleted per checkpoint.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Default sink, used unless the application defines its own {@code OutboxSink} bean.
+     */
+    private SinkType sink = SinkType.NDJSON;
+
+    /**
+     * Directory the file sinks write their segments to.
+     */
+    private String directory = "data/outbox";
+
+    /**
+     * Size after which a file sink starts a new segment.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Whether file sinks force each batch to disk before it is checkpointed. Without it a power
+     * loss can lose batches the outbox no longer holds.
+     */
+    private boolean fsync = true;
+
+    public enum SinkType {
+        /**
+         * One JSON object per line.
+         */
+        NDJSON,
+        /**
+         * Length-prefixed binary records, for high volumes.
+         */
+        BINARY
+    }
+}
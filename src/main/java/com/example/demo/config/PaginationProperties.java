@@ -0,0 +1,39 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "banking.pagination")
+public class PaginationProperties {
+
+    /**
+     * Page size used when a request does not specify one.
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * Largest page size a request may ask for.
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * JDBC fetch size for streamed listings, i.e. how many rows are pulled from the database per round trip.
+     */
+    private int exportFetchSize = 500;
+
+    /**
+     * Number of rows written between flushes of a streamed export.
+     */
+    private int exportFlushRows = 1_000;
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        if (requested < 1 || requested > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+        return requested;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "banking.reconciliation")
+public class ReconciliationProperties {
+
+    /**
+     * When the nightly ledger reconciliation runs. {@code -} disables the schedule.
+     */
+    private String cron = "0 30 2 * * *";
+
+    /**
+     * Number of account id ranges reconciled at once. Each holds a pooled connection while it runs,
+     * so keep it below the connection pool size.
+     */
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Number of account ids each range covers.
+     */
+    private int rangeSize = 10_000;
+
+    /**
+     * How often a mismatched account is checked again on its own before it is reported, to rule
+     * out transactions committed while its range was being read.
+     */
+    private int recheckAttempts = 2;
+
+    /**
+     * Maximum number of transaction references reported per mismatched account.
+     */
+    private int maxReportedReferences = 20;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "banking.search")
+public class SearchProperties {
+
+    /**
+     * Maximum number of ranked results a search can page through.
+     */
+    private int maxResults = 1_000;
+
+    /**
+     * JDBC fetch size used while rebuilding the index from the accounts table on startup.
+     */
+    private int rebuildFetchSize = 1_000;
+}
@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.snapshots")
+public class SnapshotProperties {
+
+    /**
+     * Whether the compactor rolls closed days into daily balance snapshots on a schedule.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between compaction runs.
+     */
+    private Duration compactionInterval = Duration.ofHours(1);
+
+    /**
+     * How long after midnight a day is still considered open. Covers transactions stamped before
+     * midnight but committed shortly after it. In sharded mode a day also stays open while the
+     * write-behind still holds transactions processed on it.
+     */
+    private Duration settleDelay = Duration.ofMinutes(5);
+
+    /**
+     * Threads used by snapshot reconciliation.
+     */
+    private int reconciliationThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of account ids each reconciliation task covers.
+     */
+    private int reconciliationRangeSize = 10_000;
+}
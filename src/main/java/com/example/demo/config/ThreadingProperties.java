@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "banking.threads")
+public class ThreadingProperties {
+
+    /**
+     * Whether pinned virtual threads are recorded and logged when virtual threads are enabled.
+     */
+    private boolean pinningDetection = true;
+
+    /**
+     * Minimum time a virtual thread must pin its carrier thread before it is reported.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    /**
+     * Number of stack frames logged for each pinning event.
+     */
+    private int pinnedStackDepth = 12;
+}
@@ -0,0 +1,39 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.Account;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "banking.limits")
+public class TransactionLimitProperties {
+
+    /**
+     * Whether the configured limits are enforced.
+     */
+    private boolean enabled;
+
+    /**
+     * Limits by account type, e.g. {@code banking.limits.account-types.SAVINGS.daily-withdrawal}.
+     * Account types without an entry are unlimited.
+     */
+    private Map<Account.AccountType, Limits> accountTypes = new EnumMap<>(Account.AccountType.class);
+
+    @Data
+    public static class Limits {
+
+        /**
+         * Most that may be withdrawn from one account within any 24 hours. Unlimited when unset.
+         */
+        private BigDecimal dailyWithdrawal;
+
+        /**
+         * Most transfers out of one account within any minute. Unlimited when unset.
+         */
+        private Integer transfersPerMinute;
+    }
+}
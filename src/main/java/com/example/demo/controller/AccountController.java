@@ -1,17 +1,42 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AccountFilter;
+import com.example.demo.dto.AccountImportFormat;
+import com.example.demo.dto.AccountImportReport;
+import com.example.demo.dto.AccountMonthlyTotals;
+import com.example.demo.dto.AccountPage;
+import com.example.demo.dto.AccountResponse;
+import com.example.demo.dto.AccountSearchPage;
+import com.example.demo.dto.AccountStatement;
 import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.dto.TransactionHistoryPage;
+import com.example.demo.dto.TransactionHistoryRow;
 import com.example.demo.entity.Account;
-import com.example.demo.entity.Transaction;
+import com.example.demo.mapper.AccountMapper;
+import com.example.demo.service.AccountEventStream;
+import com.example.demo.service.AccountImportService;
+import com.example.demo.service.AccountTotalsService;
+import com.example.demo.service.BalanceSnapshotService;
 import com.example.demo.service.BankingService;
+import com.example.demo.service.ListingService;
+import com.example.demo.service.TransactionHistoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -21,49 +46,151 @@ import java.util.List;
 public class AccountController {
     
     private final BankingService bankingService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final ListingService listingService;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final AccountImportService accountImportService;
+    private final AccountMapper accountMapper;
+    private final AccountEventStream accountEventStream;
+    private final AccountTotalsService accountTotalsService;
     
     @PostMapping
-    public ResponseEntity<Account> createAccount(@Valid @RequestBody CreateAccountRequest request) {
+    public ResponseEntity<AccountResponse> createAccount(@Valid @RequestBody CreateAccountRequest request) {
         log.info("Creating account for customer: {}", request.getCustomerName());
         Account account = bankingService.createAccount(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(account);
+        return ResponseEntity.status(HttpStatus.CREATED).body(accountMapper.toResponse(account));
+    }
+    
+    /**
+     * Creates accounts from a CSV (with header row) or NDJSON body of account requests, streamed
+     * chunk by chunk. Rows that fail validation or already exist are listed in the report.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<AccountImportReport> importAccounts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        AccountImportFormat format = MediaType.APPLICATION_NDJSON.includes(MediaType.parseMediaType(contentType))
+                ? AccountImportFormat.NDJSON
+                : AccountImportFormat.CSV;
+        log.info("Importing accounts from {} request body", format);
+        return ResponseEntity.ok(accountImportService.importAccounts(body, format));
     }
     
     @GetMapping("/{accountNumber}")
-    public ResponseEntity<Account> getAccount(@PathVariable String accountNumber) {
+    public ResponseEntity<AccountResponse> getAccount(@PathVariable String accountNumber) {
         Account account = bankingService.getAccountByNumber(accountNumber);
-        return ResponseEntity.ok(account);
+        return ResponseEntity.ok(accountMapper.toResponse(account));
     }
     
     @GetMapping
-    public ResponseEntity<List<Account>> getAllAccounts() {
+    public ResponseEntity<List<AccountResponse>> getAllAccounts() {
         List<Account> accounts = bankingService.getAllAccounts();
-        return ResponseEntity.ok(accounts);
+        return ResponseEntity.ok(accountMapper.toResponses(accounts));
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<AccountPage> getAccountsPage(
+            @ModelAttribute AccountFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        AccountPage page = listingService.getAccountsPage(filter, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAccounts(@ModelAttribute AccountFilter filter) {
+        StreamingResponseBody body = out -> listingService.streamAccounts(filter, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+    
+    /**
+     * Server-sent {@code transaction}, {@code balance} and {@code status} events for the given
+     * accounts, each carrying the account's new balance and status. Clients reconnecting with
+     * {@code Last-Event-ID} receive the events they missed.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAccountEvents(
+            @RequestParam List<String> accounts,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // Unknown accounts get a 404 before the stream opens
+        accounts.forEach(bankingService::getAccountByNumber);
+        return accountEventStream.subscribe(accounts, lastEventId);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Account>> searchAccountsByCustomerName(@RequestParam String customerName) {
+    public ResponseEntity<List<AccountResponse>> searchAccountsByCustomerName(@RequestParam String customerName) {
         List<Account> accounts = bankingService.getAccountsByCustomerName(customerName);
-        return ResponseEntity.ok(accounts);
+        return ResponseEntity.ok(accountMapper.toResponses(accounts));
+    }
+    
+    @GetMapping("/search/ranked")
+    public ResponseEntity<AccountSearchPage> searchAccounts(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        AccountSearchPage results = listingService.searchAccounts(q, page, size);
+        return ResponseEntity.ok(results);
     }
     
     @GetMapping("/{accountNumber}/balance")
-    public ResponseEntity<BigDecimal> getAccountBalance(@PathVariable String accountNumber) {
-        BigDecimal balance = bankingService.getAccountBalance(accountNumber);
+    public ResponseEntity<BigDecimal> getAccountBalance(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        BigDecimal balance = asOf != null
+                ? balanceSnapshotService.balanceAsOf(accountNumber, asOf).toBigDecimal()
+                : bankingService.getAccountBalance(accountNumber);
         return ResponseEntity.ok(balance);
     }
     
+    @GetMapping("/{accountNumber}/statement")
+    public ResponseEntity<AccountStatement> getAccountStatement(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AccountStatement statement = balanceSnapshotService.statement(accountNumber, from, to);
+        return ResponseEntity.ok(statement);
+    }
+    
+    /**
+     * Counts and sums of the account's completed transactions in the given month, by type and as
+     * inflow/outflow, read from the running totals instead of the transaction history.
+     */
+    @GetMapping("/{accountNumber}/totals")
+    public ResponseEntity<AccountMonthlyTotals> getAccountTotals(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        AccountMonthlyTotals totals = accountTotalsService.monthTotals(accountNumber, month != null ? month : YearMonth.now());
+        return ResponseEntity.ok(totals);
+    }
+    
     @GetMapping("/{accountNumber}/transactions")
-    public ResponseEntity<List<Transaction>> getAccountTransactions(@PathVariable String accountNumber) {
-        List<Transaction> transactions = bankingService.getAccountTransactions(accountNumber);
+    public ResponseEntity<List<TransactionHistoryRow>> getAccountTransactions(@PathVariable String accountNumber) {
+        List<TransactionHistoryRow> transactions = bankingService.getAccountTransactions(accountNumber);
         return ResponseEntity.ok(transactions);
     }
     
+    @GetMapping("/{accountNumber}/transactions/page")
+    public ResponseEntity<TransactionHistoryPage> getAccountTransactionsPage(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        TransactionHistoryPage page = transactionHistoryService.getAccountTransactionsPage(accountNumber, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/{accountNumber}/transactions/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAccountTransactions(@PathVariable String accountNumber) {
+        // Resolve the account up front so an unknown account still gets a 404 before streaming starts
+        bankingService.getAccountByNumber(accountNumber);
+        StreamingResponseBody body = out -> transactionHistoryService.exportAccountTransactions(accountNumber, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
     @PutMapping("/{accountNumber}/status")
-    public ResponseEntity<Account> updateAccountStatus(
+    public ResponseEntity<AccountResponse> updateAccountStatus(
             @PathVariable String accountNumber,
             @RequestParam Account.AccountStatus status) {
         Account account = bankingService.updateAccountStatus(accountNumber, status);
-        return ResponseEntity.ok(account);
+        return ResponseEntity.ok(accountMapper.toResponse(account));
     }
 }
@@ -0,0 +1,117 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.VirtualThreadPinningMonitor;
+import com.example.demo.dto.AccountCacheStats;
+import com.example.demo.dto.AccountTotalsRebuildReport;
+import com.example.demo.dto.OutboxStatus;
+import com.example.demo.dto.ReconciliationProgress;
+import com.example.demo.dto.SnapshotReconciliationReport;
+import com.example.demo.dto.ThreadingStats;
+import com.example.demo.service.AccountCache;
+import com.example.demo.service.AccountTotalsService;
+import com.example.demo.service.BalanceSnapshotService;
+import com.example.demo.service.LedgerReconciliationService;
+import com.example.demo.service.SnapshotReconciliationService;
+import com.example.demo.service.outbox.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+    
+    private final AccountCache accountCache;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final SnapshotReconciliationService snapshotReconciliationService;
+    private final LedgerReconciliationService ledgerReconciliationService;
+    private final OutboxRelay outboxRelay;
+    private final AccountTotalsService accountTotalsService;
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+    private final Environment environment;
+    
+    @GetMapping("/cache/accounts")
+    public ResponseEntity<AccountCacheStats> getAccountCacheStats() {
+        return ResponseEntity.ok(accountCache.stats());
+    }
+    
+    @DeleteMapping("/cache/accounts")
+    public ResponseEntity<Void> clearAccountCache() {
+        log.info("Clearing account cache");
+        accountCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+    
+    @GetMapping("/threads")
+    public ResponseEntity<ThreadingStats> getThreadingStats() {
+        VirtualThreadPinningMonitor monitor = pinningMonitor.getIfAvailable();
+        return ResponseEntity.ok(new ThreadingStats(Threading.VIRTUAL.isActive(environment),
+                monitor != null ? monitor.getPinnedEvents() : 0,
+                monitor != null ? monitor.getPinnedMillis() : 0));
+    }
+    
+    @PostMapping("/snapshots/compact")
+    public ResponseEntity<Map<String, Object>> compactSnapshots(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        LocalDate compactedThrough;
+        if (from != null) {
+            log.info("Compacting daily balance snapshots again from {}", from);
+            compactedThrough = balanceSnapshotService.compact(from);
+        } else {
+            log.info("Compacting daily balance snapshots");
+            compactedThrough = balanceSnapshotService.compact();
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("compactedThrough", compactedThrough);
+        return ResponseEntity.ok(body);
+    }
+    
+    @PostMapping("/snapshots/reconcile")
+    public ResponseEntity<SnapshotReconciliationReport> reconcileSnapshots() {
+        log.info("Reconciling account balances against daily snapshots");
+        return ResponseEntity.ok(snapshotReconciliationService.reconcile());
+    }
+    
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ReconciliationProgress> startReconciliation() {
+        log.info("Starting ledger reconciliation");
+        return ResponseEntity.accepted().body(ledgerReconciliationService.start());
+    }
+    
+    @GetMapping("/reconciliation")
+    public ResponseEntity<ReconciliationProgress> getReconciliationProgress() {
+        return ResponseEntity.ok(ledgerReconciliationService.progress());
+    }
+    
+    @PostMapping("/totals/rebuild")
+    public ResponseEntity<AccountTotalsRebuildReport> rebuildAccountTotals() {
+        log.info("Rebuilding monthly account totals from transaction history");
+        return ResponseEntity.ok(accountTotalsService.rebuild());
+    }
+    
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxStatus> getOutboxStatus() {
+        return ResponseEntity.ok(outboxRelay.status());
+    }
+    
+    @PostMapping("/outbox/drain")
+    public ResponseEntity<Map<String, Object>> drainOutbox() throws IOException {
+        log.info("Draining transaction outbox");
+        long delivered = outboxRelay.drain();
+        Map<String, Object> body = new HashMap<>();
+        body.put("delivered", delivered);
+        return ResponseEntity.ok(body);
+    }
+}
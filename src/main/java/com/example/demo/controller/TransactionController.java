@@ -1,14 +1,28 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchTransactionRequest;
+import com.example.demo.dto.BatchTransactionResponse;
+import com.example.demo.dto.TransactionFilter;
+import com.example.demo.dto.TransactionHistoryPage;
+import com.example.demo.dto.TransactionHistoryRow;
 import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.dto.TransactionStatusResponse;
 import com.example.demo.entity.Transaction;
+import com.example.demo.mapper.TransactionMapper;
+import com.example.demo.service.AsyncTransactionService;
 import com.example.demo.service.BankingService;
+import com.example.demo.service.ListingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -18,17 +32,63 @@ import java.util.List;
 public class TransactionController {
     
     private final BankingService bankingService;
+    private final ListingService listingService;
+    private final AsyncTransactionService asyncTransactionService;
+    private final TransactionMapper transactionMapper;
     
     @PostMapping
-    public ResponseEntity<Transaction> processTransaction(@Valid @RequestBody TransactionRequest request) {
+    public ResponseEntity<TransactionResponse> processTransaction(
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("Processing transaction request: {}", request.getType());
-        Transaction transaction = bankingService.processTransaction(request);
-        return ResponseEntity.ok(transaction);
+        Transaction transaction = bankingService.processTransaction(request, idempotencyKey);
+        return ResponseEntity.ok(transactionMapper.toResponse(transaction));
+    }
+    
+    @PostMapping("/async")
+    public ResponseEntity<TransactionStatusResponse> submitTransaction(@Valid @RequestBody TransactionRequest request) {
+        log.info("Accepting asynchronous transaction request: {}", request.getType());
+        TransactionStatusResponse accepted = asyncTransactionService.submit(request);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/transactions/{reference}")
+                .buildAndExpand(accepted.getTransactionReference())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(accepted);
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransactionResponse> processBatch(@Valid @RequestBody BatchTransactionRequest request) {
+        log.info("Processing batch of {} transaction requests", request.getTransactions().size());
+        BatchTransactionResponse response = bankingService.processBatch(request.getTransactions());
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = bankingService.getAllTransactions();
+    public ResponseEntity<List<TransactionHistoryRow>> getAllTransactions() {
+        List<TransactionHistoryRow> transactions = bankingService.getAllTransactions();
         return ResponseEntity.ok(transactions);
     }
+    
+    @GetMapping("/{transactionReference}")
+    public ResponseEntity<TransactionStatusResponse> getTransactionStatus(@PathVariable String transactionReference) {
+        TransactionStatusResponse status = bankingService.getTransactionStatus(transactionReference);
+        return ResponseEntity.ok(status);
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<TransactionHistoryPage> getTransactionsPage(
+            @ModelAttribute TransactionFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        TransactionHistoryPage page = listingService.getTransactionsPage(filter, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactions(@ModelAttribute TransactionFilter filter) {
+        // Reject bad filters before the response is committed
+        filter.requireValidRange();
+        StreamingResponseBody body = out -> listingService.streamTransactions(filter, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
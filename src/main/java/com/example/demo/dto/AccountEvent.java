@@ -0,0 +1,54 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change to one account, pushed to subscribers after it was committed. The sequence is also the
+ * SSE event id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountEvent {
+
+    private long sequence;
+
+    private Type type;
+
+    private String accountNumber;
+
+    private Money balance;
+
+    private Account.AccountStatus status;
+
+    /**
+     * Change to this account's balance, negative for the debited side. {@code null} for status
+     * changes and batch results.
+     */
+    private Money amount;
+
+    private String transactionReference;
+
+    private Transaction.TransactionType transactionType;
+
+    private LocalDateTime occurredAt;
+
+    public enum Type {
+        /**
+         * One leg of a processed transaction.
+         */
+        TRANSACTION,
+        /**
+         * Net result of a batch chunk.
+         */
+        BALANCE,
+        STATUS
+    }
+}
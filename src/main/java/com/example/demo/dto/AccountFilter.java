@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Account;
+import lombok.Data;
+
+/**
+ * Optional filters for account listings. Every filter that is set becomes a SQL predicate.
+ */
+@Data
+public class AccountFilter {
+
+    private Account.AccountStatus status;
+
+    private Account.AccountType accountType;
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+/**
+ * Input formats of the bulk account import. CSV needs a header row naming the
+ * {@link CreateAccountRequest} fields; NDJSON holds one request object per line.
+ */
+public enum AccountImportFormat {
+    CSV, NDJSON
+}
@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImportReport {
+
+    private long total;
+
+    private long imported;
+
+    private long failed;
+
+    private long elapsedMillis;
+
+    private long rowsPerSecond;
+
+    /**
+     * The first {@code banking.import.max-reported-errors} row errors; {@code failed} counts all of them.
+     */
+    private List<AccountImportError> errors;
+}
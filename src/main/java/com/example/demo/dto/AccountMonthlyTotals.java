@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Completed transactions of an account within one month, overall and by transaction type.
+ * Inflow is money credited to the account, outflow money debited from it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountMonthlyTotals {
+
+    private String accountNumber;
+
+    private YearMonth month;
+
+    private long transactionCount;
+
+    private Money inflow;
+
+    private Money outflow;
+
+    private Map<Transaction.TransactionType, TypeTotals> byType;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeTotals {
+
+        private long transactionCount;
+
+        private Money inflow;
+
+        private Money outflow;
+    }
+}
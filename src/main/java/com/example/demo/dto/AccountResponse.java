@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Account as returned by the API. Built by {@link com.example.demo.mapper.AccountMapper}, so the
+ * entity and its optimistic-lock version never reach the serializer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountResponse {
+
+    private Long id;
+
+    private String accountNumber;
+
+    private String customerName;
+
+    private String email;
+
+    private Money balance;
+
+    private Money openingBalance;
+
+    private Account.AccountType accountType;
+
+    private Account.AccountStatus status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSearchHit {
+
+    private Long id;
+
+    private String accountNumber;
+
+    private String customerName;
+
+    private String email;
+
+    private int score;
+}
@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results. {@code total} counts every match, even beyond the
+ * configured result limit that pages can reach.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSearchPage {
+
+    private List<AccountSearchHit> items;
+
+    private int page;
+
+    private int size;
+
+    private int total;
+}
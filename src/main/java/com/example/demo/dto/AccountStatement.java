@@ -0,0 +1,35 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Balance movement of an account between two dates, both inclusive. {@code days} lists only days
+ * with activity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStatement {
+
+    private String accountNumber;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Money openingBalance;
+
+    private Money closingBalance;
+
+    private Money totalDebits;
+
+    private Money totalCredits;
+
+    private List<DailyBalance> days;
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTotalsRebuildReport {
+
+    private long accounts;
+
+    private int ranges;
+
+    private long legsScanned;
+
+    private long rowsWritten;
+
+    private long elapsedMillis;
+}
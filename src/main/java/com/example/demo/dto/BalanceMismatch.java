@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMismatch {
+
+    private String accountNumber;
+
+    private Money expected;
+
+    private Money actual;
+}
@@ -0,0 +1,38 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    private int index;
+
+    private ItemStatus status;
+
+    private String transactionReference;
+
+    private String error;
+
+    public static BatchItemResult success(int index, String transactionReference) {
+        return new BatchItemResult(index, ItemStatus.SUCCESS, transactionReference, null);
+    }
+
+    public static BatchItemResult failure(int index, String error) {
+        return new BatchItemResult(index, ItemStatus.FAILED, null, error);
+    }
+
+    /**
+     * The engine did not confirm the item in time; it may still complete under the reference.
+     */
+    public static BatchItemResult pending(int index, String transactionReference, String error) {
+        return new BatchItemResult(index, ItemStatus.PENDING, transactionReference, error);
+    }
+
+    public enum ItemStatus {
+        SUCCESS, FAILED, PENDING
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BatchTransactionRequest {
+
+    @NotEmpty
+    @Valid
+    private List<TransactionRequest> transactions = new ArrayList<>();
+}
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransactionResponse {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    private int pending;
+
+    private List<BatchItemResult> results;
+
+    public static BatchTransactionResponse of(List<BatchItemResult> results) {
+        int succeeded = count(results, BatchItemResult.ItemStatus.SUCCESS);
+        int failed = count(results, BatchItemResult.ItemStatus.FAILED);
+        return new BatchTransactionResponse(results.size(), succeeded, failed, results.size() - succeeded - failed, results);
+    }
+
+    private static int count(List<BatchItemResult> results, BatchItemResult.ItemStatus status) {
+        return (int) results.stream().filter(result -> result.getStatus() == status).count();
+    }
+}
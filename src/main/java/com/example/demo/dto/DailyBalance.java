@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalance {
+
+    private LocalDate date;
+
+    private Money openingBalance;
+
+    private Money closingBalance;
+
+    private Money debits;
+
+    private Money credits;
+
+    private int transactionCount;
+}
@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Balance effect of one completed transaction: {@code amount} leaves {@code fromAccountId} and
+ * enters {@code toAccountId}, either of which may be {@code null}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerLeg {
+
+    private String transactionReference;
+
+    private Long fromAccountId;
+
+    private Long toAccountId;
+
+    private Money amount;
+
+    private LocalDateTime processedAt;
+
+    private Transaction.TransactionType type;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An account whose balance differs from its opening balance plus its completed transactions.
+ * {@code transactionReferences} lists the transactions whose amount equals the difference, i.e.
+ * a leg that was lost or applied twice, or else the account's most recent transactions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerMismatch {
+
+    private String accountNumber;
+
+    private Money expected;
+
+    private Money actual;
+
+    private Money difference;
+
+    private List<String> transactionReferences;
+}
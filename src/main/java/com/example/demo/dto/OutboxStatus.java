@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStatus {
+
+    private long pending;
+
+    private LocalDateTime oldestPendingRecordedAt;
+
+    private Long lastDeliveredId;
+
+    private long deliveredCount;
+
+    private LocalDateTime lastDeliveredAt;
+}
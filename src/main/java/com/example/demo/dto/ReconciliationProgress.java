@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationProgress {
+
+    private boolean running;
+
+    private LocalDateTime startedAt;
+
+    private int rangesDone;
+
+    private int rangesTotal;
+
+    private long accountsChecked;
+
+    private long legsScanned;
+
+    private long legsPerSecond;
+
+    private ReconciliationReport lastReport;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+
+    private LocalDateTime startedAt;
+
+    private long elapsedMillis;
+
+    private int ranges;
+
+    private long accountsChecked;
+
+    private long legsScanned;
+
+    private long legsPerSecond;
+
+    private List<LedgerMismatch> mismatches;
+}
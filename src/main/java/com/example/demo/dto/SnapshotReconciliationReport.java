@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotReconciliationReport {
+
+    private LocalDate compactedThrough;
+
+    private long accountsChecked;
+
+    private int ranges;
+
+    private long elapsedMillis;
+
+    private List<BalanceMismatch> mismatches;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadingStats {
+
+    private boolean virtualThreads;
+
+    private long pinnedEvents;
+
+    private long pinnedMillis;
+}
@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Transaction;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for transaction listings. Every filter that is set becomes a SQL predicate.
+ */
+@Data
+public class TransactionFilter {
+
+    private Transaction.TransactionStatus status;
+
+    private Transaction.TransactionType type;
+
+    /**
+     * Inclusive lower bound on {@code createdAt}.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    /**
+     * Exclusive upper bound on {@code createdAt}.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    public void requireValidRange() {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+}
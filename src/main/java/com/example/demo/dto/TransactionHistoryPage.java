@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryPage {
+
+    private List<TransactionHistoryRow> items;
+
+    /**
+     * Opaque token for the next page, or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of a transaction as seen in an account's history. Built directly by JPQL constructor
+ * expressions, so no entities or account proxies are loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryRow {
+
+    private Long id;
+
+    private String transactionReference;
+
+    private Transaction.TransactionType type;
+
+    private Transaction.TransactionStatus status;
+
+    private Money amount;
+
+    private String fromAccountNumber;
+
+    private String toAccountNumber;
+
+    private String description;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+}
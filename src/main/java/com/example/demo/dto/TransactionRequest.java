@@ -1,7 +1,9 @@
 package com.example.demo.dto;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -15,11 +17,13 @@ public class TransactionRequest {
     
     @NotNull
     @Positive
+    @Digits(integer = 16, fraction = 2)
     private BigDecimal amount;
     
     @NotNull
     private TransactionType type;
     
+    @Size(max = 500)
     private String description;
 
 }
@@ -0,0 +1,40 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Processed transaction as returned by the API. Accounts are referred to by number only.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionResponse {
+
+    private Long id;
+
+    private String transactionReference;
+
+    private Transaction.TransactionType type;
+
+    private Transaction.TransactionStatus status;
+
+    private Money amount;
+
+    private String fromAccountNumber;
+
+    private String toAccountNumber;
+
+    private String description;
+
+    private String failureReason;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+}
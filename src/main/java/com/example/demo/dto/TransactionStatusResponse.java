@@ -0,0 +1,54 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStatusResponse {
+
+    private String transactionReference;
+
+    private Transaction.TransactionType type;
+
+    private Transaction.TransactionStatus status;
+
+    private Money amount;
+
+    private String fromAccountNumber;
+
+    private String toAccountNumber;
+
+    private String failureReason;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    /**
+     * Requires the transaction's accounts to be loaded.
+     */
+    public static TransactionStatusResponse of(Transaction transaction) {
+        return new TransactionStatusResponse(
+                transaction.getTransactionReference(),
+                transaction.getType(),
+                transaction.getStatus(),
+                transaction.getAmount(),
+                accountNumber(transaction.getFromAccount()),
+                accountNumber(transaction.getToAccount()),
+                transaction.getFailureReason(),
+                transaction.getCreatedAt(),
+                transaction.getProcessedAt());
+    }
+
+    private static String accountNumber(Account account) {
+        return account != null ? account.getAccountNumber() : null;
+    }
+}
@@ -8,18 +8,19 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_created", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Account {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("account_seq")
     private Long id;
     
     @Version
@@ -39,7 +40,13 @@ public class Account {
     
     @NotNull(message = "Balance is required")
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
+    
+    /**
+     * Balance the account was opened with. Statements and reconciliation replay history from it.
+     */
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    private Money openingBalance;
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -54,6 +61,13 @@ public class Account {
     
     private LocalDateTime updatedAt;
     
+    @PrePersist
+    public void prePersist() {
+        if (this.openingBalance == null) {
+            this.openingBalance = this.balance;
+        }
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,49 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Compacted balance movement of one account over one business day, by processing time of its
+ * completed transactions. Only days with activity get a row, so an account's balance is unchanged
+ * between two consecutive rows.
+ */
+@Entity
+@Table(name = "account_daily_balances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_daily_balances_account_date",
+                columnNames = {"account_id", "business_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountDailyBalance {
+    
+    @Id
+    @PooledSequence("account_daily_balance_seq")
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+    
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money openingBalance;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money closingBalance;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money debitTotal;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money creditTotal;
+    
+    @Column(nullable = false)
+    private int transactionCount;
+}
@@ -0,0 +1,60 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Running totals of one account's completed transactions of one type within one calendar month,
+ * by processing time. Updated in the database transaction that completes each transaction, so
+ * reports read at most one row per type instead of aggregating the history.
+ */
+@Entity
+@Table(name = "account_monthly_totals",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_monthly_totals_account_month_type",
+                columnNames = {"account_id", "month_start", "type"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountMonthlyTotal {
+    
+    @Id
+    @PooledSequence("account_monthly_total_seq")
+    private Long id;
+    
+    /**
+     * Catches writers that read the row before a rebuild replaced it.
+     */
+    @Version
+    private Long version;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "account_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Account account;
+    
+    /**
+     * First day of the month.
+     */
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.TransactionType type;
+    
+    @Column(nullable = false)
+    private long transactionCount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money inflow = Money.ZERO;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money outflow = Money.ZERO;
+}
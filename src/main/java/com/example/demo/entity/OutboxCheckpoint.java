@@ -0,0 +1,37 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the outbox relay, updated in the database transaction that deletes a delivered batch.
+ * A single row with a fixed id.
+ */
+@Entity
+@Table(name = "outbox_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxCheckpoint {
+    
+    public static final long ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    /**
+     * Highest outbox id delivered so far. Entries committed late may still carry lower ids.
+     */
+    @Column(nullable = false)
+    private Long lastDeliveredId;
+    
+    @Column(nullable = false)
+    private Long deliveredCount;
+    
+    @Column(nullable = false)
+    private LocalDateTime deliveredAt;
+}
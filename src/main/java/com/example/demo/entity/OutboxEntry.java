@@ -0,0 +1,47 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed transaction waiting to be exported to downstream systems. Written in the database
+ * transaction that stores or completes the {@link Transaction} and deleted once the outbox relay
+ * has delivered it, so the table only holds the undelivered backlog.
+ *
+ * <p>The account numbers are copied in, so delivery never joins back to {@code accounts}.
+ */
+@Entity
+@Table(name = "transaction_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEntry {
+    
+    @Id
+    @PooledSequence("outbox_seq")
+    private Long id;
+    
+    @Column(nullable = false)
+    private String transactionReference;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.TransactionType type;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money amount;
+    
+    private String fromAccountNumber;
+    
+    private String toAccountNumber;
+    
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime recordedAt = LocalDateTime.now();
+}
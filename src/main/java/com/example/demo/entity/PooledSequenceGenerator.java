@@ -0,0 +1,46 @@
+package com.example.demo.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator whose allocation size comes from configuration instead of the mapping.
+ * Hibernate hands out {@code allocation-size} ids per sequence call from memory, and unlike
+ * {@code IDENTITY} it knows an id before the insert, so inserts can be batched.
+ *
+ * <p>With the {@code pooled-lo} optimizer a sequence value is the first id of its block, so other
+ * writers that take single values from the same sequence cannot collide with the cached block.
+ *
+ * <p>Ids are mapped with {@link PooledSequence}. The database sequence's {@code INCREMENT BY} must
+ * equal the allocation size; Hibernate checks this when the mappings are built and fails startup
+ * on a mismatch ({@code hibernate.id.sequence.increment_size_mismatch_strategy=exception}).
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * Hibernate setting holding the number of ids fetched per sequence call.
+     */
+    public static final String ALLOCATION_SIZE = "banking.id.allocation_size";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config) {
+        this.sequenceName = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        Object allocationSize = serviceRegistry.getService(ConfigurationService.class).getSettings().get(ALLOCATION_SIZE);
+        parameters.setProperty(INCREMENT_PARAM,
+                allocationSize != null ? allocationSize.toString() : String.valueOf(DEFAULT_ALLOCATION_SIZE));
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Last business day rolled into {@link AccountDailyBalance} rows. A single row with a fixed id.
+ */
+@Entity
+@Table(name = "snapshot_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotCheckpoint {
+    
+    public static final long ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate compactedThrough;
+}
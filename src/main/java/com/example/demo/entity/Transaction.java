@@ -3,23 +3,29 @@ package com.example.demo.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_from_account_created", columnList = "from_account_id, created_at, id"),
+        @Index(name = "idx_transactions_to_account_created", columnList = "to_account_id, created_at, id"),
+        @Index(name = "idx_transactions_created", columnList = "created_at, id"),
+        @Index(name = "idx_transactions_processed_at", columnList = "processed_at"),
+        @Index(name = "idx_transactions_status", columnList = "status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("transaction_seq")
     private Long id;
     
     @NotBlank(message = "Transaction reference is required")
@@ -27,9 +33,8 @@ public class Transaction {
     private String transactionReference;
     
     @NotNull(message = "Amount is required")
-    @Positive(message = "Amount must be positive")
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -39,17 +44,31 @@ public class Transaction {
     @Column(nullable = false)
     private TransactionStatus status = TransactionStatus.PENDING;
     
+    /**
+     * Left out of {@code toString}, {@code equals} and {@code hashCode} so that logging or comparing
+     * a transaction never initializes its accounts.
+     */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_account_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Account fromAccount;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "to_account_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Account toAccount;
     
     @Column(length = 500)
     private String description;
     
+    @Column(unique = true, length = 100)
+    private String idempotencyKey;
+    
+    @Column(length = 500)
+    private String failureReason;
+    
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
@@ -0,0 +1,12 @@
+package com.example.demo.exception;
+
+/**
+ * Thrown when a transaction leg touches an account that is not {@code ACTIVE}. Extends
+ * {@link IllegalStateException} so existing handlers keep treating it as a state violation.
+ */
+public class AccountInactiveException extends IllegalStateException {
+
+    public AccountInactiveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.exception;
+
+public class TransactionLimitExceededException extends RuntimeException {
+
+    public TransactionLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.exception;
+
+import com.example.demo.entity.Transaction;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Thrown when the engine did not confirm a transaction in time. The transaction may still complete,
+ * so callers must look it up by reference instead of treating it as failed.
+ */
+public class TransactionOutcomeUnknownException extends RuntimeException {
+
+    private final String transactionReference;
+    private final transient CompletableFuture<Transaction> outcome;
+
+    public TransactionOutcomeUnknownException(String message, String transactionReference) {
+        this(message, transactionReference, null);
+    }
+
+    public TransactionOutcomeUnknownException(String message, String transactionReference,
+                                              CompletableFuture<Transaction> outcome) {
+        super(message);
+        this.transactionReference = transactionReference;
+        this.outcome = outcome;
+    }
+
+    public String getTransactionReference() {
+        return transactionReference;
+    }
+
+    /**
+     * Completes once the engine has decided the transaction, or {@code null} if it only will be
+     * after a restart.
+     */
+    public CompletableFuture<Transaction> getOutcome() {
+        return outcome;
+    }
+}
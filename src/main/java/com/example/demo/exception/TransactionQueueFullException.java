@@ -0,0 +1,8 @@
+package com.example.demo.exception;
+
+public class TransactionQueueFullException extends RuntimeException {
+
+    public TransactionQueueFullException(String message) {
+        super(message);
+    }
+}
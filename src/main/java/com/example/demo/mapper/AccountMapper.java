@@ -1,20 +1,36 @@
 package com.example.demo.mapper;
 
+import com.example.demo.dto.AccountResponse;
 import com.example.demo.dto.CreateAccountRequest;
 import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface AccountMapper {
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "version", ignore = true)
     @Mapping(target = "balance", source = "initialBalance")
+    @Mapping(target = "openingBalance", source = "initialBalance")
     @Mapping(target = "status", expression = "java(com.example.demo.entity.Account.AccountStatus.ACTIVE)")
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Account toAccount(CreateAccountRequest request);
+    
+    Account copy(Account account);
+    
+    AccountResponse toResponse(Account account);
+    
+    List<AccountResponse> toResponses(List<Account> accounts);
+    
+    default Money toMoney(BigDecimal amount) {
+        return amount != null ? Money.of(amount) : null;
+    }
 }
 
@@ -0,0 +1,19 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.TransactionResponse;
+import com.example.demo.entity.Transaction;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Only the account numbers are read from the transaction's accounts. The engines set the accounts
+ * they validated against, so this does not initialize lazy proxies.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface TransactionMapper {
+    
+    @Mapping(target = "fromAccountNumber", source = "fromAccount.accountNumber")
+    @Mapping(target = "toAccountNumber", source = "toAccount.accountNumber")
+    TransactionResponse toResponse(Transaction transaction);
+}
@@ -0,0 +1,45 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AccountDailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountDailyBalanceRepository extends JpaRepository<AccountDailyBalance, Long> {
+
+    Optional<AccountDailyBalance> findFirstByAccountIdAndBusinessDateLessThanEqualOrderByBusinessDateDesc(
+            Long accountId, LocalDate businessDate);
+
+    List<AccountDailyBalance> findByAccountIdAndBusinessDateBetweenOrderByBusinessDate(
+            Long accountId, LocalDate from, LocalDate to);
+
+    /**
+     * Latest snapshot before the given day of each of the accounts that has one.
+     */
+    @Query("SELECT s FROM AccountDailyBalance s WHERE s.account.id IN :accountIds AND s.businessDate = " +
+           "(SELECT MAX(p.businessDate) FROM AccountDailyBalance p WHERE p.account.id = s.account.id AND p.businessDate < :businessDate)")
+    List<AccountDailyBalance> findLatestBefore(@Param("accountIds") Collection<Long> accountIds,
+                                               @Param("businessDate") LocalDate businessDate);
+
+    /**
+     * Latest snapshot of each account with an id in {@code [fromId, toId)} that has one.
+     */
+    @Query("SELECT s FROM AccountDailyBalance s WHERE s.account.id >= :fromId AND s.account.id < :toId AND s.businessDate = " +
+           "(SELECT MAX(p.businessDate) FROM AccountDailyBalance p WHERE p.account.id = s.account.id)")
+    List<AccountDailyBalance> findLatestInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Deletes the snapshots of {@code businessDate} and every later day.
+     */
+    @Modifying
+    @Query("DELETE FROM AccountDailyBalance s WHERE s.businessDate >= :businessDate")
+    int deleteFrom(@Param("businessDate") LocalDate businessDate);
+}
@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.AccountFilter;
+import com.example.demo.entity.Account;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered account listings, newest first. Filters and the keyset position are applied in SQL.
+ */
+public interface AccountListingRepository {
+
+    List<Account> findListingPage(AccountFilter filter, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Streams detached accounts. Must be consumed and closed inside a transaction.
+     */
+    Stream<Account> streamListing(AccountFilter filter, int fetchSize);
+}
@@ -0,0 +1,60 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.AccountFilter;
+import com.example.demo.entity.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class AccountListingRepositoryImpl implements AccountListingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Account> findListingPage(AccountFilter filter, LocalDateTime createdAt, Long id, int limit) {
+        return query(filter, createdAt, id)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Account> streamListing(AccountFilter filter, int fetchSize) {
+        return query(filter, null, null)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                // Detach each row so the persistence context does not grow with the result
+                .peek(entityManager::detach);
+    }
+
+    private TypedQuery<Account> query(AccountFilter filter, LocalDateTime createdAt, Long id) {
+        StringBuilder jpql = new StringBuilder("SELECT a FROM Account a WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.getStatus() != null) {
+            jpql.append(" AND a.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getAccountType() != null) {
+            jpql.append(" AND a.accountType = :accountType");
+            parameters.put("accountType", filter.getAccountType());
+        }
+        if (createdAt != null) {
+            jpql.append(" AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id))");
+            parameters.put("createdAt", createdAt);
+            parameters.put("id", id);
+        }
+        jpql.append(" ORDER BY a.createdAt DESC, a.id DESC");
+
+        TypedQuery<Account> query = entityManager.createQuery(jpql.toString(), Account.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AccountMonthlyTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountMonthlyTotalRepository extends JpaRepository<AccountMonthlyTotal, Long> {
+
+    /**
+     * At most one row per transaction type, served by the {@code (account_id, month_start, type)}
+     * unique index.
+     */
+    @Query("SELECT t FROM AccountMonthlyTotal t WHERE t.account.id = :accountId AND t.monthStart = :monthStart")
+    List<AccountMonthlyTotal> findMonth(@Param("accountId") Long accountId, @Param("monthStart") LocalDate monthStart);
+
+    /**
+     * Rows of any of the accounts in any of the months; callers pick the combinations they need.
+     */
+    @Query("SELECT t FROM AccountMonthlyTotal t WHERE t.account.id IN :accountIds AND t.monthStart IN :monthStarts")
+    List<AccountMonthlyTotal> findMonths(@Param("accountIds") Collection<Long> accountIds,
+                                         @Param("monthStarts") Collection<LocalDate> monthStarts);
+
+    @Modifying
+    @Query("DELETE FROM AccountMonthlyTotal t WHERE t.account.id >= :fromId AND t.account.id < :toId "
+            + "AND t.monthStart < :monthStart")
+    int deleteByAccountRangeBefore(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                   @Param("monthStart") LocalDate monthStart);
+
+    @Modifying
+    @Query("DELETE FROM AccountMonthlyTotal t WHERE t.account.id >= :fromId AND t.account.id < :toId "
+            + "AND t.monthStart >= :monthStart")
+    int deleteByAccountRangeFrom(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                 @Param("monthStart") LocalDate monthStart);
+}
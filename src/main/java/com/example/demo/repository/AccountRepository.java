@@ -1,18 +1,66 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountListingRepository {
     
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
     
     List<Account> findByCustomerNameContainingIgnoreCase(String customerName);
 
     boolean existsByAccountNumber(String accountNumber);
+
+    @Query("SELECT a.accountNumber FROM Account a WHERE a.accountNumber IN :accountNumbers")
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Query("SELECT a FROM Account a WHERE a.id >= :fromId AND a.id < :toId")
+    List<Account> findByIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Loads the account and locks its row until the end of the transaction. Callers locking more
+     * than one account must do so in ascending id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Accounts with an id in {@code [fromId, toId)}, each locked until the end of the transaction in
+     * ascending id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id >= :fromId AND a.id < :toId ORDER BY a.id")
+    List<Account> lockByIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT MIN(a.id) FROM Account a")
+    Long findMinId();
+
+    @Query("SELECT MAX(a.id) FROM Account a")
+    Long findMaxId();
+
+    /**
+     * Sets the balance of an account only if it is still at the expected version, bumping the
+     * version like a managed update would. Returns the number of updated rows.
+     */
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = :balance, a.version = a.version + 1, a.updatedAt = :updatedAt " +
+           "WHERE a.id = :id AND a.version = :version")
+    int updateBalance(@Param("id") Long id, @Param("version") Long version,
+                      @Param("balance") Money balance, @Param("updatedAt") LocalDateTime updatedAt);
 }
\ No newline at end of file
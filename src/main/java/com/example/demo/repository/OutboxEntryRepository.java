@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.OutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEntryRepository extends JpaRepository<OutboxEntry, Long> {
+    
+    /**
+     * Oldest undelivered entries first. Served by the primary key index.
+     */
+    @Query("SELECT e FROM OutboxEntry e ORDER BY e.id")
+    List<OutboxEntry> findOldest(Pageable pageable);
+}
@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TransactionFilter;
+import com.example.demo.dto.TransactionHistoryRow;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered transaction listings and history exports, newest first. Filters and the keyset position
+ * are applied in SQL.
+ */
+public interface TransactionListingRepository {
+
+    List<TransactionHistoryRow> findListingPage(TransactionFilter filter, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Must be consumed and closed inside a transaction.
+     */
+    Stream<TransactionHistoryRow> streamListing(TransactionFilter filter, int fetchSize);
+
+    /**
+     * Streams an account's full history without materializing entities. Must be consumed and closed
+     * inside a transaction.
+     */
+    Stream<TransactionHistoryRow> streamHistory(Long accountId, int fetchSize);
+}
@@ -0,0 +1,77 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TransactionFilter;
+import com.example.demo.dto.TransactionHistoryRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class TransactionListingRepositoryImpl implements TransactionListingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionHistoryRow> findListingPage(TransactionFilter filter, LocalDateTime createdAt, Long id, int limit) {
+        return query(filter, createdAt, id)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<TransactionHistoryRow> streamListing(TransactionFilter filter, int fetchSize) {
+        return query(filter, null, null)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<TransactionHistoryRow> streamHistory(Long accountId, int fetchSize) {
+        return entityManager.createQuery(TransactionRepository.HISTORY_ROW
+                        + "WHERE t.fromAccount.id = :accountId OR t.toAccount.id = :accountId "
+                        + "ORDER BY t.createdAt DESC, t.id DESC", TransactionHistoryRow.class)
+                .setParameter("accountId", accountId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<TransactionHistoryRow> query(TransactionFilter filter, LocalDateTime createdAt, Long id) {
+        StringBuilder jpql = new StringBuilder(TransactionRepository.HISTORY_ROW).append("WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.getStatus() != null) {
+            jpql.append(" AND t.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getType() != null) {
+            jpql.append(" AND t.type = :type");
+            parameters.put("type", filter.getType());
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" AND t.createdAt >= :from");
+            parameters.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND t.createdAt < :to");
+            parameters.put("to", filter.getTo());
+        }
+        if (createdAt != null) {
+            jpql.append(" AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id))");
+            parameters.put("createdAt", createdAt);
+            parameters.put("id", id);
+        }
+        jpql.append(" ORDER BY t.createdAt DESC, t.id DESC");
+
+        TypedQuery<TransactionHistoryRow> query = entityManager.createQuery(jpql.toString(), TransactionHistoryRow.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -1,16 +1,192 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.LedgerLeg;
+import com.example.demo.dto.TransactionHistoryRow;
 import com.example.demo.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionListingRepository {
     
-    @Query("SELECT t FROM Transaction t WHERE (t.fromAccount.id = :accountId OR t.toAccount.id = :accountId) ORDER BY t.createdAt DESC")
-    List<Transaction> findTransactionsByAccountId(@Param("accountId") Long accountId);
+    String HISTORY_ROW = "SELECT new com.example.demo.dto.TransactionHistoryRow(t.id, t.transactionReference, t.type, t.status, "
+            + "t.amount, fa.accountNumber, ta.accountNumber, t.description, t.createdAt, t.processedAt) "
+            + "FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN t.toAccount ta ";
+    
+    String LEDGER_LEG = "SELECT new com.example.demo.dto.LedgerLeg(t.transactionReference, fa.id, ta.id, t.amount, t.processedAt, t.type) "
+            + "FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN t.toAccount ta "
+            + "WHERE t.status = com.example.demo.entity.Transaction.TransactionStatus.COMPLETED ";
+    
+    String BEFORE_CURSOR = "(t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) "
+            + "ORDER BY t.createdAt DESC, t.id DESC";
+    
+    /**
+     * Full history of an account, newest first, with the account numbers joined in the same query.
+     */
+    @Query(HISTORY_ROW + "WHERE fa.id = :accountId OR ta.id = :accountId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TransactionHistoryRow> findHistory(@Param("accountId") Long accountId);
+    
+    @Query(HISTORY_ROW + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TransactionHistoryRow> findAllHistory();
+
+    /**
+     * Outgoing side of an account's history, after the given keyset position. Served by the
+     * {@code (from_account_id, created_at, id)} index.
+     */
+    @Query(HISTORY_ROW + "WHERE t.fromAccount.id = :accountId AND " + BEFORE_CURSOR)
+    List<TransactionHistoryRow> findOutgoingHistory(@Param("accountId") Long accountId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    /**
+     * Incoming side of an account's history, after the given keyset position. Served by the
+     * {@code (to_account_id, created_at, id)} index.
+     */
+    @Query(HISTORY_ROW + "WHERE t.toAccount.id = :accountId AND " + BEFORE_CURSOR)
+    List<TransactionHistoryRow> findIncomingHistory(@Param("accountId") Long accountId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    /**
+     * Completed legs processed in {@code [from, to)}. Served by the {@code processed_at} index, so
+     * a transaction processed long after it was created, e.g. from the async queue, is still found.
+     * Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_LEG + "AND t.processedAt >= :from AND t.processedAt < :to")
+    Stream<LedgerLeg> streamLegsProcessedBetween(@Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    @Query(LEDGER_LEG + "AND (fa.id = :accountId OR ta.id = :accountId) "
+            + "AND t.processedAt >= :from AND t.processedAt < :to")
+    List<LedgerLeg> findAccountLegs(@Param("accountId") Long accountId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+
+    /**
+     * Completed legs processed from {@code from} on that touch an account with an id in
+     * {@code [fromId, toId)}.
+     */
+    @Query(LEDGER_LEG + "AND ((fa.id >= :fromId AND fa.id < :toId) OR (ta.id >= :fromId AND ta.id < :toId)) "
+            + "AND t.processedAt >= :from")
+    List<LedgerLeg> findLegsForAccountRange(@Param("fromId") Long fromId,
+                                            @Param("toId") Long toId,
+                                            @Param("from") LocalDateTime from);
+
+    /**
+     * Completed legs leaving accounts with an id in {@code [fromId, toId)}. Served by the
+     * {@code (from_account_id, created_at, id)} index. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_LEG + "AND fa.id >= :fromId AND fa.id < :toId")
+    Stream<LedgerLeg> streamOutgoingLegs(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Completed legs entering accounts with an id in {@code [fromId, toId)}. Served by the
+     * {@code (to_account_id, created_at, id)} index. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_LEG + "AND ta.id >= :fromId AND ta.id < :toId")
+    Stream<LedgerLeg> streamIncomingLegs(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Like {@link #streamOutgoingLegs}, limited to legs processed before {@code before}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_LEG + "AND fa.id >= :fromId AND fa.id < :toId AND t.processedAt < :before")
+    Stream<LedgerLeg> streamOutgoingLegsProcessedBefore(@Param("fromId") Long fromId,
+                                                        @Param("toId") Long toId,
+                                                        @Param("before") LocalDateTime before);
+
+    /**
+     * Like {@link #streamIncomingLegs}, limited to legs processed before {@code before}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_LEG + "AND ta.id >= :fromId AND ta.id < :toId AND t.processedAt < :before")
+    Stream<LedgerLeg> streamIncomingLegsProcessedBefore(@Param("fromId") Long fromId,
+                                                        @Param("toId") Long toId,
+                                                        @Param("before") LocalDateTime before);
+
+    /**
+     * Completed legs of the given types created since the given time, oldest first. Served by the
+     * {@code (created_at, id)} index. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_LEG + "AND t.type IN :types AND t.createdAt >= :since ORDER BY t.createdAt, t.id")
+    Stream<LedgerLeg> streamRecentLegs(@Param("types") Collection<Transaction.TransactionType> types,
+                                       @Param("since") LocalDateTime since);
+
+    @Query("SELECT MIN(t.processedAt) FROM Transaction t " +
+           "WHERE t.status = com.example.demo.entity.Transaction.TransactionStatus.COMPLETED")
+    LocalDateTime findEarliestProcessedAt();
+
+    /**
+     * References that are already stored as completed. Transactions stored with any other status are
+     * returned by {@link #findUnfinishedByReferences} instead.
+     */
+    @Query("SELECT t.transactionReference FROM Transaction t WHERE t.transactionReference IN :references " +
+           "AND t.status = com.example.demo.entity.Transaction.TransactionStatus.COMPLETED")
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+
+    @Query("SELECT t FROM Transaction t WHERE t.transactionReference IN :references " +
+           "AND t.status <> com.example.demo.entity.Transaction.TransactionStatus.COMPLETED")
+    List<Transaction> findUnfinishedByReferences(@Param("references") Collection<String> references);
+
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.fromAccount LEFT JOIN FETCH t.toAccount " +
+           "WHERE t.transactionReference = :transactionReference")
+    Optional<Transaction> findByTransactionReference(@Param("transactionReference") String transactionReference);
+
+    /**
+     * Moves a pending transaction to a final status. Returns 0 if it is no longer pending.
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :status, t.failureReason = :failureReason, t.processedAt = :processedAt " +
+           "WHERE t.id = :id AND t.status = com.example.demo.entity.Transaction.TransactionStatus.PENDING")
+    int finishPending(@Param("id") Long id,
+                      @Param("status") Transaction.TransactionStatus status,
+                      @Param("failureReason") String failureReason,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = com.example.demo.entity.Transaction.TransactionStatus.CANCELLED, " +
+           "t.failureReason = :failureReason, t.processedAt = :processedAt " +
+           "WHERE t.status = com.example.demo.entity.Transaction.TransactionStatus.PENDING")
+    int cancelAllPending(@Param("failureReason") String failureReason, @Param("processedAt") LocalDateTime processedAt);
+
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.fromAccount LEFT JOIN FETCH t.toAccount " +
+           "WHERE t.idempotencyKey = :idempotencyKey")
+    Optional<Transaction> findByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
 }
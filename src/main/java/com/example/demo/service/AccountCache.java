@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AccountCacheProperties;
+import com.example.demo.dto.AccountCacheStats;
+import com.example.demo.entity.Account;
+import com.example.demo.exception.AccountNotFoundException;
+import com.example.demo.mapper.AccountMapper;
+import com.example.demo.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of accounts keyed by account number, bounded by size and time to live.
+ *
+ * <p>Entries are detached snapshots and callers always receive their own copy. Writers publish the
+ * committed state with {@link #put(Account)}, which only replaces an entry with a newer
+ * {@code @Version}, so a slow reader or an out-of-order commit can never roll an entry back.
+ * Writes validated against a stale entry are still caught by the version check in the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountCache implements MeterBinder {
+
+    private final AccountRepository accountRepository;
+    private final AccountMapper accountMapper;
+    private final AccountCacheProperties properties;
+
+    private Cache<String, Account> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a detached copy of the account, loading it from the database on a miss.
+     */
+    public Account get(String accountNumber) {
+        if (accountNumber == null || !properties.isEnabled()) {
+            return load(accountNumber);
+        }
+        Account cached = cache.getIfPresent(accountNumber);
+        if (cached != null) {
+            return accountMapper.copy(cached);
+        }
+        // Loaded outside the cache's compute lock: a virtual thread blocked on JDBC inside it would
+        // pin its carrier. The versioned put keeps a concurrent newer commit from being overwritten.
+        Account loaded = load(accountNumber);
+        put(loaded);
+        return loaded;
+    }
+
+    /**
+     * Publishes the committed state of an account, unless the cache already holds a newer version.
+     */
+    public void put(Account account) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        cache.asMap().merge(account.getAccountNumber(), accountMapper.copy(account),
+                (current, candidate) -> isNewer(candidate, current) ? candidate : current);
+    }
+
+    public void evict(String accountNumber) {
+        cache.invalidate(accountNumber);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "accounts");
+    }
+
+    public AccountCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new AccountCacheStats(properties.isEnabled(), cache.estimatedSize(), stats.hitCount(),
+                stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+
+    private Account load(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .map(accountMapper::copy)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+    }
+
+    private static boolean isNewer(Account candidate, Account current) {
+        if (candidate.getVersion() == null || current.getVersion() == null) {
+            return true;
+        }
+        return candidate.getVersion() >= current.getVersion();
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AccountEventProperties;
+import com.example.demo.dto.AccountEvent;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes committed account changes to SSE subscribers from a single ring buffer. Writers claim a
+ * sequence number, store the event in its slot and wake the dispatcher; they never wait for a
+ * subscriber. Each subscriber runs on its own virtual thread with its own cursor into the ring and
+ * sends the events of the accounts it follows. The dispatcher only decides whom to wake, so a
+ * subscriber with a slow connection holds up nobody but itself.
+ *
+ * <p>A slot is overwritten once the ring has wrapped, so a subscriber more than a buffer behind has
+ * lost events. Depending on {@code banking.events.slow-consumer-policy} it then either skips ahead
+ * and gets only the latest event of each of its accounts, or has its stream closed. Clients that
+ * reconnect with {@code Last-Event-ID} are replayed the events they missed while those are still
+ * in the ring; otherwise they get a {@code reset} event and should reload the balances.
+ */
+@Component
+@Slf4j
+public class AccountEventStream implements MeterBinder {
+
+    private final AccountEventProperties properties;
+    private final AtomicReferenceArray<AccountEvent> ring;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong(1);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> subscribersByAccount = new ConcurrentHashMap<>();
+    /**
+     * Latest event of every account someone follows, for conflating lagging subscribers.
+     */
+    private final Map<String, AccountEvent> latest = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Thread dispatcher;
+    private volatile boolean running = true;
+
+    public AccountEventStream(AccountEventProperties properties) {
+        this.properties = properties;
+        int capacity = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, properties.getBufferSize()) - 1));
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Thread.ofPlatform().name("account-events-dispatcher").daemon().start(this::dispatch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        subscribers.forEach(Subscriber::close);
+    }
+
+    /**
+     * Publishes one event per account leg of a committed transaction, carrying the balance the
+     * account was left with.
+     */
+    public void publishTransaction(Transaction transaction, Account fromAccount, Account toAccount) {
+        if (fromAccount != null) {
+            publish(event(AccountEvent.Type.TRANSACTION, fromAccount, transaction.getAmount().negate(), transaction));
+        }
+        if (toAccount != null) {
+            publish(event(AccountEvent.Type.TRANSACTION, toAccount, transaction.getAmount(), transaction));
+        }
+    }
+
+    /**
+     * Publishes the balances accounts were left with by a committed batch chunk.
+     */
+    public void publishBalances(Collection<Account> accounts) {
+        for (Account account : accounts) {
+            publish(event(AccountEvent.Type.BALANCE, account, null, null));
+        }
+    }
+
+    public void publishStatus(Account account) {
+        publish(event(AccountEvent.Type.STATUS, account, null, null));
+    }
+
+    /**
+     * Opens an SSE stream of the events of the given accounts. With a {@code lastEventId} still in
+     * the ring the stream starts right after it; otherwise it starts with the next event.
+     */
+    public SseEmitter subscribe(Collection<String> accountNumbers, String lastEventId) {
+        Set<String> accounts = accountNumbers.stream()
+                .filter(Objects::nonNull)
+                .map(String::strip)
+                .filter(accountNumber -> !accountNumber.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("At least one account number is required");
+        }
+        if (accounts.size() > properties.getMaxAccountsPerSubscription()) {
+            throw new IllegalArgumentException("A subscription may follow at most "
+                    + properties.getMaxAccountsPerSubscription() + " accounts");
+        }
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new IllegalStateException("Too many event subscribers, try again later");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), accounts, emitter);
+        subscribers.add(subscriber);
+        for (String account : accounts) {
+            subscribersByAccount.computeIfAbsent(account, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        // Registered first, so the latest events of these accounts are tracked from here on
+        long next = nextSequence.get();
+        subscriber.cursor = next;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            long resumeFrom = parseEventId(lastEventId) + 1;
+            if (resumeFrom <= next && resumeFrom > next - ring.length()) {
+                subscriber.cursor = resumeFrom;
+            } else {
+                subscriber.reset = true;
+            }
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        Thread.ofVirtual().name("account-events-" + subscriber.id).start(subscriber::run);
+        log.debug("Subscriber {} follows {} accounts from sequence {}", subscriber.id, accounts.size(), subscriber.cursor);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Sequence number the next event will get.
+     */
+    public long nextSequence() {
+        return nextSequence.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("banking.events.subscribers", this, AccountEventStream::subscriberCount)
+                .description("Open account event streams")
+                .register(registry);
+        FunctionCounter.builder("banking.events.published", nextSequence, sequence -> sequence.get() - 1)
+                .description("Account events written to the ring buffer")
+                .register(registry);
+        FunctionCounter.builder("banking.events.lagged", conflated, LongAdder::sum)
+                .description("Subscribers that fell a whole buffer behind")
+                .tag("outcome", "conflated")
+                .register(registry);
+        FunctionCounter.builder("banking.events.lagged", dropped, LongAdder::sum)
+                .description("Subscribers that fell a whole buffer behind")
+                .tag("outcome", "dropped")
+                .register(registry);
+    }
+
+    private static AccountEvent event(AccountEvent.Type type, Account account, Money amount, Transaction transaction) {
+        return new AccountEvent(0, type, account.getAccountNumber(), account.getBalance(), account.getStatus(), amount,
+                transaction != null ? transaction.getTransactionReference() : null,
+                transaction != null ? transaction.getType() : null,
+                transaction != null && transaction.getProcessedAt() != null ? transaction.getProcessedAt() : LocalDateTime.now());
+    }
+
+    private void publish(AccountEvent event) {
+        long sequence = nextSequence.getAndIncrement();
+        event.setSequence(sequence);
+        if (subscribersByAccount.containsKey(event.getAccountNumber())) {
+            latest.merge(event.getAccountNumber(), event,
+                    (current, candidate) -> candidate.getSequence() > current.getSequence() ? candidate : current);
+        }
+        ring.set(index(sequence), event);
+        Thread waiting = dispatcher;
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+    }
+
+    /**
+     * Follows the writers and wakes the subscribers of each new event's account.
+     */
+    private void dispatch() {
+        long cursor = nextSequence.get();
+        while (running) {
+            AccountEvent event = ring.get(index(cursor));
+            if (event == null || event.getSequence() < cursor) {
+                LockSupport.park(this);
+                continue;
+            }
+            if (event.getSequence() > cursor) {
+                // Overtaken by the writers; every subscriber finds out what it missed by itself
+                subscribers.forEach(Subscriber::wake);
+                cursor = nextSequence.get();
+                continue;
+            }
+            Set<Subscriber> interested = subscribersByAccount.get(event.getAccountNumber());
+            if (interested != null) {
+                interested.forEach(Subscriber::wake);
+            }
+            cursor++;
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    private static long parseEventId(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid Last-Event-ID: " + lastEventId);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final long id;
+        private final Set<String> accounts;
+        private final SseEmitter emitter;
+        private final long heartbeatNanos = Math.max(1, properties.getHeartbeatInterval().toNanos());
+        private volatile Thread thread;
+        private volatile boolean closed;
+        private long cursor;
+        private boolean reset;
+        private long lastSent = System.nanoTime();
+
+        Subscriber(long id, Set<String> accounts, SseEmitter emitter) {
+            this.id = id;
+            this.accounts = accounts;
+            this.emitter = emitter;
+        }
+
+        void run() {
+            thread = Thread.currentThread();
+            try {
+                if (reset) {
+                    emit(SseEmitter.event().id(Long.toString(cursor - 1)).name("reset")
+                            .data("Events since Last-Event-ID are no longer available; reload the balances"));
+                }
+                while (running && !closed) {
+                    AccountEvent event = ring.get(index(cursor));
+                    if (event == null || event.getSequence() < cursor) {
+                        long idle = System.nanoTime() - lastSent;
+                        if (idle >= heartbeatNanos) {
+                            emit(SseEmitter.event().comment("heartbeat"));
+                        } else {
+                            LockSupport.parkNanos(this, heartbeatNanos - idle);
+                        }
+                    } else if (event.getSequence() > cursor) {
+                        skipAhead();
+                    } else {
+                        cursor++;
+                        if (accounts.contains(event.getAccountNumber())) {
+                            send(event, event.getSequence());
+                        }
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Subscriber {} disconnected: {}", id, e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Moves the cursor from an overwritten slot to half a buffer behind the writers. If events
+         * of the followed accounts were skipped, the subscriber was too slow: it gets the latest
+         * event of each such account, or its stream is closed.
+         */
+        private void skipAhead() throws IOException {
+            long resume = Math.max(cursor, nextSequence.get() - ring.length() / 2);
+            long skippedFrom = cursor;
+            List<AccountEvent> missed = accounts.stream()
+                    .map(latest::get)
+                    .filter(Objects::nonNull)
+                    .filter(event -> event.getSequence() >= skippedFrom && event.getSequence() < resume)
+                    .sorted(Comparator.comparingLong(AccountEvent::getSequence))
+                    .toList();
+            cursor = resume;
+            if (missed.isEmpty()) {
+                return;
+            }
+            if (properties.getSlowConsumerPolicy() == AccountEventProperties.SlowConsumerPolicy.DROP) {
+                dropped.increment();
+                log.info("Dropping event subscriber {}, it fell {} events behind", id, resume - skippedFrom);
+                emit(SseEmitter.event().name("dropped").data("Too slow; reconnect and reload the balances"));
+                closed = true;
+                return;
+            }
+            conflated.increment();
+            for (AccountEvent event : missed) {
+                // Resuming after this id replays nothing that was skipped
+                send(event, resume - 1);
+            }
+        }
+
+        private void send(AccountEvent event, long eventId) throws IOException {
+            emit(SseEmitter.event()
+                    .id(Long.toString(eventId))
+                    .name(event.getType().name().toLowerCase(Locale.ROOT))
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        private void emit(SseEmitter.SseEventBuilder event) throws IOException {
+            emitter.send(event);
+            lastSent = System.nanoTime();
+        }
+
+        void wake() {
+            Thread current = thread;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+
+        void close() {
+            if (!subscribers.remove(this)) {
+                return;
+            }
+            closed = true;
+            for (String account : accounts) {
+                subscribersByAccount.computeIfPresent(account, (key, followers) -> {
+                    followers.remove(this);
+                    if (followers.isEmpty()) {
+                        latest.remove(key);
+                        return null;
+                    }
+                    return followers;
+                });
+            }
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+            wake();
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.demo.service;
+
+import com.example.demo.config.IdGenerationProperties;
+import com.example.demo.config.ImportProperties;
+import com.example.demo.dto.AccountImportError;
+import com.example.demo.dto.AccountImportFormat;
+import com.example.demo.dto.AccountImportReport;
+import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.entity.Account;
+import com.example.demo.mapper.AccountMapper;
+import com.example.demo.repository.AccountRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk account onboarding. Rows are read one at a time from CSV or NDJSON and handled in chunks:
+ * each chunk is validated, checked for existing account numbers with one query, mapped with
+ * {@link AccountMapper} and written as a single JDBC batch in its own transaction, so memory stays
+ * bounded by the chunk size whatever the input size. Invalid or duplicate rows are reported and
+ * skipped; they never abort the import.
+ *
+ * <p>Ids are taken from {@code account_seq} a block at a time, the same way Hibernate's pooled-lo
+ * optimizer does, so imported rows cannot collide with accounts created concurrently.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountImportService {
+
+    private static final String INSERT_ACCOUNT = "INSERT INTO accounts (id, version, account_number, customer_name, "
+            + "email, balance, opening_balance, account_type, status, created_at) VALUES (?, 0, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountRepository accountRepository;
+    private final AccountMapper accountMapper;
+    private final AccountSearchIndex accountSearchIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties properties;
+    private final IdGenerationProperties idProperties;
+
+    public AccountImportReport importAccounts(InputStream input, AccountImportFormat format) {
+        return importAccounts(input, format, error -> { });
+    }
+
+    /**
+     * Imports every row of the input. Each row error is passed to {@code errorSink} as it happens;
+     * the report keeps only the first {@code banking.import.max-reported-errors} of them.
+     */
+    public AccountImportReport importAccounts(InputStream input, AccountImportFormat format,
+                                              Consumer<AccountImportError> errorSink) {
+        long start = System.nanoTime();
+        Run run = new Run(errorSink);
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowParser parser = format == AccountImportFormat.CSV ? new CsvParser() : new NdjsonParser();
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Row row = parser.parse(lineNumber, line);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read account import", e);
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, run);
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        long total = run.imported + run.failed;
+        AccountImportReport report = new AccountImportReport(total, run.imported, run.failed, elapsedNanos / 1_000_000,
+                run.imported * 1_000_000_000L / elapsedNanos, run.reported);
+        log.info("Imported {} of {} accounts in {} ms ({} rows/s), {} rows failed", report.getImported(),
+                report.getTotal(), report.getElapsedMillis(), report.getRowsPerSecond(), report.getFailed());
+        return report;
+    }
+
+    private void importChunk(List<Row> chunk, Run run) {
+        Map<String, Row> candidates = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            if (row.error() != null) {
+                run.fail(row, row.error());
+                continue;
+            }
+            Set<ConstraintViolation<CreateAccountRequest>> violations = validator.validate(row.request());
+            if (!violations.isEmpty()) {
+                run.fail(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (row.request().getInitialBalance() == null) {
+                run.fail(row, "initialBalance must not be null");
+            } else if (candidates.putIfAbsent(row.request().getAccountNumber(), row) != null) {
+                run.fail(row, "Duplicate account number in import: " + row.request().getAccountNumber());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            for (String existing : accountRepository.findExistingAccountNumbers(candidates.keySet())) {
+                run.fail(candidates.remove(existing), "Account number already exists: " + existing);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<Account> accounts = new ArrayList<>(candidates.size());
+        for (Row row : candidates.values()) {
+            Account account = accountMapper.toAccount(row.request());
+            account.setId(run.nextId());
+            accounts.add(account);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(accounts));
+            accounts.forEach(this::imported);
+            run.imported += accounts.size();
+        } catch (DuplicateKeyException e) {
+            // An account number was taken after the duplicate check, so find it row by row
+            for (Account account : accounts) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(account)));
+                    imported(account);
+                    run.imported++;
+                } catch (DuplicateKeyException duplicate) {
+                    run.fail(candidates.get(account.getAccountNumber()),
+                            "Account number already exists: " + account.getAccountNumber());
+                }
+            }
+        }
+    }
+
+    private void insert(List<Account> accounts) {
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT, accounts, accounts.size(), (statement, account) -> {
+            statement.setLong(1, account.getId());
+            statement.setString(2, account.getAccountNumber());
+            statement.setString(3, account.getCustomerName());
+            statement.setString(4, account.getEmail());
+            statement.setBigDecimal(5, account.getBalance().toBigDecimal());
+            statement.setBigDecimal(6, account.getOpeningBalance().toBigDecimal());
+            statement.setString(7, account.getAccountType().name());
+            statement.setString(8, account.getStatus().name());
+            statement.setObject(9, account.getCreatedAt());
+        });
+    }
+
+    private void imported(Account account) {
+        accountSearchIndex.index(account.getId(), account.getAccountNumber(), account.getCustomerName(), account.getEmail());
+    }
+
+    private record Row(long line, CreateAccountRequest request, String accountNumber, String error) {
+
+        static Row parsed(long line, CreateAccountRequest request) {
+            return new Row(line, request, request.getAccountNumber(), null);
+        }
+
+        static Row failed(long line, String accountNumber, String error) {
+            return new Row(line, null, accountNumber, error);
+        }
+    }
+
+    /**
+     * State of one import: counts, the reported errors and the current block of account ids.
+     */
+    private final class Run {
+
+        private final Consumer<AccountImportError> errorSink;
+        private final List<AccountImportError> reported = new ArrayList<>();
+        private long imported;
+        private long failed;
+        private long nextId;
+        private long idLimit;
+
+        Run(Consumer<AccountImportError> errorSink) {
+            this.errorSink = errorSink;
+        }
+
+        void fail(Row row, String error) {
+            AccountImportError importError = new AccountImportError(row.line(), row.accountNumber(), error);
+            failed++;
+            if (reported.size() < properties.getMaxReportedErrors()) {
+                reported.add(importError);
+            }
+            errorSink.accept(importError);
+        }
+
+        long nextId() {
+            if (nextId == idLimit) {
+                nextId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR account_seq", Long.class);
+                idLimit = nextId + idProperties.getAllocationSize();
+            }
+            return nextId++;
+        }
+    }
+
+    private interface RowParser {
+
+        /**
+         * Parses one non-blank line, or returns {@code null} for a line that holds no row.
+         */
+        Row parse(long line, String text);
+    }
+
+    private final class NdjsonParser implements RowParser {
+
+        private final ObjectReader reader = objectMapper.readerFor(CreateAccountRequest.class);
+
+        @Override
+        public Row parse(long line, String text) {
+            try {
+                return Row.parsed(line, reader.readValue(text));
+            } catch (JsonProcessingException e) {
+                return Row.failed(line, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 style CSV without line breaks inside fields. The first line is the header; columns
+     * are matched to the {@link CreateAccountRequest} fields by name, ignoring case.
+     */
+    private static final class CsvParser implements RowParser {
+
+        private static final List<String> COLUMNS = List.of("accountNumber", "customerName", "email",
+                "accountType", "initialBalance");
+
+        private Map<String, Integer> columns;
+
+        @Override
+        public Row parse(long line, String text) {
+            List<String> fields = split(text);
+            if (columns == null) {
+                columns = new HashMap<>();
+                for (int i = 0; i < fields.size(); i++) {
+                    columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+                List<String> missing = COLUMNS.stream()
+                        .filter(column -> !column.equals("initialBalance"))
+                        .filter(column -> !columns.containsKey(column.toLowerCase(Locale.ROOT)))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    throw new IllegalArgumentException("CSV header is missing columns: " + missing);
+                }
+                return null;
+            }
+
+            String accountNumber = field(fields, "accountNumber");
+            CreateAccountRequest request = new CreateAccountRequest();
+            request.setAccountNumber(accountNumber);
+            request.setCustomerName(field(fields, "customerName"));
+            request.setEmail(field(fields, "email"));
+            try {
+                String accountType = field(fields, "accountType");
+                request.setAccountType(accountType != null ? Account.AccountType.valueOf(accountType.toUpperCase(Locale.ROOT)) : null);
+                String initialBalance = field(fields, "initialBalance");
+                if (initialBalance != null) {
+                    request.setInitialBalance(new BigDecimal(initialBalance));
+                }
+            } catch (IllegalArgumentException e) {
+                return Row.failed(line, accountNumber, "Invalid value: " + e.getMessage());
+            }
+            return Row.parsed(line, request);
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static List<String> split(String text) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
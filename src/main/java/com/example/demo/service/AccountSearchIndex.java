@@ -0,0 +1,379 @@
+package com.example.demo.service;
+
+import com.example.demo.config.SearchProperties;
+import com.example.demo.dto.AccountFilter;
+import com.example.demo.dto.AccountSearchHit;
+import com.example.demo.entity.Account;
+import com.example.demo.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over account number, customer name and email, replacing
+ * {@code LIKE '%x%'} scans. Every indexed account gets an ordinal; each trigram maps to the sorted
+ * ordinals of the accounts containing it. A query intersects the posting lists of its trigrams,
+ * verifies the candidates by substring match and ranks them. Queries shorter than three characters
+ * have no trigrams and scan the in-memory entries instead.
+ *
+ * <p>Writers are serialized by a lock; readers never lock. Entries and posting lists are only ever
+ * appended to and published through volatile sizes, so a reader sees a consistent prefix. Changed
+ * accounts are re-added under a new ordinal and their old entry is marked removed.
+ */
+@Component
+@Slf4j
+public class AccountSearchIndex {
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score).reversed()
+            .thenComparingInt(match -> match.entry().normalizedCustomerName().length())
+            .thenComparingLong(match -> match.entry().id());
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchProperties properties;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, Postings> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entriesByAccountId = new ConcurrentHashMap<>();
+    private volatile Entry[] entries = new Entry[1024];
+    private volatile int size;
+    private volatile boolean ready;
+
+    public AccountSearchIndex(AccountRepository accountRepository, TransactionTemplate transactionTemplate,
+                              SearchProperties properties) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Loads every stored account. Runs once the application is ready, so accounts inserted by
+     * startup runners are included; accounts created meanwhile are indexed only once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Account> accounts = accountRepository.streamListing(new AccountFilter(), properties.getRebuildFetchSize())) {
+                accounts.forEach(this::index);
+            }
+        });
+        ready = true;
+        log.info("Account search index built with {} accounts and {} trigrams in {} ms",
+                entriesByAccountId.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexes the account once the current transaction commits, or immediately outside one.
+     */
+    public void indexAfterCommit(Account account) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index(account);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index(account);
+            }
+        });
+    }
+
+    public void index(Account account) {
+        index(account.getId(), account.getAccountNumber(), account.getCustomerName(), account.getEmail());
+    }
+
+    void index(long id, String accountNumber, String customerName, String email) {
+        writeLock.lock();
+        try {
+            Entry existing = entriesByAccountId.get(id);
+            if (existing != null) {
+                if (existing.matches(accountNumber, customerName, email)) {
+                    return;
+                }
+                existing.removed = true;
+            }
+
+            int ordinal = size;
+            Entry entry = new Entry(id, accountNumber, customerName, email, normalize(accountNumber),
+                    normalize(customerName), normalize(email));
+            Entry[] current = entries;
+            if (ordinal == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                entries = current;
+            }
+            current[ordinal] = entry;
+
+            Set<Long> trigrams = new HashSet<>();
+            addTrigrams(entry.normalizedAccountNumber(), trigrams);
+            addTrigrams(entry.normalizedCustomerName(), trigrams);
+            addTrigrams(entry.normalizedEmail(), trigrams);
+            for (Long trigram : trigrams) {
+                postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+            }
+
+            size = ordinal + 1;
+            entriesByAccountId.put(id, entry);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ranks accounts whose number, customer name or email contains the query, ignoring case, and
+     * returns the hits from {@code offset} up to {@code limit} of them.
+     */
+    public Ranking search(String query, int offset, int limit) {
+        return rank(normalize(query), false, offset, limit);
+    }
+
+    /**
+     * Ids of all accounts whose customer name contains the fragment, ignoring case, best match first.
+     */
+    public List<Long> findIdsByCustomerName(String fragment) {
+        Ranking ranking = rank(normalize(fragment), true, 0, Integer.MAX_VALUE);
+        return ranking.hits().stream().map(AccountSearchHit::getId).toList();
+    }
+
+    private Ranking rank(String query, boolean customerNameOnly, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<Match> best = new PriorityQueue<>(RANKING.reversed());
+        int[] total = {0};
+
+        int visible = size;
+        Entry[] snapshot = entries;
+        forEachCandidate(query, visible, ordinal -> {
+            Entry entry = snapshot[ordinal];
+            if (entry == null || entry.removed) {
+                return;
+            }
+            int score = customerNameOnly ? scoreName(entry, query) : score(entry, query);
+            if (score == 0) {
+                return;
+            }
+            total[0]++;
+            Match match = new Match(entry, score);
+            if (best.size() < wanted) {
+                best.add(match);
+            } else if (wanted > 0 && RANKING.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        });
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        List<AccountSearchHit> hits = new ArrayList<>(Math.max(0, ranked.size() - offset));
+        for (int i = offset; i < ranked.size(); i++) {
+            Entry entry = ranked.get(i).entry();
+            hits.add(new AccountSearchHit(entry.id(), entry.accountNumber(), entry.customerName(), entry.email(),
+                    ranked.get(i).score()));
+        }
+        return new Ranking(hits, total[0]);
+    }
+
+    private void forEachCandidate(String query, int visible, OrdinalConsumer consumer) {
+        if (query.length() < 3) {
+            for (int ordinal = 0; ordinal < visible; ordinal++) {
+                consumer.accept(ordinal);
+            }
+            return;
+        }
+
+        Set<Long> trigrams = new HashSet<>();
+        addTrigrams(query, trigrams);
+        List<int[]> lists = new ArrayList<>(trigrams.size());
+        List<Integer> sizes = new ArrayList<>(trigrams.size());
+        for (Long trigram : trigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                return;
+            }
+            // Read the size before the array: the array is never shorter than a size published before it
+            int listSize = list.size;
+            lists.add(list.ordinals);
+            sizes.add(listSize);
+        }
+
+        // Walk the shortest list and probe the others
+        int shortest = 0;
+        for (int i = 1; i < sizes.size(); i++) {
+            if (sizes.get(i) < sizes.get(shortest)) {
+                shortest = i;
+            }
+        }
+        int[] driver = lists.get(shortest);
+        int driverSize = sizes.get(shortest);
+        for (int i = 0; i < driverSize; i++) {
+            int ordinal = driver[i];
+            if (ordinal >= visible) {
+                break;
+            }
+            boolean inAll = true;
+            for (int j = 0; j < lists.size() && inAll; j++) {
+                inAll = j == shortest || Arrays.binarySearch(lists.get(j), 0, sizes.get(j), ordinal) >= 0;
+            }
+            if (inAll) {
+                consumer.accept(ordinal);
+            }
+        }
+    }
+
+    private static int score(Entry entry, String query) {
+        int score = scoreName(entry, query);
+        if (entry.normalizedAccountNumber().equals(query)) {
+            score = Math.max(score, 1_000);
+        } else if (entry.normalizedAccountNumber().startsWith(query)) {
+            score = Math.max(score, 600);
+        } else if (entry.normalizedAccountNumber().contains(query)) {
+            score = Math.max(score, 400);
+        }
+        if (entry.normalizedEmail().startsWith(query)) {
+            score = Math.max(score, 300);
+        } else if (entry.normalizedEmail().contains(query)) {
+            score = Math.max(score, 200);
+        }
+        return score;
+    }
+
+    private static int scoreName(Entry entry, String query) {
+        String name = entry.normalizedCustomerName();
+        if (name.equals(query)) {
+            return 900;
+        }
+        if (name.startsWith(query)) {
+            return 800;
+        }
+        int index = name.indexOf(query);
+        if (index < 0) {
+            return 0;
+        }
+        // A match at the start of a later word ranks above one inside a word
+        do {
+            if (!Character.isLetterOrDigit(name.charAt(index - 1))) {
+                return 700;
+            }
+            index = name.indexOf(query, index + 1);
+        } while (index > 0);
+        return 500;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static void addTrigrams(String text, Set<Long> trigrams) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    public record Ranking(List<AccountSearchHit> hits, int total) {
+    }
+
+    private record Match(Entry entry, int score) {
+    }
+
+    @FunctionalInterface
+    private interface OrdinalConsumer {
+        void accept(int ordinal);
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final String accountNumber;
+        private final String customerName;
+        private final String email;
+        private final String normalizedAccountNumber;
+        private final String normalizedCustomerName;
+        private final String normalizedEmail;
+        private volatile boolean removed;
+
+        private Entry(long id, String accountNumber, String customerName, String email,
+                      String normalizedAccountNumber, String normalizedCustomerName, String normalizedEmail) {
+            this.id = id;
+            this.accountNumber = accountNumber;
+            this.customerName = customerName;
+            this.email = email;
+            this.normalizedAccountNumber = normalizedAccountNumber;
+            this.normalizedCustomerName = normalizedCustomerName;
+            this.normalizedEmail = normalizedEmail;
+        }
+
+        long id() {
+            return id;
+        }
+
+        String accountNumber() {
+            return accountNumber;
+        }
+
+        String customerName() {
+            return customerName;
+        }
+
+        String email() {
+            return email;
+        }
+
+        String normalizedAccountNumber() {
+            return normalizedAccountNumber;
+        }
+
+        String normalizedCustomerName() {
+            return normalizedCustomerName;
+        }
+
+        String normalizedEmail() {
+            return normalizedEmail;
+        }
+
+        boolean matches(String accountNumber, String customerName, String email) {
+            return Objects.equals(this.accountNumber, accountNumber)
+                    && Objects.equals(this.customerName, customerName)
+                    && Objects.equals(this.email, email);
+        }
+    }
+
+    /**
+     * Append-only sorted list of ordinals. Growing publishes the new array before the new size.
+     */
+    private static final class Postings {
+
+        private volatile int[] ordinals = new int[4];
+        private volatile int size;
+
+        void add(int ordinal) {
+            int[] current = ordinals;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                ordinals = current;
+            }
+            current[size] = ordinal;
+            size = size + 1;
+        }
+    }
+}
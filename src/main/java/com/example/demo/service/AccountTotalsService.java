@@ -0,0 +1,282 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AccountTotalsProperties;
+import com.example.demo.dto.AccountMonthlyTotals;
+import com.example.demo.dto.AccountTotalsRebuildReport;
+import com.example.demo.dto.LedgerLeg;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.AccountMonthlyTotal;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.AccountMonthlyTotalRepository;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Monthly running totals per account and transaction type, see {@link AccountMonthlyTotal}. Writers
+ * add their completed transactions with {@link #record} after they have locked or version-checked
+ * the accounts involved, so the rows of an account change in the same order as its balance and a
+ * report reads at most five rows.
+ *
+ * <p>In sharded mode the rows are written by the ledger write-behind and trail the live balances
+ * just like the {@code accounts} table does.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountTotalsService {
+
+    private static final int OPEN_MONTH_LOCK_CHUNK = 100;
+
+    private final AccountMonthlyTotalRepository totalsRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountCache accountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountTotalsProperties properties;
+
+    /**
+     * Adds the completed transactions to their accounts' totals. Must run inside the database
+     * transaction that stores them, after the balance updates of their accounts have been written
+     * or locked: the account row locks are what keep two writers from inserting the same new row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Transaction> transactions) {
+        Map<Key, Delta> deltas = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() != Transaction.TransactionStatus.COMPLETED) {
+                continue;
+            }
+            Long fromId = transaction.getFromAccount() != null ? transaction.getFromAccount().getId() : null;
+            Long toId = transaction.getToAccount() != null ? transaction.getToAccount().getId() : null;
+            debit(deltas, fromId, transaction.getType(), transaction.getAmount(), transaction.getProcessedAt());
+            credit(deltas, toId, transaction.getType(), transaction.getAmount(), transaction.getProcessedAt());
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Set<Long> accountIds = new HashSet<>();
+        Set<LocalDate> monthStarts = new HashSet<>();
+        for (Key key : deltas.keySet()) {
+            accountIds.add(key.accountId());
+            monthStarts.add(key.monthStart());
+        }
+        Map<Key, AccountMonthlyTotal> rows = new HashMap<>();
+        for (AccountMonthlyTotal row : totalsRepository.findMonths(accountIds, monthStarts)) {
+            rows.put(new Key(row.getAccount().getId(), row.getMonthStart(), row.getType()), row);
+        }
+        totalsRepository.saveAll(apply(deltas, rows));
+    }
+
+    /**
+     * Totals of the account's completed transactions processed within the month.
+     */
+    @Transactional(readOnly = true)
+    public AccountMonthlyTotals monthTotals(String accountNumber, YearMonth month) {
+        Account account = accountCache.get(accountNumber);
+        Map<Transaction.TransactionType, AccountMonthlyTotals.TypeTotals> byType = new EnumMap<>(Transaction.TransactionType.class);
+        long transactionCount = 0;
+        Money inflow = Money.ZERO;
+        Money outflow = Money.ZERO;
+        for (AccountMonthlyTotal row : totalsRepository.findMonth(account.getId(), month.atDay(1))) {
+            byType.put(row.getType(), new AccountMonthlyTotals.TypeTotals(row.getTransactionCount(), row.getInflow(), row.getOutflow()));
+            transactionCount += row.getTransactionCount();
+            inflow = inflow.plus(row.getInflow());
+            outflow = outflow.plus(row.getOutflow());
+        }
+        return new AccountMonthlyTotals(accountNumber, month, transactionCount, inflow, outflow, byType);
+    }
+
+    /**
+     * Recomputes every account's totals from its completed transactions. Accounts are split into id
+     * ranges that are rebuilt in parallel. Months that ended more than
+     * {@code banking.totals.closed-month-delay} ago are rebuilt without locks; the rest are rebuilt
+     * under the row locks of a few accounts at a time, so writers wait only briefly.
+     */
+    public AccountTotalsRebuildReport rebuild() {
+        long start = System.nanoTime();
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        if (minId == null) {
+            return new AccountTotalsRebuildReport(0, 0, 0, 0, 0);
+        }
+
+        long rangeSize = Math.max(1, properties.getRebuildRangeSize());
+        LocalDate openFrom = monthStart(LocalDateTime.now().minus(properties.getClosedMonthDelay()));
+        List<CompletableFuture<RangeResult>> ranges = new ArrayList<>();
+        AtomicInteger threadIndex = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getRebuildThreads()),
+                runnable -> new Thread(runnable, "totals-rebuild-" + threadIndex.getAndIncrement()))) {
+            for (long from = minId; from <= maxId; from += rangeSize) {
+                long fromId = from;
+                long toId = Math.min(from + rangeSize, maxId + 1);
+                ranges.add(CompletableFuture.supplyAsync(() -> rebuildRange(fromId, toId, openFrom), executor));
+            }
+        }
+
+        long accounts = 0;
+        long legs = 0;
+        long rows = 0;
+        for (CompletableFuture<RangeResult> range : ranges) {
+            RangeResult result = range.join();
+            accounts += result.accounts();
+            legs += result.legs();
+            rows += result.rows();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Rebuilt monthly totals of {} accounts in {} ranges from {} legs ({} rows) in {} ms",
+                accounts, ranges.size(), legs, rows, elapsedMillis);
+        return new AccountTotalsRebuildReport(accounts, ranges.size(), legs, rows, elapsedMillis);
+    }
+
+    /**
+     * Rebuilds the closed months of the accounts without locks, since their transactions no longer
+     * change, then the open months a few accounts at a time under their row locks.
+     */
+    private RangeResult rebuildRange(long fromId, long toId, LocalDate openFrom) {
+        LocalDateTime openStart = openFrom.atStartOfDay();
+        RangeResult closed = transactionTemplate.execute(status -> {
+            totalsRepository.deleteByAccountRangeBefore(fromId, toId, openFrom);
+            Map<Key, Delta> deltas = new HashMap<>();
+            long legs = 0;
+            try (Stream<LedgerLeg> outgoing = transactionRepository.streamOutgoingLegsProcessedBefore(fromId, toId, openStart)) {
+                for (LedgerLeg leg : (Iterable<LedgerLeg>) outgoing::iterator) {
+                    debit(deltas, leg.getFromAccountId(), leg.getType(), leg.getAmount(), leg.getProcessedAt());
+                    legs++;
+                }
+            }
+            try (Stream<LedgerLeg> incoming = transactionRepository.streamIncomingLegsProcessedBefore(fromId, toId, openStart)) {
+                for (LedgerLeg leg : (Iterable<LedgerLeg>) incoming::iterator) {
+                    credit(deltas, leg.getToAccountId(), leg.getType(), leg.getAmount(), leg.getProcessedAt());
+                    legs++;
+                }
+            }
+            List<AccountMonthlyTotal> rows = apply(deltas, Map.of());
+            totalsRepository.saveAll(rows);
+            return new RangeResult(0, legs, rows.size());
+        });
+
+        long accounts = 0;
+        long legs = closed.legs();
+        long rows = closed.rows();
+        for (long from = fromId; from < toId; from += OPEN_MONTH_LOCK_CHUNK) {
+            RangeResult open = rebuildOpenMonths(from, Math.min(from + OPEN_MONTH_LOCK_CHUNK, toId), openFrom);
+            accounts += open.accounts();
+            legs += open.legs();
+            rows += open.rows();
+        }
+        return new RangeResult(accounts, legs, rows);
+    }
+
+    /**
+     * Recomputes the months from {@code openFrom} on while holding the row locks of the accounts, so
+     * transactions completing meanwhile are neither lost nor counted twice. Only the legs since
+     * {@code openFrom} are read under the locks.
+     */
+    private RangeResult rebuildOpenMonths(long fromId, long toId, LocalDate openFrom) {
+        return transactionTemplate.execute(status -> {
+            List<Account> accounts = accountRepository.lockByIdRange(fromId, toId);
+            if (accounts.isEmpty()) {
+                return new RangeResult(0, 0, 0);
+            }
+            totalsRepository.deleteByAccountRangeFrom(fromId, toId, openFrom);
+
+            Map<Key, Delta> deltas = new HashMap<>();
+            List<LedgerLeg> legs = transactionRepository.findLegsForAccountRange(fromId, toId, openFrom.atStartOfDay());
+            for (LedgerLeg leg : legs) {
+                if (inRange(leg.getFromAccountId(), fromId, toId)) {
+                    debit(deltas, leg.getFromAccountId(), leg.getType(), leg.getAmount(), leg.getProcessedAt());
+                }
+                if (inRange(leg.getToAccountId(), fromId, toId)) {
+                    credit(deltas, leg.getToAccountId(), leg.getType(), leg.getAmount(), leg.getProcessedAt());
+                }
+            }
+            List<AccountMonthlyTotal> rows = apply(deltas, Map.of());
+            totalsRepository.saveAll(rows);
+            return new RangeResult(accounts.size(), legs.size(), rows.size());
+        });
+    }
+
+    private static boolean inRange(Long accountId, long fromId, long toId) {
+        return accountId != null && accountId >= fromId && accountId < toId;
+    }
+
+    /**
+     * Adds the deltas to their existing rows and returns the rows that had to be created.
+     */
+    private List<AccountMonthlyTotal> apply(Map<Key, Delta> deltas, Map<Key, AccountMonthlyTotal> rows) {
+        List<AccountMonthlyTotal> created = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            AccountMonthlyTotal row = rows.get(key);
+            if (row == null) {
+                row = new AccountMonthlyTotal();
+                row.setAccount(accountRepository.getReferenceById(key.accountId()));
+                row.setMonthStart(key.monthStart());
+                row.setType(key.type());
+                created.add(row);
+            }
+            row.setTransactionCount(row.getTransactionCount() + delta.transactionCount);
+            row.setInflow(row.getInflow().plus(delta.inflow));
+            row.setOutflow(row.getOutflow().plus(delta.outflow));
+        });
+        return created;
+    }
+
+    private static void debit(Map<Key, Delta> deltas, Long accountId, Transaction.TransactionType type,
+                              Money amount, LocalDateTime processedAt) {
+        if (accountId != null) {
+            Delta delta = deltas.computeIfAbsent(new Key(accountId, monthStart(processedAt), type), key -> new Delta());
+            delta.transactionCount++;
+            delta.outflow = delta.outflow.plus(amount);
+        }
+    }
+
+    private static void credit(Map<Key, Delta> deltas, Long accountId, Transaction.TransactionType type,
+                               Money amount, LocalDateTime processedAt) {
+        if (accountId != null) {
+            Delta delta = deltas.computeIfAbsent(new Key(accountId, monthStart(processedAt), type), key -> new Delta());
+            delta.transactionCount++;
+            delta.inflow = delta.inflow.plus(amount);
+        }
+    }
+
+    private static LocalDate monthStart(LocalDateTime processedAt) {
+        return processedAt.toLocalDate().withDayOfMonth(1);
+    }
+
+    private record Key(Long accountId, LocalDate monthStart, Transaction.TransactionType type) {
+    }
+
+    private static final class Delta {
+        private long transactionCount;
+        private Money inflow = Money.ZERO;
+        private Money outflow = Money.ZERO;
+    }
+
+    private record RangeResult(long accounts, long legs, long rows) {
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AsyncTransactionProperties;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionStatusResponse;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.ConcurrentTransactionException;
+import com.example.demo.exception.TransactionOutcomeUnknownException;
+import com.example.demo.exception.TransactionQueueFullException;
+import com.example.demo.repository.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts transactions for background processing. A submission resolves its accounts, is stored as
+ * {@code PENDING} and queued for a fixed pool of workers, which complete the stored row through
+ * {@link BankingService#completePendingTransaction} or mark it {@code FAILED} once the engine has
+ * rejected it. A transaction of unknown outcome stays {@code PENDING}. Request threads are released
+ * as soon as the row is committed.
+ *
+ * <p>Accepted but unfinished work is bounded by {@code banking.async.workers} plus
+ * {@code banking.async.queue-capacity}; submissions beyond that are rejected before anything is
+ * stored. Work still queued when shutdown times out, and rows left pending by a previous run, are
+ * marked {@code CANCELLED}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncTransactionService implements MeterBinder {
+
+    private static final int MAX_FAILURE_REASON_LENGTH = 500;
+
+    private final BankingService bankingService;
+    private final AccountCache accountCache;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTransactionProperties properties;
+    private final Environment environment;
+
+    private Semaphore capacity;
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    void start() {
+        int workerCount = Math.max(1, properties.getWorkers());
+        capacity = new Semaphore(workerCount + Math.max(0, properties.getQueueCapacity()));
+        // Capacity is enforced by the semaphore, so the executor's own queue never rejects
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory());
+    }
+
+    /**
+     * Virtual worker threads when virtual threads are enabled, like the request threads; the pool
+     * still bounds how many transactions are processed at once.
+     */
+    private ThreadFactory threadFactory() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Thread.ofVirtual().name("transaction-worker-", 0).factory();
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "transaction-worker-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cancelAbandoned() {
+        Integer cancelled = transactionTemplate.execute(status ->
+                transactionRepository.cancelAllPending("Not processed before restart", LocalDateTime.now()));
+        if (cancelled != null && cancelled > 0) {
+            log.warn("Cancelled {} transactions left pending by a previous run", cancelled);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        workers.shutdown();
+        if (workers.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            return;
+        }
+        List<Runnable> unstarted = workers.shutdownNow();
+        for (Runnable work : unstarted) {
+            finish(((PendingWork) work).pending(), Transaction.TransactionStatus.CANCELLED, "Cancelled at shutdown");
+        }
+        log.warn("Cancelled {} queued transactions at shutdown", unstarted.size());
+    }
+
+    /**
+     * Stores the transaction as {@code PENDING} and queues it. Unknown accounts are rejected here;
+     * balance and status rules are checked when the transaction is processed.
+     *
+     * @throws TransactionQueueFullException if the queue is at capacity
+     */
+    public TransactionStatusResponse submit(TransactionRequest request) {
+        if (!capacity.tryAcquire()) {
+            throw new TransactionQueueFullException("Transaction queue is full, retry later");
+        }
+        Transaction pending = null;
+        try {
+            pending = transactionTemplate.execute(status -> transactionRepository.save(toPending(request)));
+            workers.execute(new PendingWork(pending, request));
+            log.info("Accepted transaction {} for asynchronous processing", pending.getTransactionReference());
+            return TransactionStatusResponse.of(pending);
+        } catch (RuntimeException e) {
+            capacity.release();
+            if (pending != null && e instanceof RejectedExecutionException) {
+                finish(pending, Transaction.TransactionStatus.CANCELLED, "Service is shutting down");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Number of accepted transactions that have not started processing.
+     */
+    public int queued() {
+        return workers.getQueue().size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("banking.transactions.async.queued", this, AsyncTransactionService::queued)
+                .description("Accepted transactions waiting for a worker")
+                .register(registry);
+        Gauge.builder("banking.transactions.async.active", this, service -> service.workers.getActiveCount())
+                .description("Accepted transactions being processed")
+                .register(registry);
+    }
+
+    private Transaction toPending(TransactionRequest request) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(TransactionReferences.next());
+        transaction.setAmount(Money.of(request.getAmount()));
+        transaction.setType(Transaction.TransactionType.valueOf(request.getType().name()));
+        transaction.setDescription(request.getDescription());
+        transaction.setStatus(Transaction.TransactionStatus.PENDING);
+        switch (request.getType()) {
+            case DEPOSIT -> transaction.setToAccount(resolve(request.getToAccountNumber()));
+            case WITHDRAWAL -> transaction.setFromAccount(resolve(request.getFromAccountNumber()));
+            case TRANSFER, PAYMENT, REFUND -> {
+                transaction.setFromAccount(resolve(request.getFromAccountNumber()));
+                transaction.setToAccount(resolve(request.getToAccountNumber()));
+            }
+        }
+        return transaction;
+    }
+
+    private Account resolve(String accountNumber) {
+        // Throws AccountNotFoundException for unknown numbers; the detached copy only supplies the id
+        return accountCache.get(accountNumber);
+    }
+
+    private void process(Transaction pending, TransactionRequest request) {
+        try {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    bankingService.completePendingTransaction(pending, request);
+                    return;
+                } catch (ConcurrentTransactionException e) {
+                    if (attempt >= properties.getConflictRetries()) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (TransactionOutcomeUnknownException e) {
+            // The sharded ledger may still apply it; its write-behind then completes the stored row
+            log.warn("Asynchronous transaction {} left pending: {}", pending.getTransactionReference(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Asynchronous transaction {} failed: {}", pending.getTransactionReference(), e.getMessage());
+            finish(pending, Transaction.TransactionStatus.FAILED, e.getMessage());
+        } finally {
+            capacity.release();
+        }
+    }
+
+    private void finish(Transaction pending, Transaction.TransactionStatus status, String reason) {
+        String failureReason = reason != null && reason.length() > MAX_FAILURE_REASON_LENGTH
+                ? reason.substring(0, MAX_FAILURE_REASON_LENGTH)
+                : reason;
+        transactionTemplate.executeWithoutResult(tx ->
+                transactionRepository.finishPending(pending.getId(), status, failureReason, LocalDateTime.now()));
+    }
+
+    private final class PendingWork implements Runnable {
+
+        private final Transaction pending;
+        private final TransactionRequest request;
+
+        private PendingWork(Transaction pending, TransactionRequest request) {
+            this.pending = pending;
+            this.request = request;
+        }
+
+        Transaction pending() {
+            return pending;
+        }
+
+        @Override
+        public void run() {
+            process(pending, request);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.demo.service;
+
+import com.example.demo.config.SnapshotProperties;
+import com.example.demo.dto.AccountStatement;
+import com.example.demo.dto.DailyBalance;
+import com.example.demo.dto.LedgerLeg;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.AccountDailyBalance;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.SnapshotCheckpoint;
+import com.example.demo.repository.AccountDailyBalanceRepository;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.SnapshotCheckpointRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.ledger.ShardedLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Daily balance snapshots. A background compactor rolls the completed transactions of each closed
+ * day into one {@link AccountDailyBalance} row per active account, so point-in-time balances and
+ * statements read the latest snapshot before the requested day plus the transactions of the days
+ * after the last compacted one, instead of replaying an account's whole history.
+ *
+ * <p>Days are bucketed by processing time, which is when a transaction's balance effect happens.
+ * A day is closed once {@code banking.snapshots.settle-delay} has passed after its end and, in
+ * sharded mode, the write-behind has persisted every transaction processed before its end. A day
+ * whose transactions were repaired after it was compacted is compacted again with
+ * {@link #compactThrough(LocalDate, LocalDate)}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceSnapshotService {
+
+    private static final int ACCOUNT_CHUNK = 1_000;
+
+    private final AccountDailyBalanceRepository snapshotRepository;
+    private final SnapshotCheckpointRepository checkpointRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountCache accountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final SnapshotProperties properties;
+    private final ObjectProvider<ShardedLedger> shardedLedger;
+
+    private final ReentrantLock compactionLock = new ReentrantLock();
+
+    @Scheduled(initialDelayString = "${banking.snapshots.compaction-interval:PT1H}",
+               fixedDelayString = "${banking.snapshots.compaction-interval:PT1H}")
+    public void scheduledCompaction() {
+        if (properties.isEnabled()) {
+            compact();
+        }
+    }
+
+    /**
+     * Compacts every closed day that is not compacted yet and returns the last compacted day.
+     */
+    public LocalDate compact() {
+        return compactThrough(lastClosedDay());
+    }
+
+    /**
+     * Compacts every closed day from {@code from} on again, including days compacted before, and
+     * returns the last compacted day.
+     */
+    public LocalDate compact(LocalDate from) {
+        return compactThrough(from, lastClosedDay());
+    }
+
+    /**
+     * Compacts the days after the checkpoint up to and including {@code lastDay}, one database
+     * transaction per day. Returns the last compacted day, or {@code null} if nothing was ever
+     * processed.
+     */
+    public LocalDate compactThrough(LocalDate lastDay) {
+        compactionLock.lock();
+        try {
+            LocalDate compactedThrough = compactedThrough();
+            LocalDate day;
+            if (compactedThrough != null) {
+                day = compactedThrough.plusDays(1);
+            } else {
+                LocalDateTime earliest = transactionRepository.findEarliestProcessedAt();
+                if (earliest == null) {
+                    return null;
+                }
+                day = earliest.toLocalDate();
+            }
+            for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                compactDay(day);
+                compactedThrough = day;
+            }
+            return compactedThrough;
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Compacts the days from {@code from} up to and including {@code lastDay} again, replacing
+     * their snapshots, e.g. after transactions of a compacted day were repaired. Each compacted day
+     * opens with the closing balances of the day before, so the compacted days after {@code lastDay}
+     * are redone as well. Their snapshots are deleted and the checkpoint is moved back before
+     * {@code from} first, so readers fall back to the transactions until the days are redone.
+     */
+    public LocalDate compactThrough(LocalDate from, LocalDate lastDay) {
+        compactionLock.lock();
+        try {
+            LocalDate compactedThrough = compactedThrough();
+            if (compactedThrough == null || from.isAfter(compactedThrough)) {
+                return compactThrough(lastDay);
+            }
+            int deleted = transactionTemplate.execute(status -> {
+                int rows = snapshotRepository.deleteFrom(from);
+                checkpointRepository.save(new SnapshotCheckpoint(SnapshotCheckpoint.ID, from.minusDays(1)));
+                return rows;
+            });
+            log.info("Deleted {} daily balance snapshots from {} to compact them again", deleted, from);
+            return compactThrough(lastDay.isAfter(compactedThrough) ? lastDay : compactedThrough);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    public LocalDate compactedThrough() {
+        return checkpointRepository.findById(SnapshotCheckpoint.ID)
+                .map(SnapshotCheckpoint::getCompactedThrough)
+                .orElse(null);
+    }
+
+    /**
+     * Balance of the account just before {@code at}, i.e. including every transaction processed
+     * before that instant.
+     */
+    @Transactional(readOnly = true)
+    public Money balanceAsOf(String accountNumber, LocalDateTime at) {
+        Account account = accountCache.get(accountNumber);
+        Position position = positionBefore(account, at.toLocalDate());
+        return position.balance().plus(net(account.getId(), legs(account, position.tailStart(), at)));
+    }
+
+    /**
+     * Daily balance movement of the account between two dates, both inclusive. Compacted days come
+     * from their snapshots; days after the checkpoint are summed from their transactions.
+     */
+    @Transactional(readOnly = true)
+    public AccountStatement statement(String accountNumber, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        Account account = accountCache.get(accountNumber);
+        Money opening = balanceAsOf(accountNumber, from.atStartOfDay());
+
+        List<DailyBalance> days = new ArrayList<>();
+        LocalDate compactedThrough = compactedThrough();
+        LocalDate tailFrom = from;
+        if (compactedThrough != null && !compactedThrough.isBefore(from)) {
+            LocalDate lastCompacted = to.isBefore(compactedThrough) ? to : compactedThrough;
+            for (AccountDailyBalance snapshot : snapshotRepository.findByAccountIdAndBusinessDateBetweenOrderByBusinessDate(
+                    account.getId(), from, lastCompacted)) {
+                days.add(new DailyBalance(snapshot.getBusinessDate(), snapshot.getOpeningBalance(),
+                        snapshot.getClosingBalance(), snapshot.getDebitTotal(), snapshot.getCreditTotal(),
+                        snapshot.getTransactionCount()));
+            }
+            tailFrom = lastCompacted.plusDays(1);
+        }
+
+        Money running = days.isEmpty() ? opening : days.get(days.size() - 1).getClosingBalance();
+        if (!tailFrom.isAfter(to)) {
+            Map<LocalDate, DayTotals> tail = new TreeMap<>();
+            for (LedgerLeg leg : legs(account, tailFrom.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                tail.computeIfAbsent(leg.getProcessedAt().toLocalDate(), date -> new DayTotals()).add(leg, account.getId());
+            }
+            for (Map.Entry<LocalDate, DayTotals> day : tail.entrySet()) {
+                DayTotals totals = day.getValue();
+                Money closing = running.plus(totals.credits).minus(totals.debits);
+                days.add(new DailyBalance(day.getKey(), running, closing, totals.debits, totals.credits, totals.count));
+                running = closing;
+            }
+        }
+
+        Money debits = Money.ZERO;
+        Money credits = Money.ZERO;
+        for (DailyBalance day : days) {
+            debits = debits.plus(day.getDebits());
+            credits = credits.plus(day.getCredits());
+        }
+        return new AccountStatement(account.getAccountNumber(), from, to, opening, running, debits, credits, days);
+    }
+
+    /**
+     * Balance at the end of the last compacted day before {@code day}, and where the uncompacted
+     * tail of transactions starts. Without a checkpoint the tail is the account's whole history.
+     */
+    private Position positionBefore(Account account, LocalDate day) {
+        LocalDate compactedThrough = compactedThrough();
+        if (compactedThrough == null) {
+            return new Position(account.getOpeningBalance(), account.getCreatedAt());
+        }
+        LocalDate cutoff = day.minusDays(1);
+        if (compactedThrough.isBefore(cutoff)) {
+            cutoff = compactedThrough;
+        }
+        // No snapshot up to the cutoff means no activity up to it, since compaction starts with the first transaction
+        Money balance = snapshotRepository
+                .findFirstByAccountIdAndBusinessDateLessThanEqualOrderByBusinessDateDesc(account.getId(), cutoff)
+                .map(AccountDailyBalance::getClosingBalance)
+                .orElse(account.getOpeningBalance());
+        return new Position(balance, cutoff.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Last day that ended at least the settle delay ago and, in sharded mode, whose transactions
+     * have all been persisted by the write-behind.
+     */
+    private LocalDate lastClosedDay() {
+        LocalDateTime closedBefore = LocalDateTime.now().minus(properties.getSettleDelay());
+        ShardedLedger ledger = shardedLedger.getIfAvailable();
+        if (ledger != null) {
+            LocalDateTime persistedBefore = ledger.persistedBefore();
+            if (persistedBefore.isBefore(closedBefore)) {
+                closedBefore = persistedBefore;
+            }
+        }
+        return closedBefore.toLocalDate().minusDays(1);
+    }
+
+    private List<LedgerLeg> legs(Account account, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        return transactionRepository.findAccountLegs(account.getId(), from, to);
+    }
+
+    private static Money net(Long accountId, List<LedgerLeg> legs) {
+        DayTotals totals = new DayTotals();
+        legs.forEach(leg -> totals.add(leg, accountId));
+        return totals.credits.minus(totals.debits);
+    }
+
+    private void compactDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+        int rows = transactionTemplate.execute(status -> {
+            Map<Long, DayTotals> totals = new HashMap<>();
+            try (Stream<LedgerLeg> legs = transactionRepository.streamLegsProcessedBetween(start, end)) {
+                legs.forEach(leg -> {
+                    if (leg.getFromAccountId() != null) {
+                        totals.computeIfAbsent(leg.getFromAccountId(), id -> new DayTotals()).add(leg, leg.getFromAccountId());
+                    }
+                    if (leg.getToAccountId() != null && !leg.getToAccountId().equals(leg.getFromAccountId())) {
+                        totals.computeIfAbsent(leg.getToAccountId(), id -> new DayTotals()).add(leg, leg.getToAccountId());
+                    }
+                });
+            }
+
+            List<Long> accountIds = new ArrayList<>(totals.keySet());
+            for (int from = 0; from < accountIds.size(); from += ACCOUNT_CHUNK) {
+                List<Long> chunk = accountIds.subList(from, Math.min(from + ACCOUNT_CHUNK, accountIds.size()));
+                Map<Long, Money> openings = new HashMap<>();
+                for (AccountDailyBalance previous : snapshotRepository.findLatestBefore(chunk, day)) {
+                    openings.put(previous.getAccount().getId(), previous.getClosingBalance());
+                }
+                List<Long> first = chunk.stream().filter(id -> !openings.containsKey(id)).toList();
+                if (!first.isEmpty()) {
+                    for (Account account : accountRepository.findAllById(first)) {
+                        openings.put(account.getId(), account.getOpeningBalance());
+                    }
+                }
+
+                List<AccountDailyBalance> snapshots = new ArrayList<>(chunk.size());
+                for (Long accountId : chunk) {
+                    DayTotals dayTotals = totals.get(accountId);
+                    Money opening = openings.get(accountId);
+                    snapshots.add(new AccountDailyBalance(null, accountRepository.getReferenceById(accountId), day,
+                            opening, opening.plus(dayTotals.credits).minus(dayTotals.debits),
+                            dayTotals.debits, dayTotals.credits, dayTotals.count));
+                }
+                snapshotRepository.saveAll(snapshots);
+            }
+            checkpointRepository.save(new SnapshotCheckpoint(SnapshotCheckpoint.ID, day));
+            return accountIds.size();
+        });
+        log.info("Compacted {} into {} daily balance snapshots", day, rows);
+    }
+
+    private record Position(Money balance, LocalDateTime tailStart) {
+    }
+
+    /**
+     * Debits and credits of one account. A leg from an account to itself counts on both sides.
+     */
+    private static final class DayTotals {
+
+        private Money debits = Money.ZERO;
+        private Money credits = Money.ZERO;
+        private int count;
+
+        void add(LedgerLeg leg, Long accountId) {
+            if (accountId.equals(leg.getFromAccountId())) {
+                debits = debits.plus(leg.getAmount());
+            }
+            if (accountId.equals(leg.getToAccountId())) {
+                credits = credits.plus(leg.getAmount());
+            }
+            count++;
+        }
+    }
+}
@@ -1,26 +1,54 @@
 package com.example.demo.service;
 
+import com.example.demo.config.BatchProperties;
+import com.example.demo.config.EngineProperties;
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.BatchTransactionResponse;
 import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.dto.TransactionHistoryRow;
 import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionStatusResponse;
 import com.example.demo.dto.TransactionType;
 import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
 import com.example.demo.entity.Transaction;
+import com.example.demo.exception.AccountInactiveException;
 import com.example.demo.exception.AccountNotFoundException;
 import com.example.demo.exception.InsufficientBalanceException;
 import com.example.demo.exception.ConcurrentTransactionException;
+import com.example.demo.exception.TransactionLimitExceededException;
+import com.example.demo.exception.TransactionOutcomeUnknownException;
+import com.example.demo.exception.TransactionNotFoundException;
 import com.example.demo.mapper.AccountMapper;
 import com.example.demo.repository.AccountRepository;
 import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.ledger.ShardedLedger;
+import com.example.demo.service.outbox.TransactionOutbox;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +58,18 @@ public class BankingService {
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final AccountMapper accountMapper;
+    private final AccountCache accountCache;
+    private final AccountSearchIndex accountSearchIndex;
+    private final IdempotencyIndex idempotencyIndex;
+    private final TransactionMetrics transactionMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchProperties batchProperties;
+    private final EngineProperties engineProperties;
+    private final ObjectProvider<ShardedLedger> shardedLedger;
+    private final AccountEventStream accountEventStream;
+    private final TransactionOutbox transactionOutbox;
+    private final AccountTotalsService accountTotalsService;
+    private final TransactionLimits transactionLimits;
     
     @Transactional
     public Account createAccount(CreateAccountRequest request) {
@@ -41,15 +81,18 @@ public class BankingService {
 
         Account account = accountMapper.toAccount(request);
         Account savedAccount = accountRepository.save(account);
+        accountSearchIndex.indexAfterCommit(savedAccount);
         log.info("Account created successfully with ID: {}", savedAccount.getId());
         
         return savedAccount;
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Returns a detached copy of the account from the {@link AccountCache}. A cache hit does not
+     * touch the database, so no transaction is opened here.
+     */
     public Account getAccountByNumber(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+        return accountCache.get(accountNumber);
     }
     
     @Transactional(readOnly = true)
@@ -57,67 +100,415 @@ public class BankingService {
         return accountRepository.findAll();
     }
     
+    /**
+     * Accounts whose customer name contains the fragment, ignoring case, best match first. Served
+     * from the {@link AccountSearchIndex}; until its startup rebuild has finished this falls back to
+     * a {@code LIKE} scan.
+     */
     @Transactional(readOnly = true)
     public List<Account> getAccountsByCustomerName(String customerName) {
-        return accountRepository.findByCustomerNameContainingIgnoreCase(customerName);
+        if (!accountSearchIndex.isReady()) {
+            return accountRepository.findByCustomerNameContainingIgnoreCase(customerName);
+        }
+        List<Long> ids = accountSearchIndex.findIdsByCustomerName(customerName);
+        Map<Long, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllById(ids)) {
+            accounts.put(account.getId(), account);
+        }
+        return ids.stream().map(accounts::get).filter(Objects::nonNull).toList();
     }
     
-    @Transactional(timeout = 30)
+    /**
+     * Processes a single transaction with the engine selected by {@code banking.engine.mode}. In the
+     * default JPA mode the transaction boundary is programmatic so that commit-time optimistic lock
+     * failures are translated as well; in sharded mode no database transaction is held while the
+     * ledger applies the legs.
+     *
+     * <p>In JPA mode {@code banking.engine.locking} selects how concurrent writers of an account are
+     * kept apart. With the default optimistic locking the accounts are validated against their cached
+     * snapshots and written with a version-checked update, so a stale snapshot fails exactly like a
+     * concurrent modification. With pessimistic locking the account rows are locked for the duration
+     * of the database transaction instead.
+     */
     public Transaction processTransaction(TransactionRequest request) {
+        return processTransaction(request, null);
+    }
+    
+    /**
+     * Processes a transaction at most once per idempotency key. Repeated and concurrent requests
+     * with the same key get the transaction of the first execution; {@code null} disables the check.
+     */
+    public Transaction processTransaction(TransactionRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return executeTransaction(request, null);
+        }
+        return idempotencyIndex.execute(idempotencyKey, request, () -> executeTransaction(request, idempotencyKey));
+    }
+    
+    /**
+     * Processes a transaction accepted earlier as {@code PENDING}, completing its stored row in place
+     * instead of creating a new one. Failures leave the row pending for the caller to finish.
+     */
+    public Transaction completePendingTransaction(Transaction pending, TransactionRequest request) {
+        return executeTransaction(request, null, pending);
+    }
+    
+    private Transaction executeTransaction(TransactionRequest request, String idempotencyKey) {
+        return executeTransaction(request, idempotencyKey, null);
+    }
+    
+    private Transaction executeTransaction(TransactionRequest request, String idempotencyKey, Transaction pending) {
         log.info("Processing transaction: {} from {} to {}", 
                 request.getType(), request.getFromAccountNumber(), request.getToAccountNumber());
         
+        Transaction savedTransaction;
+        Account fromAccount;
+        Account toAccount;
+        // Exactly one of succeeded() and failed() ends the in-flight count, so nothing that can
+        // throw runs after succeeded() inside this block
+        long start = transactionMetrics.start();
         try {
-            Account fromAccount = null;
-            Account toAccount = null;
+            ShardedLedger ledger = shardedLedger.getIfAvailable();
+            if (ledger != null) {
+                savedTransaction = ledger.process(request, idempotencyKey,
+                        pending != null ? pending.getTransactionReference() : null);
+                log.info("Transaction applied to ledger: {}", savedTransaction.getTransactionReference());
+                fromAccount = savedTransaction.getFromAccount();
+                toAccount = savedTransaction.getToAccount();
+            } else {
+                Map<String, Account> accounts = new HashMap<>();
+                savedTransaction = engineProperties.getLocking() == EngineProperties.Locking.PESSIMISTIC
+                        ? executeLocked(request, idempotencyKey, pending, accounts)
+                        : executeOptimistic(request, idempotencyKey, pending, accounts);
+                accounts.values().forEach(accountCache::put);
+                log.info("Transaction processed successfully: {}", savedTransaction.getTransactionReference());
+                // Committed; the snapshots hold the balances the accounts were left with
+                fromAccount = accounts.get(request.getFromAccountNumber());
+                toAccount = accounts.get(request.getToAccountNumber());
+            }
+            transactionMetrics.succeeded(request.getType(), start);
             
-            // Fetch and validate accounts based on transaction type requirements
-            switch (request.getType()) {
-                case DEPOSIT:
-                    // DEPOSIT only requires toAccount
-                    toAccount = getAccountByNumber(request.getToAccountNumber());
-                    validateAccountStatus(toAccount, "To account");
-                    break;
-                    
-                case WITHDRAWAL:
-                    // WITHDRAWAL only requires fromAccount
-                    fromAccount = getAccountByNumber(request.getFromAccountNumber());
-                    validateAccountStatus(fromAccount, "From account");
-                    validateSufficientBalance(fromAccount, request.getAmount());
-                    break;
-                    
-                case TRANSFER:
-                    // TRANSFER requires both accounts
-                    fromAccount = getAccountByNumber(request.getFromAccountNumber());
-                    toAccount = getAccountByNumber(request.getToAccountNumber());
-                    validateAccountStatus(fromAccount, "From account");
-                    validateAccountStatus(toAccount, "To account");
-                    validateSufficientBalance(fromAccount, request.getAmount());
-                    // Business rule: Cannot transfer to the same account
-                    if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
-                        throw new IllegalArgumentException("Cannot transfer to the same account");
+        } catch (ObjectOptimisticLockingFailureException | PessimisticLockingFailureException e) {
+            log.error("Locking failure during transaction processing: {}", e.getMessage());
+            ConcurrentTransactionException conflict = new ConcurrentTransactionException(
+                    "Transaction failed due to concurrent modification. Please retry.", e);
+            transactionMetrics.failed(request.getType(), start, conflict);
+            throw conflict;
+        } catch (Exception e) {
+            transactionMetrics.failed(request.getType(), start, e);
+            log.error("Error processing transaction: {}", e.getMessage(), e);
+            throw e; // Re-throw; the transaction has already been rolled back
+        }
+        
+        accountEventStream.publishTransaction(savedTransaction, fromAccount, toAccount);
+        return savedTransaction;
+    }
+    
+    /**
+     * Optimistic variant: validates against cached snapshots and writes with a version-checked
+     * update. A conflict is retried after a jittered backoff while {@code banking.engine.retry}
+     * allows, each attempt starting from freshly loaded accounts.
+     */
+    private Transaction executeOptimistic(TransactionRequest request, String idempotencyKey, Transaction pending,
+                                          Map<String, Account> accounts) {
+        EngineProperties.Retry retry = engineProperties.getRetry();
+        for (int attempt = 1; ; attempt++) {
+            accounts.clear();
+            try {
+                return transactionTemplate.execute(status -> {
+                    // Both legs of a request naming the same account must share one snapshot
+                    Transaction transaction = applyTransaction(request,
+                            accountNumber -> accounts.computeIfAbsent(accountNumber, accountCache::get));
+                    saveBalances(accounts.values());
+                    return saveCompleted(transaction, idempotencyKey, pending);
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= retry.getMaxAttempts()) {
+                    throw e;
+                }
+                transactionMetrics.retried();
+                backoff(retry, attempt, e);
+            }
+        }
+    }
+    
+    /**
+     * Pessimistic variant: the accounts are loaded with a row lock, lowest id first, so transfers
+     * between the same two accounts in opposite directions queue behind each other instead of
+     * deadlocking. The locked accounts are managed, so their balances are flushed on commit.
+     */
+    private Transaction executeLocked(TransactionRequest request, String idempotencyKey, Transaction pending,
+                                      Map<String, Account> accounts) {
+        return transactionTemplate.execute(status -> {
+            lockAccounts(request, accounts);
+            Transaction transaction = applyTransaction(request, accountNumber -> {
+                Account account = accounts.get(accountNumber);
+                if (account == null) {
+                    throw new AccountNotFoundException("Account not found: " + accountNumber);
+                }
+                return account;
+            });
+            return saveCompleted(transaction, idempotencyKey, pending);
+        });
+    }
+    
+    private void lockAccounts(TransactionRequest request, Map<String, Account> accounts) {
+        Stream<String> accountNumbers = switch (request.getType()) {
+            case DEPOSIT -> Stream.of(request.getToAccountNumber());
+            case WITHDRAWAL -> Stream.of(request.getFromAccountNumber());
+            case TRANSFER, PAYMENT, REFUND -> Stream.of(request.getFromAccountNumber(), request.getToAccountNumber());
+        };
+        // Ids never change, so the cached snapshots are good enough to order the locks
+        List<Long> ids = accountNumbers.filter(Objects::nonNull)
+                .distinct()
+                .map(accountNumber -> accountCache.get(accountNumber).getId())
+                .sorted()
+                .toList();
+        for (Long id : ids) {
+            Account account = accountRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found: " + id));
+            accounts.put(account.getAccountNumber(), account);
+        }
+    }
+    
+    private Transaction saveCompleted(Transaction transaction, String idempotencyKey, Transaction pending) {
+        transaction.setIdempotencyKey(idempotencyKey);
+        if (pending != null) {
+            // Merged over the accepted row
+            transaction.setId(pending.getId());
+            transaction.setTransactionReference(pending.getTransactionReference());
+            transaction.setCreatedAt(pending.getCreatedAt());
+        }
+        Transaction saved = transactionRepository.save(transaction);
+        // The merged copy of a pending row may hold account proxies; the accounts in hand are loaded
+        transactionOutbox.record(List.of(transaction));
+        accountTotalsService.record(List.of(transaction));
+        return saved;
+    }
+    
+    private static void backoff(EngineProperties.Retry retry, int attempt, RuntimeException conflict) {
+        long bound = Math.min(retry.getMaxBackoff().toNanos(),
+                retry.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+        try {
+            // Full jitter, so writers that collided on an account do not collide again in lockstep
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+    
+    /**
+     * Processes a batch of transactions in chunks of {@code banking.batch.chunk-size}. Each chunk
+     * runs in its own database transaction: all referenced accounts are loaded with a single query,
+     * balance changes are applied in memory and the chunk is flushed once before its totals are
+     * recorded, so account updates go out through the configured JDBC batching. Business rule violations are reported
+     * per item and do not abort the rest of the chunk.
+     */
+    public BatchTransactionResponse processBatch(List<TransactionRequest> requests) {
+        if (requests.size() > batchProperties.getMaxItems()) {
+            throw new IllegalArgumentException("Batch exceeds maximum size of " + batchProperties.getMaxItems() + " items");
+        }
+        log.info("Processing batch of {} transactions", requests.size());
+        
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        ShardedLedger ledger = shardedLedger.getIfAvailable();
+        if (ledger != null) {
+            // The ledger owns the live balances, so batch items go through it one by one
+            for (int i = 0; i < requests.size(); i++) {
+                try {
+                    Transaction transaction = ledger.process(requests.get(i), null);
+                    accountEventStream.publishTransaction(transaction, transaction.getFromAccount(), transaction.getToAccount());
+                    results.add(BatchItemResult.success(i, transaction.getTransactionReference()));
+                } catch (TransactionOutcomeUnknownException e) {
+                    results.add(BatchItemResult.pending(i, e.getTransactionReference(), e.getMessage()));
+                } catch (AccountNotFoundException | InsufficientBalanceException | TransactionLimitExceededException
+                         | IllegalArgumentException | IllegalStateException e) {
+                    results.add(BatchItemResult.failure(i, e.getMessage()));
+                }
+            }
+        } else {
+            int chunkSize = Math.max(1, batchProperties.getChunkSize());
+            for (int offset = 0; offset < requests.size(); offset += chunkSize) {
+                List<TransactionRequest> chunk = requests.subList(offset, Math.min(offset + chunkSize, requests.size()));
+                results.addAll(processChunk(chunk, offset));
+            }
+        }
+        
+        BatchTransactionResponse response = BatchTransactionResponse.of(results);
+        log.info("Batch processed: {} succeeded, {} failed, {} pending", response.getSucceeded(), response.getFailed(),
+                response.getPending());
+        return response;
+    }
+    
+    /**
+     * Writes the balances of detached account snapshots, lowest id first so that concurrent
+     * transactions touching the same pair of accounts lock their rows in the same order.
+     */
+    private void saveBalances(Collection<Account> accounts) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Account> ordered = new ArrayList<>(accounts);
+        ordered.sort(Comparator.comparing(Account::getId));
+        for (Account account : ordered) {
+            int updated = accountRepository.updateBalance(account.getId(), account.getVersion(), account.getBalance(), now);
+            if (updated == 0) {
+                accountCache.evict(account.getAccountNumber());
+                throw new ObjectOptimisticLockingFailureException(Account.class, account.getId());
+            }
+            account.setVersion(account.getVersion() + 1);
+            account.setUpdatedAt(now);
+        }
+    }
+    
+    private List<BatchItemResult> processChunk(List<TransactionRequest> chunk, int offset) {
+        Map<String, Account> accounts = new HashMap<>();
+        try {
+            List<BatchItemResult> results = transactionTemplate.execute(status -> applyChunk(chunk, offset, accounts));
+            // The flush bumped the versions of the changed accounts
+            accounts.values().forEach(accountCache::put);
+            accountEventStream.publishBalances(changedAccounts(chunk, offset, results, accounts));
+            return results;
+        } catch (ObjectOptimisticLockingFailureException | PessimisticLockingFailureException e) {
+            // The whole chunk was rolled back, so none of its items took effect
+            log.error("Locking failure in batch chunk starting at {}: {}", offset, e.getMessage());
+            List<BatchItemResult> failures = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                failures.add(BatchItemResult.failure(offset + i,
+                        "Transaction failed due to concurrent modification. Please retry."));
+            }
+            return failures;
+        }
+    }
+    
+    private static List<Account> changedAccounts(List<TransactionRequest> chunk, int offset,
+                                                 List<BatchItemResult> results, Map<String, Account> accounts) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (BatchItemResult result : results) {
+            if (result.getStatus() == BatchItemResult.ItemStatus.SUCCESS) {
+                TransactionRequest request = chunk.get(result.getIndex() - offset);
+                if (request.getFromAccountNumber() != null) {
+                    changed.add(request.getFromAccountNumber());
+                }
+                if (request.getToAccountNumber() != null) {
+                    changed.add(request.getToAccountNumber());
+                }
+            }
+        }
+        return changed.stream().map(accounts::get).filter(Objects::nonNull).toList();
+    }
+    
+    private List<BatchItemResult> applyChunk(List<TransactionRequest> chunk, int offset, Map<String, Account> accounts) {
+        Set<String> accountNumbers = new HashSet<>();
+        for (TransactionRequest request : chunk) {
+            if (request.getFromAccountNumber() != null) {
+                accountNumbers.add(request.getFromAccountNumber());
+            }
+            if (request.getToAccountNumber() != null) {
+                accountNumbers.add(request.getToAccountNumber());
+            }
+        }
+        
+        for (Account account : accountRepository.findByAccountNumberIn(accountNumbers)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        
+        List<Transaction> applied = new ArrayList<>(chunk.size());
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                Transaction transaction = applyTransaction(chunk.get(i), accountNumber -> {
+                    Account account = accounts.get(accountNumber);
+                    if (account == null) {
+                        throw new AccountNotFoundException("Account not found: " + accountNumber);
                     }
-                    break;
-                    
-                case PAYMENT:
-                case REFUND:
-                    // PAYMENT and REFUND require both accounts
-                    fromAccount = getAccountByNumber(request.getFromAccountNumber());
-                    toAccount = getAccountByNumber(request.getToAccountNumber());
-                    validateAccountStatus(fromAccount, "From account");
-                    validateAccountStatus(toAccount, "To account");
-                    validateSufficientBalance(fromAccount, request.getAmount());
-                    break;
-                    
-                default:
-                    throw new IllegalArgumentException("Unsupported transaction type: " + request.getType());
+                    return account;
+                });
+                applied.add(transaction);
+                results.add(BatchItemResult.success(offset + i, transaction.getTransactionReference()));
+            } catch (AccountNotFoundException | InsufficientBalanceException | TransactionLimitExceededException
+                     | IllegalArgumentException | IllegalStateException e) {
+                results.add(BatchItemResult.failure(offset + i, e.getMessage()));
             }
+        }
+        
+        // Loaded accounts are managed, so their balance updates are flushed together here. The
+        // version-checked updates lock the account rows before the totals rows are read, so a
+        // concurrent chunk on the same accounts fails the version check instead of inserting the
+        // same new totals row.
+        transactionRepository.saveAll(applied);
+        if (!applied.isEmpty()) {
+            accountRepository.flush();
+        }
+        transactionOutbox.record(applied);
+        accountTotalsService.record(applied);
+        return results;
+    }
+    
+    /**
+     * Validates the request against the accounts resolved by {@code accountLookup} and applies the
+     * balance changes to them. All validation happens before any balance is touched, so a rejected
+     * request leaves the accounts unchanged. The returned transaction is completed but not yet saved.
+     * The {@link TransactionLimits} share it takes is released if the surrounding database
+     * transaction rolls back.
+     */
+    private Transaction applyTransaction(TransactionRequest request, Function<String, Account> accountLookup) {
+        Money amount = Money.of(request.getAmount());
+        Account fromAccount = null;
+        Account toAccount = null;
+        
+        // Fetch and validate accounts based on transaction type requirements
+        switch (request.getType()) {
+            case DEPOSIT:
+                // DEPOSIT only requires toAccount
+                toAccount = accountLookup.apply(request.getToAccountNumber());
+                validateAccountStatus(toAccount, "To account");
+                break;
+                
+            case WITHDRAWAL:
+                // WITHDRAWAL only requires fromAccount
+                fromAccount = accountLookup.apply(request.getFromAccountNumber());
+                validateAccountStatus(fromAccount, "From account");
+                validateSufficientBalance(fromAccount, amount);
+                break;
+                
+            case TRANSFER:
+                // TRANSFER requires both accounts
+                fromAccount = accountLookup.apply(request.getFromAccountNumber());
+                toAccount = accountLookup.apply(request.getToAccountNumber());
+                validateAccountStatus(fromAccount, "From account");
+                validateAccountStatus(toAccount, "To account");
+                validateSufficientBalance(fromAccount, amount);
+                // Business rule: Cannot transfer to the same account
+                if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+                    throw new IllegalArgumentException("Cannot transfer to the same account");
+                }
+                break;
+                
+            case PAYMENT:
+            case REFUND:
+                // PAYMENT and REFUND require both accounts
+                fromAccount = accountLookup.apply(request.getFromAccountNumber());
+                toAccount = accountLookup.apply(request.getToAccountNumber());
+                validateAccountStatus(fromAccount, "From account");
+                validateAccountStatus(toAccount, "To account");
+                validateSufficientBalance(fromAccount, amount);
+                break;
+                
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type: " + request.getType());
+        }
+        
+        // Checked last, so a request rejected for another reason takes no share of the limits
+        Transaction.TransactionType type = toEntityTransactionType(request.getType());
+        if (fromAccount != null) {
+            transactionLimits.check(fromAccount, type, amount.minorUnits());
+        }
         
         // Create transaction record
         Transaction transaction = new Transaction();
-        transaction.setTransactionReference(UUID.randomUUID().toString());
-        transaction.setAmount(request.getAmount());
-        transaction.setType(toEntityTransactionType(request.getType()));
+        transaction.setTransactionReference(TransactionReferences.next());
+        transaction.setAmount(amount);
+        transaction.setType(type);
         transaction.setFromAccount(fromAccount);
         transaction.setToAccount(toAccount);
         transaction.setDescription(request.getDescription());
@@ -127,21 +518,17 @@ public class BankingService {
         switch (request.getType()) {
             case DEPOSIT:
                 assert toAccount != null;
-                toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
-                accountRepository.save(toAccount);
+                toAccount.setBalance(toAccount.getBalance().plus(amount));
                 break;
             case WITHDRAWAL:
                 assert fromAccount != null;
-                fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-                accountRepository.save(fromAccount);
+                fromAccount.setBalance(fromAccount.getBalance().minus(amount));
                 break;
             case TRANSFER, PAYMENT, REFUND:
                 assert fromAccount != null;
-                fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
+                fromAccount.setBalance(fromAccount.getBalance().minus(amount));
                 assert toAccount != null;
-                toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
-                accountRepository.save(fromAccount);
-                accountRepository.save(toAccount);
+                toAccount.setBalance(toAccount.getBalance().plus(amount));
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported transaction type: " + request.getType());
@@ -151,28 +538,17 @@ public class BankingService {
         transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
         transaction.setProcessedAt(LocalDateTime.now());
         
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        log.info("Transaction processed successfully: {}", savedTransaction.getTransactionReference());
-        
-        return savedTransaction;
-        
-        } catch (ObjectOptimisticLockingFailureException e) {
-            log.error("Optimistic locking failure during transaction processing: {}", e.getMessage());
-            throw new ConcurrentTransactionException("Transaction failed due to concurrent modification. Please retry.", e);
-        } catch (Exception e) {
-            log.error("Error processing transaction: {}", e.getMessage(), e);
-            throw e; // Re-throw to trigger transaction rollback
-        }
+        return transaction;
     }
     
-    private void validateAccountStatus(Account account, String accountLabel) {
+    static void validateAccountStatus(Account account, String accountLabel) {
         if (account.getStatus() != Account.AccountStatus.ACTIVE) {
-            throw new IllegalStateException(accountLabel + " is not active: " + account.getAccountNumber());
+            throw new AccountInactiveException(accountLabel + " is not active: " + account.getAccountNumber());
         }
     }
     
-    private void validateSufficientBalance(Account account, BigDecimal amount) {
-        if (account.getBalance().compareTo(amount) < 0) {
+    static void validateSufficientBalance(Account account, Money amount) {
+        if (account.getBalance().isLessThan(amount)) {
             throw new InsufficientBalanceException("Insufficient balance in account: " + account.getAccountNumber());
         }
     }
@@ -188,26 +564,50 @@ public class BankingService {
     }
     
     @Transactional(readOnly = true)
-    public List<Transaction> getAccountTransactions(String accountNumber) {
+    public List<TransactionHistoryRow> getAccountTransactions(String accountNumber) {
         Account account = getAccountByNumber(accountNumber);
-        return transactionRepository.findTransactionsByAccountId(account.getId());
+        return transactionRepository.findHistory(account.getId());
     }
     
     @Transactional(readOnly = true)
-    public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+    public TransactionStatusResponse getTransactionStatus(String transactionReference) {
+        Transaction transaction = transactionRepository.findByTransactionReference(transactionReference)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionReference));
+        return TransactionStatusResponse.of(transaction);
     }
     
     @Transactional(readOnly = true)
+    public List<TransactionHistoryRow> getAllTransactions() {
+        return transactionRepository.findAllHistory();
+    }
+    
     public BigDecimal getAccountBalance(String accountNumber) {
+        ShardedLedger ledger = shardedLedger.getIfAvailable();
+        if (ledger != null) {
+            // The database balance lags behind the ledger's write-behind
+            return ledger.balance(accountNumber);
+        }
         Account account = getAccountByNumber(accountNumber);
-        return account.getBalance();
+        return account.getBalance().toBigDecimal();
     }
     
-    @Transactional
     public Account updateAccountStatus(String accountNumber, Account.AccountStatus status) {
-        Account account = getAccountByNumber(accountNumber);
-        account.setStatus(status);
-        return accountRepository.save(account);
+        ShardedLedger ledger = shardedLedger.getIfAvailable();
+        Account account = ledger != null
+                ? ledger.updateStatus(accountNumber, () -> saveAccountStatus(accountNumber, status))
+                : saveAccountStatus(accountNumber, status);
+        accountEventStream.publishStatus(account);
+        return account;
+    }
+    
+    private Account saveAccountStatus(String accountNumber, Account.AccountStatus status) {
+        Account saved = transactionTemplate.execute(tx -> {
+            Account account = accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+            account.setStatus(status);
+            return accountRepository.save(account);
+        });
+        accountCache.put(saved);
+        return saved;
     }
 }
@@ -0,0 +1,147 @@
+package com.example.demo.service;
+
+import com.example.demo.config.IdempotencyProperties;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.IdempotencyKeyReusedException;
+import com.example.demo.exception.TransactionOutcomeUnknownException;
+import com.example.demo.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs each transaction at most once per {@code Idempotency-Key}. The first request for a key
+ * registers an in-flight execution in a bounded concurrent index; concurrent duplicates wait for
+ * that execution and later ones are answered from it, without touching the database. Keys that
+ * have left the index are looked up by the unique {@code idempotency_key} column instead.
+ *
+ * <p>Only completed transactions are remembered. A failed execution is removed from the index so
+ * the client can retry it with the same key. An execution of unknown outcome stays in the index,
+ * and retries get the same unknown outcome, until the engine decides it: a completed transaction
+ * then answers retries, a rejected one is removed. Its row may not be stored yet, so running it
+ * again on a retry could apply it twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyIndex {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final TransactionRepository transactionRepository;
+    private final IdempotencyProperties properties;
+
+    private Cache<String, CompletableFuture<Transaction>> executions;
+
+    @PostConstruct
+    void init() {
+        executions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getRetention())
+                .build();
+    }
+
+    public Transaction execute(String idempotencyKey, TransactionRequest request, Supplier<Transaction> execution) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        CompletableFuture<Transaction> registered = new CompletableFuture<>();
+        CompletableFuture<Transaction> existing = executions.asMap().putIfAbsent(idempotencyKey, registered);
+        if (existing != null) {
+            log.info("Replaying transaction for idempotency key: {}", idempotencyKey);
+            return requireSameRequest(idempotencyKey, await(existing), request);
+        }
+
+        try {
+            Transaction transaction = findStored(idempotencyKey)
+                    .map(stored -> requireSameRequest(idempotencyKey, stored, request))
+                    .orElseGet(() -> executeOnce(idempotencyKey, request, execution));
+            registered.complete(transaction);
+            return transaction;
+        } catch (TransactionOutcomeUnknownException e) {
+            registered.completeExceptionally(e);
+            if (e.getOutcome() != null) {
+                e.getOutcome().whenComplete((transaction, failure) -> resolve(idempotencyKey, registered, transaction, failure));
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            executions.asMap().remove(idempotencyKey, registered);
+            registered.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Transaction executeOnce(String idempotencyKey, TransactionRequest request, Supplier<Transaction> execution) {
+        try {
+            return execution.get();
+        } catch (DataIntegrityViolationException e) {
+            // Another instance, or a request whose key had been evicted, stored the key first
+            return findStored(idempotencyKey)
+                    .map(stored -> requireSameRequest(idempotencyKey, stored, request))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Replaces the unknown outcome of an execution once the engine has decided it.
+     */
+    private void resolve(String idempotencyKey, CompletableFuture<Transaction> registered,
+                         Transaction transaction, Throwable failure) {
+        if (failure == null) {
+            executions.asMap().replace(idempotencyKey, registered, CompletableFuture.completedFuture(transaction));
+        } else if (!(unwrap(failure) instanceof TransactionOutcomeUnknownException)) {
+            executions.asMap().remove(idempotencyKey, registered);
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private Optional<Transaction> findStored(String idempotencyKey) {
+        return transactionRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    private static Transaction await(CompletableFuture<Transaction> execution) {
+        try {
+            return execution.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static Transaction requireSameRequest(String idempotencyKey, Transaction transaction, TransactionRequest request) {
+        boolean same = transaction.getType().name().equals(request.getType().name())
+                && transaction.getAmount().minorUnits() == Money.toMinorUnits(request.getAmount())
+                && (request.getType() == TransactionType.DEPOSIT
+                    || Objects.equals(accountNumber(transaction.getFromAccount()), request.getFromAccountNumber()))
+                && (request.getType() == TransactionType.WITHDRAWAL
+                    || Objects.equals(accountNumber(transaction.getToAccount()), request.getToAccountNumber()));
+        if (!same) {
+            throw new IdempotencyKeyReusedException("Idempotency key was already used for a different transaction: " + idempotencyKey);
+        }
+        return transaction;
+    }
+
+    private static String accountNumber(Account account) {
+        return account != null ? account.getAccountNumber() : null;
+    }
+}
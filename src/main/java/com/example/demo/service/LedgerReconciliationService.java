@@ -0,0 +1,319 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReconciliationProperties;
+import com.example.demo.dto.LedgerLeg;
+import com.example.demo.dto.LedgerMismatch;
+import com.example.demo.dto.ReconciliationProgress;
+import com.example.demo.dto.ReconciliationReport;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Proves that every {@code Account.balance} equals its opening balance plus all of its completed
+ * transaction legs. Accounts are split into id ranges that a fork/join pool reconciles in
+ * parallel; each range streams its outgoing and incoming legs through the per-account indexes and
+ * sums them in minor units, inside its own short read-only transaction, so no locks are held and
+ * the live system keeps running.
+ *
+ * <p>A range reads legs and balances in separate statements, so a transaction committed in between
+ * can look like a mismatch. Mismatched accounts are reconciled again on their own before they are
+ * reported, together with the references of the transactions that most likely explain them.
+ */
+@Service
+@Slf4j
+public class LedgerReconciliationService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ReconciliationProperties properties;
+    private final TransactionTemplate readOnly;
+    private final ExecutorService runner;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger rangesDone = new AtomicInteger();
+    private final AtomicInteger rangesTotal = new AtomicInteger();
+    private final AtomicLong accountsChecked = new AtomicLong();
+    private final AtomicLong legsScanned = new AtomicLong();
+    private final AtomicInteger lastMismatches = new AtomicInteger();
+    private volatile long startedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile ReconciliationReport lastReport;
+
+    private final Timer duration;
+    private final Counter accountsCounter;
+    private final Counter legsCounter;
+
+    public LedgerReconciliationService(AccountRepository accountRepository,
+                                       TransactionRepository transactionRepository,
+                                       ReconciliationProperties properties,
+                                       TransactionTemplate transactionTemplate,
+                                       MeterRegistry registry) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.duration = Timer.builder("banking.reconciliation.duration")
+                .description("Duration of full ledger reconciliation runs")
+                .register(registry);
+        this.accountsCounter = Counter.builder("banking.reconciliation.accounts")
+                .description("Accounts reconciled; its rate is the reconciliation throughput")
+                .register(registry);
+        this.legsCounter = Counter.builder("banking.reconciliation.legs")
+                .description("Transaction legs scanned by reconciliation")
+                .register(registry);
+        Gauge.builder("banking.reconciliation.progress", this, LedgerReconciliationService::progressRatio)
+                .description("Share of account ranges reconciled in the current or last run")
+                .register(registry);
+        Gauge.builder("banking.reconciliation.mismatches", lastMismatches, AtomicInteger::get)
+                .description("Mismatched accounts found by the last run")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void stop() {
+        runner.shutdownNow();
+    }
+
+    @Scheduled(cron = "${banking.reconciliation.cron:0 30 2 * * *}")
+    public void scheduledReconciliation() {
+        if (running.get()) {
+            log.warn("Skipping scheduled ledger reconciliation, a run is still in progress");
+            return;
+        }
+        reconcile();
+    }
+
+    /**
+     * Starts a reconciliation in the background and returns its initial progress.
+     *
+     * @throws IllegalStateException if a run is already in progress
+     */
+    public ReconciliationProgress start() {
+        if (running.get()) {
+            throw new IllegalStateException("Ledger reconciliation is already running");
+        }
+        runner.execute(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.error("Ledger reconciliation failed", e);
+            }
+        });
+        return progress();
+    }
+
+    public ReconciliationProgress progress() {
+        return new ReconciliationProgress(running.get(), startedAt, rangesDone.get(), rangesTotal.get(),
+                accountsChecked.get(), legsScanned.get(), legsPerSecond(), lastReport);
+    }
+
+    /**
+     * Runs a full reconciliation on the calling thread.
+     *
+     * @throws IllegalStateException if a run is already in progress
+     */
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ledger reconciliation is already running");
+        }
+        try {
+            return duration.record(this::run);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationReport run() {
+        startedNanos = System.nanoTime();
+        startedAt = LocalDateTime.now();
+        rangesDone.set(0);
+        accountsChecked.set(0);
+        legsScanned.set(0);
+
+        List<long[]> ranges = new ArrayList<>();
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        if (minId != null) {
+            long rangeSize = Math.max(1, properties.getRangeSize());
+            for (long from = minId; from <= maxId; from += rangeSize) {
+                ranges.add(new long[]{from, Math.min(from + rangeSize, maxId + 1)});
+            }
+        }
+        rangesTotal.set(ranges.size());
+        log.info("Reconciling accounts {} to {} in {} ranges", minId, maxId, ranges.size());
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        List<Mismatch> candidates;
+        try {
+            candidates = pool.submit(() -> ranges.parallelStream()
+                            .flatMap(range -> {
+                                RangeResult result = reconcileRange(range[0], range[1]);
+                                legsScanned.addAndGet(result.legs());
+                                legsCounter.increment(result.legs());
+                                accountsChecked.addAndGet(result.accounts());
+                                accountsCounter.increment(result.accounts());
+                                rangesDone.incrementAndGet();
+                                return result.mismatches().stream();
+                            })
+                            .toList())
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
+
+        List<LedgerMismatch> mismatches = new ArrayList<>();
+        for (Mismatch candidate : candidates) {
+            Mismatch confirmed = recheck(candidate);
+            if (confirmed != null) {
+                mismatches.add(describe(confirmed));
+            }
+        }
+        lastMismatches.set(mismatches.size());
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        ReconciliationReport report = new ReconciliationReport(startedAt, elapsedMillis, ranges.size(),
+                accountsChecked.get(), legsScanned.get(), legsPerSecond(), mismatches);
+        lastReport = report;
+        if (mismatches.isEmpty()) {
+            log.info("Ledger reconciled: {} accounts, {} legs in {} ms", report.getAccountsChecked(),
+                    report.getLegsScanned(), elapsedMillis);
+        } else {
+            log.error("Ledger reconciliation found {} mismatched accounts: {}", mismatches.size(), mismatches);
+        }
+        return report;
+    }
+
+    /**
+     * Reconciles the accounts with an id in {@code [fromId, toId)} and returns the mismatched ones.
+     */
+    private RangeResult reconcileRange(long fromId, long toId) {
+        return readOnly.execute(status -> {
+            // Net movement per account in minor units
+            Map<Long, long[]> net = new HashMap<>();
+            long legs = 0;
+            try (Stream<LedgerLeg> outgoing = transactionRepository.streamOutgoingLegs(fromId, toId)) {
+                for (LedgerLeg leg : (Iterable<LedgerLeg>) outgoing::iterator) {
+                    long[] sum = net.computeIfAbsent(leg.getFromAccountId(), id -> new long[1]);
+                    sum[0] = Money.subtractExact(sum[0], leg.getAmount().minorUnits());
+                    legs++;
+                }
+            }
+            try (Stream<LedgerLeg> incoming = transactionRepository.streamIncomingLegs(fromId, toId)) {
+                for (LedgerLeg leg : (Iterable<LedgerLeg>) incoming::iterator) {
+                    long[] sum = net.computeIfAbsent(leg.getToAccountId(), id -> new long[1]);
+                    sum[0] = Money.addExact(sum[0], leg.getAmount().minorUnits());
+                    legs++;
+                }
+            }
+
+            List<Account> accounts = accountRepository.findByIdRange(fromId, toId);
+            List<Mismatch> found = new ArrayList<>();
+            for (Account account : accounts) {
+                long[] sum = net.get(account.getId());
+                Money expected = account.getOpeningBalance().plus(Money.ofMinor(sum != null ? sum[0] : 0));
+                if (!expected.equals(account.getBalance())) {
+                    found.add(new Mismatch(account.getId(), account.getAccountNumber(), expected, account.getBalance()));
+                }
+            }
+            return new RangeResult(accounts.size(), legs, found);
+        });
+    }
+
+    private Mismatch recheck(Mismatch candidate) {
+        Mismatch current = candidate;
+        for (int attempt = 0; attempt < properties.getRecheckAttempts() && current != null; attempt++) {
+            List<Mismatch> again = reconcileRange(candidate.accountId(), candidate.accountId() + 1).mismatches();
+            current = again.isEmpty() ? null : again.get(0);
+        }
+        return current;
+    }
+
+    /**
+     * Finds the transactions most likely behind a mismatch: legs whose amount equals the difference,
+     * or failing that the account's most recent legs.
+     */
+    private LedgerMismatch describe(Mismatch mismatch) {
+        Money difference = mismatch.actual().minus(mismatch.expected());
+        long target = Math.abs(difference.minorUnits());
+        int limit = Math.max(1, properties.getMaxReportedReferences());
+        List<String> matching = new ArrayList<>();
+        PriorityQueue<LedgerLeg> recent = new PriorityQueue<>(Comparator.comparing(LedgerLeg::getProcessedAt,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<LedgerLeg> legs = Stream.concat(
+                    transactionRepository.streamOutgoingLegs(mismatch.accountId(), mismatch.accountId() + 1),
+                    transactionRepository.streamIncomingLegs(mismatch.accountId(), mismatch.accountId() + 1))) {
+                legs.forEach(leg -> {
+                    if (leg.getAmount().minorUnits() == target && matching.size() < limit) {
+                        matching.add(leg.getTransactionReference());
+                    }
+                    recent.add(leg);
+                    if (recent.size() > limit) {
+                        recent.poll();
+                    }
+                });
+            }
+        });
+
+        List<String> references = matching;
+        if (references.isEmpty()) {
+            List<LedgerLeg> latest = new ArrayList<>(recent);
+            latest.sort(recent.comparator().reversed());
+            references = latest.stream().map(LedgerLeg::getTransactionReference).toList();
+        }
+        return new LedgerMismatch(mismatch.accountNumber(), mismatch.expected(), mismatch.actual(), difference, references);
+    }
+
+    private double progressRatio() {
+        int total = rangesTotal.get();
+        return total == 0 ? 0 : (double) rangesDone.get() / total;
+    }
+
+    private long legsPerSecond() {
+        long elapsedNanos = System.nanoTime() - startedNanos;
+        return startedAt == null || elapsedNanos <= 0 ? 0 : legsScanned.get() * 1_000_000_000L / elapsedNanos;
+    }
+
+    private record RangeResult(int accounts, long legs, List<Mismatch> mismatches) {
+    }
+
+    private record Mismatch(long accountId, String accountNumber, Money expected, Money actual) {
+    }
+}
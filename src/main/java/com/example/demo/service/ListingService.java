@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.config.SearchProperties;
+import com.example.demo.dto.AccountFilter;
+import com.example.demo.dto.AccountPage;
+import com.example.demo.dto.AccountSearchPage;
+import com.example.demo.dto.TransactionFilter;
+import com.example.demo.dto.TransactionHistoryPage;
+import com.example.demo.dto.TransactionHistoryRow;
+import com.example.demo.entity.Account;
+import com.example.demo.mapper.AccountMapper;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Paginated and streamed replacements for listing all accounts or all transactions. Filters are
+ * pushed down to SQL, pages use the same {@code (createdAt, id)} keyset as account history, and
+ * streams write a JSON array row by row from a forward-only result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ListingService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final PaginationProperties paginationProperties;
+    private final AccountSearchIndex accountSearchIndex;
+    private final SearchProperties searchProperties;
+    private final ObjectMapper objectMapper;
+    private final AccountMapper accountMapper;
+
+    @Transactional(readOnly = true)
+    public AccountPage getAccountsPage(AccountFilter filter, String cursor, Integer pageSize) {
+        int limit = paginationProperties.resolvePageSize(pageSize);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        List<Account> rows = accountRepository.findListingPage(filter, position.createdAt(), position.id(), limit + 1);
+        if (rows.size() <= limit) {
+            return new AccountPage(accountMapper.toResponses(rows), null);
+        }
+        List<Account> page = rows.subList(0, limit);
+        Account last = page.get(limit - 1);
+        return new AccountPage(accountMapper.toResponses(page), new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Ranked search over account number, customer name and email, served from the
+     * {@link AccountSearchIndex} without touching the database. Pages are zero-based and end at
+     * {@code banking.search.max-results}.
+     */
+    public AccountSearchPage searchAccounts(String query, Integer page, Integer pageSize) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int size = paginationProperties.resolvePageSize(pageSize);
+        int number = page != null ? page : 0;
+        if (number < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        long offset = (long) number * size;
+        int limit = (int) Math.max(0, Math.min(size, searchProperties.getMaxResults() - offset));
+        AccountSearchIndex.Ranking ranking = accountSearchIndex.search(query.strip(), (int) Math.min(offset, Integer.MAX_VALUE), limit);
+        return new AccountSearchPage(ranking.hits(), number, size, ranking.total());
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getTransactionsPage(TransactionFilter filter, String cursor, Integer pageSize) {
+        filter.requireValidRange();
+        int limit = paginationProperties.resolvePageSize(pageSize);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        List<TransactionHistoryRow> rows = transactionRepository.findListingPage(
+                filter, position.createdAt(), position.id(), limit + 1);
+        if (rows.size() <= limit) {
+            return new TransactionHistoryPage(rows, null);
+        }
+        List<TransactionHistoryRow> page = new ArrayList<>(rows.subList(0, limit));
+        TransactionHistoryRow last = page.get(limit - 1);
+        return new TransactionHistoryPage(page, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAccounts(AccountFilter filter, OutputStream out) throws IOException {
+        try (Stream<Account> rows = accountRepository.streamListing(filter, paginationProperties.getExportFetchSize())) {
+            long count = writeJsonArray(rows.map(accountMapper::toResponse), out);
+            log.info("Streamed {} accounts", count);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamTransactions(TransactionFilter filter, OutputStream out) throws IOException {
+        filter.requireValidRange();
+        try (Stream<TransactionHistoryRow> rows = transactionRepository.streamListing(filter, paginationProperties.getExportFetchSize())) {
+            long count = writeJsonArray(rows, out);
+            log.info("Streamed {} transactions", count);
+        }
+    }
+
+    private long writeJsonArray(Stream<?> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                if (++count % paginationProperties.getExportFlushRows() == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sum of the values added within a sliding time window, kept in a ring of fixed-width time buckets.
+ * Each bucket is an immutable (slot, value) pair replaced with a compare-and-set, so adding and
+ * summing take no lock. A bucket whose slot has left the window counts as empty and is reset by the
+ * next add that lands on it. The window is accurate to one bucket width.
+ */
+final class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    SlidingWindowCounter(Duration window, int bucketCount) {
+        this.bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * Adds the value at the given time unless that would take the sum of the window ending then
+     * above the limit. Returns the slot the value went into, for {@link #remove}, or -1 when it was
+     * rejected. Concurrent adds may reject each other but never exceed the limit together.
+     */
+    long tryAdd(long nowMillis, long value, long limit) {
+        long slot = nowMillis / bucketMillis;
+        long added = addToSlot(slot, value);
+        if (sumAt(slot) > limit) {
+            remove(added, value);
+            return -1;
+        }
+        return added;
+    }
+
+    /**
+     * Adds the value at the given time regardless of any limit and returns its slot.
+     */
+    long add(long nowMillis, long value) {
+        return addToSlot(nowMillis / bucketMillis, value);
+    }
+
+    /**
+     * Takes back a value added to the slot, unless the slot has left the window since.
+     */
+    void remove(long slot, long value) {
+        buckets.updateAndGet(index(slot), bucket ->
+                bucket != null && bucket.slot() == slot ? new Bucket(slot, bucket.value() - value) : bucket);
+    }
+
+    long sum(long nowMillis) {
+        return sumAt(nowMillis / bucketMillis);
+    }
+
+    private long addToSlot(long slot, long value) {
+        // Another thread that read the clock after this one may already have moved the bucket on to a
+        // newer slot; the value then joins that slot and stays counted slightly longer than its own
+        // time would dictate, which errs on the side of the limit
+        Bucket updated = buckets.updateAndGet(index(slot), bucket -> bucket == null || bucket.slot() < slot
+                ? new Bucket(slot, value)
+                : new Bucket(bucket.slot(), bucket.value() + value));
+        return updated.slot();
+    }
+
+    private long sumAt(long slot) {
+        long oldest = slot - buckets.length() + 1;
+        long sum = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.slot() >= oldest) {
+                sum += bucket.value();
+            }
+        }
+        return sum;
+    }
+
+    private int index(long slot) {
+        return (int) Math.floorMod(slot, (long) buckets.length());
+    }
+
+    private record Bucket(long slot, long value) {
+    }
+}
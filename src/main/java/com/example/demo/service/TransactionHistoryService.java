@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.dto.TransactionHistoryPage;
+import com.example.demo.dto.TransactionHistoryRow;
+import com.example.demo.entity.Account;
+import com.example.demo.exception.AccountNotFoundException;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bounded-memory access to an account's transaction history: keyset-paginated pages on
+ * {@code (createdAt, id)} and a streamed NDJSON export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionHistoryService {
+
+    private static final Comparator<TransactionHistoryRow> NEWEST_FIRST = Comparator
+            .comparing(TransactionHistoryRow::getCreatedAt)
+            .thenComparing(TransactionHistoryRow::getId)
+            .reversed();
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final PaginationProperties paginationProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Returns the page of the account's history that follows {@code cursor}, newest first. The
+     * outgoing and incoming sides are read separately so each uses its own composite index, and
+     * the two sorted runs are merged.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getAccountTransactionsPage(String accountNumber, String cursor, Integer pageSize) {
+        int limit = paginationProperties.resolvePageSize(pageSize);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Account account = getAccount(accountNumber);
+
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<TransactionHistoryRow> outgoing = transactionRepository.findOutgoingHistory(
+                account.getId(), position.createdAt(), position.id(), window);
+        List<TransactionHistoryRow> incoming = transactionRepository.findIncomingHistory(
+                account.getId(), position.createdAt(), position.id(), window);
+
+        List<TransactionHistoryRow> rows = merge(outgoing, incoming, limit + 1);
+        if (rows.size() <= limit) {
+            return new TransactionHistoryPage(rows, null);
+        }
+        List<TransactionHistoryRow> page = new ArrayList<>(rows.subList(0, limit));
+        TransactionHistoryRow last = page.get(limit - 1);
+        return new TransactionHistoryPage(page, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Writes the account's full history as newline-delimited JSON, newest first. Rows are read from
+     * a forward-only result and written one at a time, so memory use does not depend on history length.
+     */
+    @Transactional(readOnly = true)
+    public void exportAccountTransactions(String accountNumber, OutputStream out) throws IOException {
+        Account account = getAccount(accountNumber);
+        long rows = 0;
+        try (Stream<TransactionHistoryRow> history = transactionRepository.streamHistory(account.getId(),
+                paginationProperties.getExportFetchSize());
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            Iterator<TransactionHistoryRow> iterator = history.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++rows % paginationProperties.getExportFlushRows() == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        log.info("Exported {} transactions for account {}", rows, accountNumber);
+    }
+
+    private Account getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+    }
+
+    private static List<TransactionHistoryRow> merge(List<TransactionHistoryRow> left,
+                                                     List<TransactionHistoryRow> right,
+                                                     int limit) {
+        List<TransactionHistoryRow> merged = new ArrayList<>(limit);
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < left.size() || j < right.size())) {
+            TransactionHistoryRow next;
+            if (j >= right.size() || (i < left.size() && NEWEST_FIRST.compare(left.get(i), right.get(j)) <= 0)) {
+                next = left.get(i++);
+            } else {
+                next = right.get(j++);
+            }
+            // A transaction between an account and itself appears on both sides
+            if (merged.isEmpty() || !merged.get(merged.size() - 1).getId().equals(next.getId())) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+}
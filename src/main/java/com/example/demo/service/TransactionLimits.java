@@ -0,0 +1,207 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TransactionLimitProperties;
+import com.example.demo.dto.LedgerLeg;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.TransactionLimitExceededException;
+import com.example.demo.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Enforces the per-account-type limits of {@code banking.limits}: the amount withdrawn from an
+ * account within any 24 hours and the number of transfers out of it within any minute. Each
+ * account's usage is held in memory in {@link SlidingWindowCounter}s, so a check costs no database
+ * query. A passing check reserves its share of the window; if the database transaction it ran in
+ * rolls back, the share is released again.
+ *
+ * <p>The counters are rebuilt from the last 24 hours of completed transactions once every bean is
+ * initialized, which in sharded mode is after the journal has been replayed and before any request
+ * is accepted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionLimits implements SmartInitializingSingleton {
+
+    static final Duration DAY = Duration.ofDays(1);
+    static final Duration MINUTE = Duration.ofMinutes(1);
+    // 15-minute and 1-second buckets
+    private static final int DAY_BUCKETS = 96;
+    private static final int MINUTE_BUCKETS = 60;
+
+    private final TransactionLimitProperties properties;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Account.AccountType, Limit> limits = new EnumMap<>(Account.AccountType.class);
+    private final Map<Long, Windows> windows = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        properties.getAccountTypes().forEach((accountType, configured) -> limits.put(accountType, new Limit(
+                configured.getDailyWithdrawal() != null ? Money.toMinorUnits(configured.getDailyWithdrawal()) : -1,
+                configured.getTransfersPerMinute() != null ? configured.getTransfersPerMinute() : -1)));
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!limits.isEmpty()) {
+            rehydrate();
+        }
+    }
+
+    /**
+     * Checks a transaction of the given type and amount (in minor units) leaving the account against
+     * the limits of its account type and reserves its share of them.
+     *
+     * @throws TransactionLimitExceededException if the transaction would exceed a limit
+     */
+    public Reservation check(Account account, Transaction.TransactionType type, long amount) {
+        Limit limit = limits.get(account.getAccountType());
+        if (limit == null) {
+            return Reservation.NONE;
+        }
+        Reservation reservation = switch (type) {
+            case WITHDRAWAL -> {
+                if (limit.dailyWithdrawal() < 0) {
+                    yield Reservation.NONE;
+                }
+                Reservation reserved = reserve(windows(account.getId()).withdrawals, amount, limit.dailyWithdrawal());
+                if (reserved == null) {
+                    throw new TransactionLimitExceededException("Daily withdrawal limit of "
+                            + Money.ofMinor(limit.dailyWithdrawal()) + " exceeded for account: " + account.getAccountNumber());
+                }
+                yield reserved;
+            }
+            case TRANSFER -> {
+                if (limit.transfersPerMinute() < 0) {
+                    yield Reservation.NONE;
+                }
+                Reservation reserved = reserve(windows(account.getId()).transfers, 1, limit.transfersPerMinute());
+                if (reserved == null) {
+                    throw new TransactionLimitExceededException("Limit of " + limit.transfersPerMinute()
+                            + " transfers per minute exceeded for account: " + account.getAccountNumber());
+                }
+                yield reserved;
+            }
+            default -> Reservation.NONE;
+        };
+        if (reservation != Reservation.NONE && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reservation.release();
+                    }
+                }
+            });
+        }
+        return reservation;
+    }
+
+    /**
+     * Replaces the counters with the usage recorded in the transactions table. Meant for startup:
+     * transactions completing meanwhile may be counted twice or not at all.
+     */
+    void rehydrate() {
+        long start = System.nanoTime();
+        windows.clear();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime transfersSince = now.minus(MINUTE);
+        long legs = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<LedgerLeg> recent = transactionRepository.streamRecentLegs(
+                    List.of(Transaction.TransactionType.WITHDRAWAL, Transaction.TransactionType.TRANSFER), now.minus(DAY))) {
+                for (LedgerLeg leg : (Iterable<LedgerLeg>) recent::iterator) {
+                    boolean transfer = leg.getType() == Transaction.TransactionType.TRANSFER;
+                    if (leg.getFromAccountId() == null || (transfer && leg.getProcessedAt().isBefore(transfersSince))) {
+                        continue;
+                    }
+                    long processedAt = leg.getProcessedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    Windows account = windows(leg.getFromAccountId());
+                    if (transfer) {
+                        account.transfers.add(processedAt, 1);
+                    } else {
+                        account.withdrawals.add(processedAt, leg.getAmount().minorUnits());
+                    }
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Transaction limit counters rebuilt for {} accounts from {} transactions in {} ms",
+                windows.size(), legs, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns {@code null} if the value does not fit within the limit.
+     */
+    private static Reservation reserve(SlidingWindowCounter counter, long value, long limit) {
+        long slot = counter.tryAdd(System.currentTimeMillis(), value, limit);
+        return slot >= 0 ? new Reservation(counter, slot, value) : null;
+    }
+
+    private Windows windows(Long accountId) {
+        Windows existing = windows.get(accountId);
+        return existing != null ? existing : windows.computeIfAbsent(accountId, id -> new Windows());
+    }
+
+    /**
+     * Share of a limit taken by a passing check.
+     */
+    public static final class Reservation {
+
+        static final Reservation NONE = new Reservation(null, 0, 0);
+
+        private final SlidingWindowCounter counter;
+        private final long slot;
+        private final long value;
+
+        private Reservation(SlidingWindowCounter counter, long slot, long value) {
+            this.counter = counter;
+            this.slot = slot;
+            this.value = value;
+        }
+
+        /**
+         * Gives the share back, for transactions that were rejected or rolled back after the check.
+         */
+        public void release() {
+            if (counter != null) {
+                counter.remove(slot, value);
+            }
+        }
+    }
+
+    /**
+     * Limits of an account type in minor units and transfers; -1 is unlimited.
+     */
+    private record Limit(long dailyWithdrawal, long transfersPerMinute) {
+    }
+
+    private static final class Windows {
+        private final SlidingWindowCounter withdrawals = new SlidingWindowCounter(DAY, DAY_BUCKETS);
+        private final SlidingWindowCounter transfers = new SlidingWindowCounter(MINUTE, MINUTE_BUCKETS);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionType;
+import com.example.demo.exception.AccountInactiveException;
+import com.example.demo.exception.AccountNotFoundException;
+import com.example.demo.exception.ConcurrentTransactionException;
+import com.example.demo.exception.InsufficientBalanceException;
+import com.example.demo.exception.TransactionLimitExceededException;
+import com.example.demo.exception.TransactionOutcomeUnknownException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters for {@link BankingService#processTransaction}. Every timer and counter is registered once
+ * up front and looked up by enum, so recording allocates no tags and can stay on at full load.
+ */
+@Component
+public class TransactionMetrics {
+
+    static final String TRANSACTIONS = "banking.transactions";
+    static final String FAILURES = "banking.transactions.failures";
+    static final String IN_FLIGHT = "banking.transactions.in.flight";
+    static final String RETRIES = "banking.transactions.retries";
+
+    public enum Failure {
+        INSUFFICIENT_BALANCE, INACTIVE_ACCOUNT, OPTIMISTIC_LOCK, ACCOUNT_NOT_FOUND, LIMIT_EXCEEDED, OUTCOME_UNKNOWN, OTHER
+    }
+
+    private final Map<TransactionType, Timer> succeeded = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Timer> failed = new EnumMap<>(TransactionType.class);
+    private final Map<Failure, Counter> failures = new EnumMap<>(Failure.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter retries;
+
+    public TransactionMetrics(MeterRegistry registry) {
+        for (TransactionType type : TransactionType.values()) {
+            succeeded.put(type, timer(registry, type, "success"));
+            failed.put(type, timer(registry, type, "failure"));
+        }
+        for (Failure failure : Failure.values()) {
+            failures.put(failure, Counter.builder(FAILURES)
+                    .description("Transactions rejected or aborted, by reason")
+                    .tag("reason", failure.name().toLowerCase())
+                    .register(registry));
+        }
+        Gauge.builder(IN_FLIGHT, inFlight, AtomicInteger::get)
+                .description("Transactions currently being processed")
+                .register(registry);
+        retries = Counter.builder(RETRIES)
+                .description("Optimistic lock conflicts retried on the server")
+                .register(registry);
+    }
+
+    /**
+     * Marks a transaction as started and returns the start time to pass to {@link #succeeded} or
+     * {@link #failed}.
+     */
+    public long start() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void succeeded(TransactionType type, long startNanos) {
+        inFlight.decrementAndGet();
+        succeeded.get(type).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void failed(TransactionType type, long startNanos, Throwable cause) {
+        inFlight.decrementAndGet();
+        failed.get(type).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        failures.get(classify(cause)).increment();
+    }
+
+    public void retried() {
+        retries.increment();
+    }
+
+    static Failure classify(Throwable cause) {
+        if (cause instanceof InsufficientBalanceException) {
+            return Failure.INSUFFICIENT_BALANCE;
+        }
+        if (cause instanceof AccountInactiveException) {
+            return Failure.INACTIVE_ACCOUNT;
+        }
+        if (cause instanceof ConcurrentTransactionException) {
+            return Failure.OPTIMISTIC_LOCK;
+        }
+        if (cause instanceof AccountNotFoundException) {
+            return Failure.ACCOUNT_NOT_FOUND;
+        }
+        if (cause instanceof TransactionLimitExceededException) {
+            return Failure.LIMIT_EXCEEDED;
+        }
+        if (cause instanceof TransactionOutcomeUnknownException) {
+            return Failure.OUTCOME_UNKNOWN;
+        }
+        return Failure.OTHER;
+    }
+
+    private static Timer timer(MeterRegistry registry, TransactionType type, String outcome) {
+        return Timer.builder(TRANSACTIONS)
+                .description("Latency of processTransaction by transaction type and outcome")
+                .tag("type", type.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.service;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates transaction references as time-ordered version 7 UUIDs: 48 bits of epoch millis, a
+ * 12 bit counter that keeps references from this process strictly increasing, and 62 random bits.
+ * Unlike {@link UUID#randomUUID()} this never touches the shared {@code SecureRandom}, and new
+ * references land at the right-hand edge of the unique index instead of on random pages.
+ *
+ * <p>The random bits come from {@link ThreadLocalRandom}, so references are unique but not
+ * unguessable; they must not be used as authorization tokens.
+ */
+public final class TransactionReferences {
+
+    // Epoch millis << 12 | counter of the last reference handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TransactionReferences() {
+    }
+
+    public static String next() {
+        long now = System.currentTimeMillis() << 12;
+        // When the counter of a millisecond runs out it carries into the next one, so order is kept
+        long state = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSignificant = (state >>> 12) << 16 | 0x7000L | (state & 0xFFFL);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant).toString();
+    }
+}
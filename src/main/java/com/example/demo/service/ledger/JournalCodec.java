@@ -0,0 +1,154 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of a journal record. All values are big-endian:
+ *
+ * <pre>
+ * int    payload length (0 marks the end of the written part of a segment)
+ * int    CRC32 of the payload
+ * payload:
+ *   long   sequence
+ *   byte   transaction type ordinal
+ *   byte   amount scale
+ *   long   amount unscaled value
+ *   long   from account id (-1 if none)
+ *   long   to account id (-1 if none)
+ *   long   created at, epoch seconds (UTC)
+ *   int    created at, nanos
+ *   long   processed at, epoch seconds (UTC)
+ *   int    processed at, nanos
+ *   short  reference length, followed by UTF-8 bytes
+ *   short  description length (-1 if null), followed by UTF-8 bytes
+ *   short  idempotency key length (-1 if null), followed by UTF-8 bytes; absent in older records
+ * </pre>
+ */
+final class JournalCodec {
+
+    static final int HEADER_SIZE = 8;
+
+    private static final int FIXED_PAYLOAD_SIZE = 8 + 1 + 1 + 8 + 8 + 8 + 12 + 12 + 2 + 2;
+    private static final int IDEMPOTENCY_KEY_SIZE = 2;
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Encodes a posting, including the record header, with the given sequence.
+     */
+    static byte[] encode(LedgerPosting posting, long sequence) {
+        byte[] reference = posting.transactionReference().getBytes(StandardCharsets.UTF_8);
+        byte[] description = posting.description() != null
+                ? posting.description().getBytes(StandardCharsets.UTF_8)
+                : null;
+        byte[] idempotencyKey = posting.idempotencyKey() != null
+                ? posting.idempotencyKey().getBytes(StandardCharsets.UTF_8)
+                : null;
+        int payloadSize = FIXED_PAYLOAD_SIZE + reference.length + (description != null ? description.length : 0)
+                + IDEMPOTENCY_KEY_SIZE + (idempotencyKey != null ? idempotencyKey.length : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+        buffer.putInt(payloadSize);
+        buffer.putInt(0); // CRC, filled in below
+        buffer.putLong(sequence);
+        buffer.put((byte) posting.type().ordinal());
+        buffer.put((byte) Money.SCALE);
+        buffer.putLong(posting.amount().minorUnits());
+        buffer.putLong(posting.fromAccountId() != null ? posting.fromAccountId() : -1L);
+        buffer.putLong(posting.toAccountId() != null ? posting.toAccountId() : -1L);
+        putTimestamp(buffer, posting.createdAt());
+        putTimestamp(buffer, posting.processedAt());
+        buffer.putShort((short) reference.length);
+        buffer.put(reference);
+        if (description != null) {
+            buffer.putShort((short) description.length);
+            buffer.put(description);
+        } else {
+            buffer.putShort((short) -1);
+        }
+        if (idempotencyKey != null) {
+            buffer.putShort((short) idempotencyKey.length);
+            buffer.put(idempotencyKey);
+        } else {
+            buffer.putShort((short) -1);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, payloadSize);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the record at the buffer's position and advances past it. Returns {@code null} and
+     * leaves the position unchanged if no complete, intact record starts there.
+     */
+    static LedgerPosting decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int payloadSize = buffer.getInt(start);
+        if (payloadSize < FIXED_PAYLOAD_SIZE || payloadSize > buffer.remaining() - HEADER_SIZE) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(start + HEADER_SIZE, payloadSize));
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+            return null;
+        }
+
+        buffer.position(start + HEADER_SIZE);
+        long sequence = buffer.getLong();
+        Transaction.TransactionType type = TYPES[buffer.get()];
+        int scale = buffer.get();
+        long unscaled = buffer.getLong();
+        Money amount = scale == Money.SCALE
+                ? Money.ofMinor(unscaled)
+                : Money.of(BigDecimal.valueOf(unscaled, scale));
+        long fromAccountId = buffer.getLong();
+        long toAccountId = buffer.getLong();
+        LocalDateTime createdAt = getTimestamp(buffer);
+        LocalDateTime processedAt = getTimestamp(buffer);
+        String reference = getString(buffer, buffer.getShort());
+        short descriptionLength = buffer.getShort();
+        String description = descriptionLength >= 0 ? getString(buffer, descriptionLength) : null;
+        String idempotencyKey = null;
+        if (buffer.position() < start + HEADER_SIZE + payloadSize) {
+            short idempotencyKeyLength = buffer.getShort();
+            idempotencyKey = idempotencyKeyLength >= 0 ? getString(buffer, idempotencyKeyLength) : null;
+        }
+
+        return new LedgerPosting(sequence, reference, type, amount,
+                fromAccountId >= 0 ? fromAccountId : null,
+                toAccountId >= 0 ? toAccountId : null,
+                description, idempotencyKey, createdAt, processedAt);
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, LocalDateTime timestamp) {
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp.getNano());
+    }
+
+    private static LocalDateTime getTimestamp(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nanos = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+    }
+
+    private static String getString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.exception.AccountInactiveException;
+import com.example.demo.exception.InsufficientBalanceException;
+
+/**
+ * Live state of an account owned by a {@link LedgerShard}. Only the owning shard thread reads or
+ * writes it, so no synchronization is needed. The balance is kept as primitive minor units, so
+ * validating and applying a leg allocates nothing; a {@link Money} is only created for snapshots.
+ */
+class LedgerAccount {
+
+    private final Account account;
+    private long balance;
+
+    LedgerAccount(Account account) {
+        this.account = account;
+        this.balance = account.getBalance().minorUnits();
+    }
+
+    Long getId() {
+        return account.getId();
+    }
+
+    String getAccountNumber() {
+        return account.getAccountNumber();
+    }
+
+    /**
+     * The live account; only the owning shard thread may use it.
+     */
+    Account account() {
+        return account;
+    }
+
+    Money getBalance() {
+        return Money.ofMinor(balance);
+    }
+
+    void setStatus(Account.AccountStatus status) {
+        account.setStatus(status);
+    }
+
+    void requireActive(String accountLabel) {
+        if (account.getStatus() != Account.AccountStatus.ACTIVE) {
+            throw new AccountInactiveException(accountLabel + " is not active: " + account.getAccountNumber());
+        }
+    }
+
+    void debit(long amount) {
+        if (balance < amount) {
+            throw new InsufficientBalanceException("Insufficient balance in account: " + account.getAccountNumber());
+        }
+        balance = Money.subtractExact(balance, amount);
+    }
+
+    void credit(long amount) {
+        balance = Money.addExact(balance, amount);
+    }
+
+    /**
+     * Takes back a credit that could not be recorded.
+     */
+    void reverseCredit(long amount) {
+        balance = Money.subtractExact(balance, amount);
+    }
+
+    /**
+     * Returns a detached copy that is safe to hand to other threads.
+     */
+    Account snapshot() {
+        Account copy = new Account();
+        copy.setId(account.getId());
+        copy.setVersion(account.getVersion());
+        copy.setAccountNumber(account.getAccountNumber());
+        copy.setCustomerName(account.getCustomerName());
+        copy.setEmail(account.getEmail());
+        copy.setBalance(getBalance());
+        copy.setOpeningBalance(account.getOpeningBalance());
+        copy.setAccountType(account.getAccountType());
+        copy.setStatus(account.getStatus());
+        copy.setCreatedAt(account.getCreatedAt());
+        copy.setUpdatedAt(account.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed ledger transaction waiting to be written to the database. Account balances are
+ * persisted as deltas derived from the posting, so postings can be applied in any order.
+ * The sequence is assigned by the {@link TransactionJournal} and is {@code 0} when journaling is off.
+ */
+public record LedgerPosting(
+        long sequence,
+        String transactionReference,
+        Transaction.TransactionType type,
+        Money amount,
+        Long fromAccountId,
+        Long toAccountId,
+        String description,
+        String idempotencyKey,
+        LocalDateTime createdAt,
+        LocalDateTime processedAt) {
+
+    LedgerPosting withSequence(long sequence) {
+        return new LedgerPosting(sequence, transactionReference, type, amount, fromAccountId, toAccountId,
+                description, idempotencyKey, createdAt, processedAt);
+    }
+}
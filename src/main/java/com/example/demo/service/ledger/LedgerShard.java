@@ -0,0 +1,83 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.entity.Account;
+import com.example.demo.exception.AccountNotFoundException;
+import com.example.demo.repository.AccountRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A single-threaded partition of the ledger. Every account hashes to exactly one shard, and all
+ * reads and writes of its live balance run on that shard's thread, in submission order.
+ */
+class LedgerShard {
+
+    private final int index;
+    private final AccountRepository accountRepository;
+    private final ExecutorService executor;
+
+    // Confined to the shard thread
+    private final Map<String, LedgerAccount> accounts = new HashMap<>();
+
+    LedgerShard(int index, AccountRepository accountRepository) {
+        this.index = index;
+        this.accountRepository = accountRepository;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Runs a task whose result completes later, e.g. once its journal entry is durable.
+     */
+    <T> CompletableFuture<T> submitAsync(Supplier<CompletableFuture<T>> task) {
+        return submit(task).thenCompose(Function.identity());
+    }
+
+    /**
+     * Returns the live state of an account, loading it from the database on first use.
+     * Must be called on the shard thread.
+     */
+    LedgerAccount account(String accountNumber) {
+        LedgerAccount account = accounts.get(accountNumber);
+        if (account == null) {
+            Account entity = accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+            account = new LedgerAccount(entity);
+            accounts.put(accountNumber, account);
+        }
+        return account;
+    }
+
+    /**
+     * Returns the live state of an account only if this shard has already loaded it.
+     * Must be called on the shard thread.
+     */
+    Optional<LedgerAccount> loadedAccount(String accountNumber) {
+        return Optional.ofNullable(accounts.get(accountNumber));
+    }
+
+    void shutdown(Duration timeout) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.config.EngineProperties;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.AccountCache;
+import com.example.demo.service.AccountTotalsService;
+import com.example.demo.service.outbox.TransactionOutbox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Persists ledger postings in batches on a background thread. Each batch loads the touched accounts
+ * in one query, applies the summed balance deltas and inserts the transaction rows in a single
+ * database transaction. Postings whose transaction reference is already stored are skipped, so
+ * retried batches and journal replays are idempotent; a reference stored with any other status by
+ * an asynchronous submission is completed in place, since the ledger applied it. The committed
+ * accounts are published to the {@link AccountCache} so cached reads do not lag behind the database.
+ *
+ * <p>Transient database failures are retried. A posting the database rejects outright is isolated
+ * and parked in the log, so it cannot hold up the postings behind it.
+ */
+@Slf4j
+class LedgerWriteBehind {
+
+    private static final int MAX_ATTEMPTS_ON_SHUTDOWN = 3;
+
+    private final EngineProperties.WriteBehind settings;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountCache accountCache;
+    private final TransactionOutbox transactionOutbox;
+    private final AccountTotalsService accountTotalsService;
+    private final ProcessingWatermark processing;
+    private final LongConsumer persistedThrough;
+    private final BlockingQueue<LedgerPosting> queue;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final Thread writer;
+    // Writer thread only, after replay
+    private SequenceWatermark persisted = new SequenceWatermark(0);
+    private volatile boolean running = true;
+
+    LedgerWriteBehind(EngineProperties.WriteBehind settings,
+                      TransactionTemplate transactionTemplate,
+                      AccountRepository accountRepository,
+                      TransactionRepository transactionRepository,
+                      AccountCache accountCache,
+                      TransactionOutbox transactionOutbox,
+                      AccountTotalsService accountTotalsService,
+                      ProcessingWatermark processing,
+                      LongConsumer persistedThrough) {
+        this.settings = settings;
+        this.transactionTemplate = transactionTemplate;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountCache = accountCache;
+        this.transactionOutbox = transactionOutbox;
+        this.accountTotalsService = accountTotalsService;
+        this.processing = processing;
+        this.persistedThrough = persistedThrough;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.writer = new Thread(this::run, "ledger-write-behind");
+        this.writer.setDaemon(true);
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues a posting, blocking while the queue is full. The balances behind the posting have
+     * already been applied in memory, so an interrupt must not drop it.
+     */
+    void enqueue(LedgerPosting posting) {
+        enqueued.incrementAndGet();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(posting);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long pending() {
+        return enqueued.get() - completed.get();
+    }
+
+    boolean awaitPersisted(Duration timeout) throws InterruptedException {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (completed.get() < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Number of postings that failed for a non-transient reason and were parked in the log.
+     */
+    long parked() {
+        return parked.get();
+    }
+
+    /**
+     * Synchronously persists postings recovered from the journal, before the writer is started.
+     * A transient database failure fails startup.
+     */
+    void replay(List<LedgerPosting> postings) {
+        if (!postings.isEmpty()) {
+            // Segments below the first recovered posting were checkpointed before the restart
+            persisted = new SequenceWatermark(postings.get(0).sequence() - 1);
+        }
+        for (int from = 0; from < postings.size(); from += settings.getBatchSize()) {
+            List<LedgerPosting> batch = postings.subList(from, Math.min(from + settings.getBatchSize(), postings.size()));
+            try {
+                persist(batch);
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                isolate(batch, e);
+            }
+            markPersisted(batch);
+        }
+    }
+
+    void stop(Duration timeout) throws InterruptedException {
+        running = false;
+        writer.join(timeout.toMillis());
+    }
+
+    private void run() {
+        List<LedgerPosting> batch = new ArrayList<>(settings.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                LedgerPosting first = queue.poll(settings.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, settings.getBatchSize() - 1);
+                if (persistWithRetry(batch)) {
+                    markPersisted(batch);
+                }
+                completed.addAndGet(batch.size());
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Keep draining; the loop exits once stop() has been called and the queue is empty
+            }
+        }
+    }
+
+    /**
+     * Advances the watermark through the sequences of a persisted batch and reports it to the
+     * journal. Shards enqueue concurrently and a batch given up on leaves its sequences out, so the
+     * watermark only moves past a sequence once every sequence below it is persisted as well.
+     */
+    private void markPersisted(List<LedgerPosting> batch) {
+        boolean moved = false;
+        for (LedgerPosting posting : batch) {
+            moved |= persisted.mark(posting.sequence());
+            processing.remove(posting);
+        }
+        if (moved) {
+            persistedThrough.accept(persisted.get());
+        }
+    }
+
+    /**
+     * Persists the batch, retrying transient database failures with backoff. Any other failure
+     * would fail every retry as well, so the posting causing it is isolated and parked instead.
+     * Returns {@code false} if the batch was given up on during shutdown.
+     */
+    private boolean persistWithRetry(List<LedgerPosting> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                persist(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    return isolate(batch, e);
+                }
+                if (!running && attempt >= MAX_ATTEMPTS_ON_SHUTDOWN) {
+                    log.error("Giving up on {} ledger postings during shutdown: {}", batch.size(),
+                            batch.stream().map(LedgerPosting::transactionReference).toList(), e);
+                    return false;
+                }
+                log.warn("Write-behind batch of {} postings failed (attempt {}): {}", batch.size(), attempt, e.getMessage());
+                Thread.sleep(Math.min(attempt * 100L, 5_000L));
+            }
+        }
+    }
+
+    /**
+     * Persists the halves of a batch that failed for a non-transient reason separately, in order,
+     * until the failing posting is on its own, and parks that one.
+     */
+    private boolean isolate(List<LedgerPosting> batch, RuntimeException failure) {
+        if (batch.size() == 1) {
+            park(batch.get(0), failure);
+            return true;
+        }
+        int half = batch.size() / 2;
+        try {
+            boolean first = persistWithRetry(batch.subList(0, half));
+            boolean second = persistWithRetry(batch.subList(half, batch.size()));
+            return first && second;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while isolating a failed write-behind batch: {}",
+                    batch.stream().map(LedgerPosting::transactionReference).toList(), failure);
+            return false;
+        }
+    }
+
+    /**
+     * Logs a posting the database will not accept, with everything needed to repair it by hand.
+     * Its legs are applied in memory but not in the database, so reconciliation reports the
+     * accounts until it is repaired; {@code banking.ledger.postings.parked} alerts on it.
+     */
+    private void park(LedgerPosting posting, RuntimeException failure) {
+        parked.incrementAndGet();
+        log.error("Parked ledger posting that cannot be persisted: {}", posting, failure);
+    }
+
+    /**
+     * Whether retrying the same batch can succeed: lock conflicts, timeouts and an unreachable
+     * database. Constraint violations, validation and mapping errors fail the same way every time.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof TransactionTimedOutException;
+    }
+
+    private void persist(List<LedgerPosting> postings) {
+        Collection<Account> committed = transactionTemplate.execute(status -> {
+            List<String> references = postings.stream().map(LedgerPosting::transactionReference).toList();
+            Set<String> existing = new HashSet<>(transactionRepository.findExistingReferences(references));
+            Map<String, Transaction> unfinished = new HashMap<>();
+            for (Transaction transaction : transactionRepository.findUnfinishedByReferences(references)) {
+                unfinished.put(transaction.getTransactionReference(), transaction);
+            }
+            List<LedgerPosting> batch = existing.isEmpty()
+                    ? postings
+                    : postings.stream().filter(posting -> !existing.contains(posting.transactionReference())).toList();
+
+            Map<Long, Long> deltas = new HashMap<>();
+            for (LedgerPosting posting : batch) {
+                if (posting.fromAccountId() != null) {
+                    deltas.merge(posting.fromAccountId(), -posting.amount().minorUnits(), Money::addExact);
+                }
+                if (posting.toAccountId() != null) {
+                    deltas.merge(posting.toAccountId(), posting.amount().minorUnits(), Money::addExact);
+                }
+            }
+
+            Map<Long, Account> accounts = new HashMap<>();
+            for (Account account : accountRepository.findAllById(deltas.keySet())) {
+                accounts.put(account.getId(), account);
+            }
+            deltas.forEach((accountId, delta) -> {
+                Account account = accounts.get(accountId);
+                account.setBalance(account.getBalance().plus(Money.ofMinor(delta)));
+            });
+
+            List<Transaction> transactions = new ArrayList<>(batch.size());
+            List<Transaction> completed = new ArrayList<>(batch.size());
+            for (LedgerPosting posting : batch) {
+                Transaction accepted = unfinished.get(posting.transactionReference());
+                if (accepted != null) {
+                    // Accepted asynchronously and stored as PENDING, or given up on before the ledger
+                    // confirmed it; the ledger applied it, so it is completed on flush
+                    accepted.setStatus(Transaction.TransactionStatus.COMPLETED);
+                    accepted.setFailureReason(null);
+                    accepted.setProcessedAt(posting.processedAt());
+                    completed.add(accepted);
+                    continue;
+                }
+                Transaction transaction = new Transaction();
+                transaction.setTransactionReference(posting.transactionReference());
+                transaction.setAmount(posting.amount());
+                transaction.setType(posting.type());
+                transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+                transaction.setFromAccount(accounts.get(posting.fromAccountId()));
+                transaction.setToAccount(accounts.get(posting.toAccountId()));
+                transaction.setDescription(posting.description());
+                transaction.setIdempotencyKey(posting.idempotencyKey());
+                transaction.setCreatedAt(posting.createdAt());
+                transaction.setProcessedAt(posting.processedAt());
+                transactions.add(transaction);
+                completed.add(transaction);
+            }
+            transactionRepository.saveAll(transactions);
+            // In posting order, which is the order the shards applied them in
+            transactionOutbox.record(completed);
+            accountTotalsService.record(completed);
+            return accounts.values();
+        });
+        committed.forEach(accountCache::put);
+        log.debug("Persisted {} ledger postings", postings.size());
+    }
+}
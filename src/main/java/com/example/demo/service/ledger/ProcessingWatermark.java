@@ -0,0 +1,46 @@
+package com.example.demo.service.ledger;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Processing times of the postings the shards have stamped and the write-behind has not yet
+ * persisted, so readers of the database can tell up to when it holds every posting. A posting is
+ * added right after it is stamped and removed once it is persisted, parked or rolled back.
+ * Thread-safe.
+ */
+class ProcessingWatermark {
+
+    private final ConcurrentSkipListSet<Entry> unpersisted = new ConcurrentSkipListSet<>(
+            Comparator.comparing(Entry::processedAt).thenComparing(Entry::reference));
+
+    void add(String reference, LocalDateTime processedAt) {
+        unpersisted.add(new Entry(processedAt, reference));
+    }
+
+    void remove(String reference, LocalDateTime processedAt) {
+        unpersisted.remove(new Entry(processedAt, reference));
+    }
+
+    void remove(LedgerPosting posting) {
+        remove(posting.transactionReference(), posting.processedAt());
+    }
+
+    /**
+     * Processing time of the oldest posting not persisted yet, or {@code now} if there is none.
+     * Every posting processed before the returned instant is in the database.
+     */
+    LocalDateTime persistedBefore(LocalDateTime now) {
+        Iterator<Entry> oldest = unpersisted.iterator();
+        if (oldest.hasNext()) {
+            LocalDateTime processedAt = oldest.next().processedAt();
+            return processedAt.isBefore(now) ? processedAt : now;
+        }
+        return now;
+    }
+
+    private record Entry(LocalDateTime processedAt, String reference) {
+    }
+}
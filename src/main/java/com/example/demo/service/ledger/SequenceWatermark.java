@@ -0,0 +1,39 @@
+package com.example.demo.service.ledger;
+
+import java.util.PriorityQueue;
+
+/**
+ * Highest journal sequence below which every sequence has been marked. Sequences may be marked in
+ * any order; one marked above a gap is held back until the gap is filled. Not thread-safe.
+ */
+class SequenceWatermark {
+
+    private final PriorityQueue<Long> ahead = new PriorityQueue<>();
+    private long watermark;
+
+    SequenceWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    long get() {
+        return watermark;
+    }
+
+    /**
+     * Marks a sequence and returns whether the watermark moved. Sequences at or below the watermark,
+     * including the {@code 0} of postings that were never journaled, are ignored.
+     */
+    boolean mark(long sequence) {
+        if (sequence <= watermark) {
+            return false;
+        }
+        ahead.add(sequence);
+        long advanced = watermark;
+        while (!ahead.isEmpty() && ahead.peek() == advanced + 1) {
+            advanced = ahead.poll();
+        }
+        boolean moved = advanced > watermark;
+        watermark = advanced;
+        return moved;
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.config.EngineProperties;
+import com.example.demo.config.JournalProperties;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.TransactionOutcomeUnknownException;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.AccountCache;
+import com.example.demo.service.AccountTotalsService;
+import com.example.demo.service.TransactionLimits;
+import com.example.demo.service.TransactionReferences;
+import com.example.demo.service.outbox.TransactionOutbox;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Transaction engine for {@code banking.engine.mode=sharded}. Each account number hashes to one of
+ * N single-threaded {@link LedgerShard}s that own the live balances, so legs on the same account are
+ * applied strictly in order without optimistic-lock conflicts. Completed transactions are persisted
+ * asynchronously by {@link LedgerWriteBehind}.
+ *
+ * <p>With {@code banking.journal.enabled=true} every posting is appended to the
+ * {@link TransactionJournal} and the caller is only acknowledged once it is durable; the
+ * write-behind then acts as the projector into the {@code accounts}/{@code transactions} tables.
+ * On startup, postings left in the journal are projected again (idempotently, by transaction
+ * reference) before the shards accept work, so a crash between append and projection loses nothing.
+ *
+ * <p>Two-account operations whose accounts live on different shards follow a fixed protocol that
+ * never holds two shards at once: the credit side is validated on the target shard, the debit is
+ * applied on the source shard, and only then is the credit applied on the target shard. If the
+ * credit fails for any reason, e.g. the target account was deactivated in between, the debit is
+ * compensated on the source shard. Legs are applied before their posting is journaled and taken
+ * back on the same shard thread if the journal rejects it. A transaction the ledger does not
+ * confirm within {@code banking.engine.shard-timeout}, or whose posting the journal could not make
+ * durable, is reported as of unknown outcome, not as failed, since it may still complete.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.engine.mode", havingValue = "sharded")
+@RequiredArgsConstructor
+@Slf4j
+public class ShardedLedger implements MeterBinder {
+
+    private final EngineProperties engineProperties;
+    private final JournalProperties journalProperties;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCache accountCache;
+    private final TransactionOutbox transactionOutbox;
+    private final AccountTotalsService accountTotalsService;
+    private final TransactionLimits transactionLimits;
+
+    private final ProcessingWatermark processing = new ProcessingWatermark();
+
+    private LedgerShard[] shards;
+    private LedgerWriteBehind writeBehind;
+    private TransactionJournal journal;
+
+    @PostConstruct
+    void start() {
+        int shardCount = Math.max(1, engineProperties.getShards());
+        shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, accountRepository);
+        }
+
+        if (journalProperties.isEnabled()) {
+            journal = new TransactionJournal(journalProperties);
+            writeBehind = new LedgerWriteBehind(engineProperties.getWriteBehind(), transactionTemplate,
+                    accountRepository, transactionRepository, accountCache, transactionOutbox, accountTotalsService, processing, journal::checkpoint);
+            try {
+                // Shards load balances from the database, so it must be caught up before they start
+                writeBehind.replay(journal.recover());
+                journal.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open transaction journal", e);
+            }
+        } else {
+            writeBehind = new LedgerWriteBehind(engineProperties.getWriteBehind(), transactionTemplate,
+                    accountRepository, transactionRepository, accountCache, transactionOutbox, accountTotalsService, processing, sequence -> { });
+        }
+        writeBehind.start();
+        log.info("Sharded ledger started with {} shards, journal {}", shardCount,
+                journal != null ? "enabled" : "disabled");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        for (LedgerShard shard : shards) {
+            shard.shutdown(engineProperties.getShardTimeout());
+        }
+        if (journal != null) {
+            journal.stop();
+        }
+        writeBehind.stop(engineProperties.getShardTimeout());
+        log.info("Sharded ledger stopped with {} postings not persisted", writeBehind.pending());
+    }
+
+    public Transaction process(TransactionRequest request, String idempotencyKey) {
+        return process(request, idempotencyKey, null);
+    }
+
+    /**
+     * Applies the transaction under the given reference, or a new one when {@code null}. A reference
+     * stored as {@code PENDING} is completed in place by the write-behind.
+     *
+     * @throws TransactionOutcomeUnknownException if the ledger did not confirm the transaction within
+     *         {@code banking.engine.shard-timeout}
+     */
+    public Transaction process(TransactionRequest request, String idempotencyKey, String reference) {
+        Identity identity = new Identity(reference != null ? reference : TransactionReferences.next(), idempotencyKey);
+        CompletableFuture<Transaction> result = switch (request.getType()) {
+            case DEPOSIT -> deposit(request, identity);
+            case WITHDRAWAL -> withdraw(request, identity);
+            case TRANSFER, PAYMENT, REFUND -> move(request, identity);
+        };
+        // The legs keep going after a timeout, so the transaction may still complete
+        return await(result, timeout -> new TransactionOutcomeUnknownException("Ledger did not confirm transaction "
+                + identity.reference() + " within " + timeout.toMillis() + " ms", identity.reference(), result));
+    }
+
+    public BigDecimal balance(String accountNumber) {
+        LedgerShard shard = shardFor(accountNumber);
+        return await(shard.submit(() -> shard.account(accountNumber).getBalance())).toBigDecimal();
+    }
+
+    /**
+     * Runs a status change on the account's shard so it is ordered with the balance legs, then
+     * updates the live state. The returned account carries the live balance.
+     */
+    public Account updateStatus(String accountNumber, Supplier<Account> persist) {
+        LedgerShard shard = shardFor(accountNumber);
+        return await(shard.submit(() -> {
+            Account saved = persist.get();
+            shard.loadedAccount(accountNumber).ifPresent(account -> {
+                account.setStatus(saved.getStatus());
+                saved.setBalance(account.getBalance());
+            });
+            return saved;
+        }));
+    }
+
+    /**
+     * Number of completed transactions not yet written to the database.
+     */
+    public long pendingPostings() {
+        return writeBehind.pending();
+    }
+
+    public boolean awaitPersisted(Duration timeout) throws InterruptedException {
+        return writeBehind.awaitPersisted(timeout);
+    }
+
+    /**
+     * Instant before which every completed transaction has been written to the database: the
+     * processing time of the oldest one still waiting for the write-behind, or now if none is.
+     */
+    public LocalDateTime persistedBefore() {
+        return processing.persistedBefore(LocalDateTime.now());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("banking.ledger.postings.pending", this, ShardedLedger::pendingPostings)
+                .description("Completed transactions not yet written to the database")
+                .register(registry);
+        FunctionCounter.builder("banking.ledger.postings.parked", this, ledger -> ledger.writeBehind.parked())
+                .description("Postings the database rejected, logged for repair")
+                .register(registry);
+    }
+
+    private CompletableFuture<Transaction> deposit(TransactionRequest request, Identity identity) {
+        LedgerShard shard = shardFor(request.getToAccountNumber());
+        long amount = Money.toMinorUnits(request.getAmount());
+        return shard.submitAsync(() -> {
+            LedgerAccount toAccount = shard.account(request.getToAccountNumber());
+            toAccount.requireActive("To account");
+            toAccount.credit(amount);
+            return record(request, identity, null, toAccount.snapshot(), () -> toAccount.reverseCredit(amount));
+        });
+    }
+
+    private CompletableFuture<Transaction> withdraw(TransactionRequest request, Identity identity) {
+        LedgerShard shard = shardFor(request.getFromAccountNumber());
+        long amount = Money.toMinorUnits(request.getAmount());
+        return shard.submitAsync(() -> {
+            LedgerAccount fromAccount = shard.account(request.getFromAccountNumber());
+            fromAccount.requireActive("From account");
+            TransactionLimits.Reservation reservation = debit(fromAccount, request, amount);
+            return record(request, identity, fromAccount.snapshot(), null, () -> {
+                fromAccount.credit(amount);
+                reservation.release();
+            });
+        });
+    }
+
+    private CompletableFuture<Transaction> move(TransactionRequest request, Identity identity) {
+        String fromNumber = request.getFromAccountNumber();
+        String toNumber = request.getToAccountNumber();
+        long amount = Money.toMinorUnits(request.getAmount());
+
+        // Business rule: Cannot transfer to the same account
+        if (request.getType() == TransactionType.TRANSFER
+                && fromNumber != null && fromNumber.equals(toNumber)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Cannot transfer to the same account"));
+        }
+
+        LedgerShard source = shardFor(fromNumber);
+        LedgerShard target = shardFor(toNumber);
+
+        if (source == target) {
+            return source.submitAsync(() -> {
+                LedgerAccount fromAccount = source.account(fromNumber);
+                LedgerAccount toAccount = source.account(toNumber);
+                fromAccount.requireActive("From account");
+                toAccount.requireActive("To account");
+                TransactionLimits.Reservation reservation = debit(fromAccount, request, amount);
+                try {
+                    toAccount.credit(amount);
+                } catch (RuntimeException e) {
+                    fromAccount.credit(amount);
+                    reservation.release();
+                    throw e;
+                }
+                return record(request, identity, fromAccount.snapshot(), toAccount.snapshot(), () -> {
+                    toAccount.reverseCredit(amount);
+                    fromAccount.credit(amount);
+                    reservation.release();
+                });
+            });
+        }
+
+        return target.submit(() -> {
+                    target.account(toNumber).requireActive("To account");
+                    return null;
+                })
+                .thenCompose(prepared -> source.submit(() -> {
+                    LedgerAccount fromAccount = source.account(fromNumber);
+                    fromAccount.requireActive("From account");
+                    TransactionLimits.Reservation reservation = debit(fromAccount, request, amount);
+                    return new Debit(fromAccount.snapshot(), reservation);
+                }))
+                // Composed on a completed stage so that a rejected submission is compensated as well
+                .thenCompose(debited -> CompletableFuture.completedFuture(debited)
+                        .thenCompose(ignored -> target.submitAsync(() -> {
+                            LedgerAccount toAccount = target.account(toNumber);
+                            toAccount.requireActive("To account");
+                            toAccount.credit(amount);
+                            return record(request, identity, debited.account(), toAccount.snapshot(),
+                                    () -> toAccount.reverseCredit(amount));
+                        }))
+                        .whenComplete((transaction, failure) -> {
+                            // A posting of unknown durability may still be replayed, debit included
+                            if (failure != null && !(unwrap(failure) instanceof TransactionOutcomeUnknownException)) {
+                                compensate(source, fromNumber, amount, debited.reservation());
+                            }
+                        }));
+    }
+
+    /**
+     * Compensates the debit of a cross-shard move whose credit failed.
+     */
+    private void compensate(LedgerShard source, String fromNumber, long amount, TransactionLimits.Reservation reservation) {
+        reservation.release();
+        try {
+            source.submit(() -> {
+                source.account(fromNumber).credit(amount);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            log.error("Could not compensate debit of {} on {}: ledger is shutting down", Money.ofMinor(amount), fromNumber);
+        }
+    }
+
+    /**
+     * Checks the transaction limits of the account and debits it. The limit share is given back if
+     * the balance does not cover the amount.
+     */
+    private TransactionLimits.Reservation debit(LedgerAccount account, TransactionRequest request, long amount) {
+        TransactionLimits.Reservation reservation = transactionLimits.check(account.account(),
+                Transaction.TransactionType.valueOf(request.getType().name()), amount);
+        try {
+            account.debit(amount);
+        } catch (RuntimeException e) {
+            reservation.release();
+            throw e;
+        }
+        return reservation;
+    }
+
+    /**
+     * Creates the transaction for legs that have just been applied on the calling shard thread and
+     * hands its posting to the write-behind, after the journal has made it durable when journaling
+     * is enabled. If the journal rejects the posting, nothing was written and {@code rollback} takes
+     * the legs back before the shard runs its next task. If the journal fails to make an appended
+     * posting durable, the transaction may still be recovered on restart, so its outcome is unknown.
+     */
+    private CompletableFuture<Transaction> record(TransactionRequest request, Identity identity,
+                                                 Account fromAccount, Account toAccount, Runnable rollback) {
+        LocalDateTime now = LocalDateTime.now();
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(identity.reference());
+        transaction.setAmount(Money.of(request.getAmount()));
+        transaction.setType(Transaction.TransactionType.valueOf(request.getType().name()));
+        transaction.setFromAccount(fromAccount);
+        transaction.setToAccount(toAccount);
+        transaction.setDescription(request.getDescription());
+        transaction.setIdempotencyKey(identity.idempotencyKey());
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setCreatedAt(now);
+        transaction.setProcessedAt(now);
+        processing.add(identity.reference(), now);
+
+        LedgerPosting posting = new LedgerPosting(
+                0L,
+                transaction.getTransactionReference(),
+                transaction.getType(),
+                transaction.getAmount(),
+                fromAccount != null ? fromAccount.getId() : null,
+                toAccount != null ? toAccount.getId() : null,
+                transaction.getDescription(),
+                transaction.getIdempotencyKey(),
+                transaction.getCreatedAt(),
+                transaction.getProcessedAt());
+        if (journal == null) {
+            writeBehind.enqueue(posting);
+            return CompletableFuture.completedFuture(transaction);
+        }
+        CompletableFuture<Long> durable;
+        try {
+            durable = journal.append(posting);
+        } catch (RuntimeException e) {
+            rollback.run();
+            processing.remove(posting);
+            throw e;
+        }
+        return durable.handle((sequence, failure) -> {
+            if (failure != null) {
+                // Recovered from the journal on restart, if at all
+                processing.remove(posting);
+                throw new TransactionOutcomeUnknownException("Journal could not make transaction "
+                        + identity.reference() + " durable: " + failure.getMessage(), identity.reference());
+            }
+            writeBehind.enqueue(posting.withSequence(sequence));
+            return transaction;
+        });
+    }
+
+    private record Identity(String reference, String idempotencyKey) {
+    }
+
+    private record Debit(Account account, TransactionLimits.Reservation reservation) {
+    }
+
+    private LedgerShard shardFor(String accountNumber) {
+        return shards[Math.floorMod(Objects.hashCode(accountNumber), shards.length)];
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        return await(future, timeout -> new IllegalStateException("Ledger did not respond within " + timeout.toMillis() + " ms"));
+    }
+
+    private <T> T await(CompletableFuture<T> future, Function<Duration, RuntimeException> onTimeout) {
+        Duration timeout = engineProperties.getShardTimeout();
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Ledger operation failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw onTimeout.apply(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ledger", e);
+        }
+    }
+}
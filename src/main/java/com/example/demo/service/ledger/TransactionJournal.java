@@ -0,0 +1,262 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.config.JournalProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Append-only write-ahead journal of ledger postings, stored in memory-mapped segment files.
+ *
+ * <p>Appends copy the encoded record into the mapped segment and return a future that completes
+ * once the record is on disk. A single flusher thread forces the written range and completes every
+ * append it covered, so concurrent appends share one fsync (group commit). Futures complete in
+ * sequence order on the flusher thread. If the flush fails, the journal stops accepting appends.
+ *
+ * <p>Segments are deleted once {@link #checkpoint(long)} reports that all of their postings have
+ * been projected into the database. On startup {@link #recover()} returns every intact record left
+ * behind; a torn record at the tail of a segment ends that segment.
+ */
+@Slf4j
+class TransactionJournal {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final Deque<Segment> sealedSegments = new ArrayDeque<>();
+    private final List<PendingAppend> pending = new ArrayList<>();
+    private final Thread flusher;
+
+    // Guarded by this
+    private Segment current;
+    private long lastSequence;
+    private int dirtyFrom;
+    private boolean running;
+    private IOException failure;
+
+    TransactionJournal(JournalProperties properties) {
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentSize = (int) properties.getSegmentSize().toBytes();
+        this.fsync = properties.isFsync();
+        this.flusher = new Thread(this::runFlusher, "ledger-journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Reads every intact record from the existing segments, in sequence order.
+     */
+    List<LedgerPosting> recover() throws IOException {
+        Files.createDirectories(directory);
+        List<LedgerPosting> postings = new ArrayList<>();
+        for (Path path : segmentFiles()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                LedgerPosting posting;
+                while ((posting = JournalCodec.decode(buffer)) != null) {
+                    postings.add(posting);
+                    lastSequence = Math.max(lastSequence, posting.sequence());
+                }
+                if (buffer.remaining() >= JournalCodec.HEADER_SIZE && buffer.getInt(buffer.position()) != 0) {
+                    log.warn("Journal segment {} ends with a torn record at offset {}", path.getFileName(), buffer.position());
+                }
+            }
+        }
+        log.info("Recovered {} postings from journal in {}", postings.size(), directory);
+        return postings;
+    }
+
+    /**
+     * Discards the recovered segments, which must already be projected, and starts appending to a
+     * fresh segment.
+     */
+    synchronized void start() throws IOException {
+        for (Path path : segmentFiles()) {
+            Files.delete(path);
+        }
+        current = openSegment(lastSequence + 1);
+        running = true;
+        flusher.start();
+    }
+
+    void stop() throws InterruptedException {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        flusher.join();
+    }
+
+    /**
+     * Appends a posting and returns a future that completes with its sequence once it is durable.
+     * A posting this throws for has not been written. A failed write stops the journal: the futures
+     * of appends not yet flushed fail with the {@link IOException}, and every later append throws.
+     */
+    synchronized CompletableFuture<Long> append(LedgerPosting posting) {
+        if (failure != null) {
+            throw new IllegalStateException("Transaction journal is unavailable", failure);
+        }
+        if (!running) {
+            throw new IllegalStateException("Transaction journal is not running");
+        }
+        long sequence = lastSequence + 1;
+        byte[] record = JournalCodec.encode(posting, sequence);
+        try {
+            if (current.writeOffset + record.length + JournalCodec.HEADER_SIZE > segmentSize) {
+                roll(sequence);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            IOException cause = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
+            fail(cause, "rolling segments");
+            throw new UncheckedIOException(cause);
+        }
+        current.buffer.put(current.writeOffset, record);
+        current.writeOffset += record.length;
+        current.lastSequence = sequence;
+        lastSequence = sequence;
+
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        pending.add(new PendingAppend(sequence, durable));
+        notifyAll();
+        return durable;
+    }
+
+    /**
+     * Deletes sealed segments whose postings have all been projected up to {@code sequence}. The
+     * caller must have projected every posting up to and including it, not just that one.
+     */
+    void checkpoint(long sequence) {
+        List<Segment> obsolete = new ArrayList<>();
+        synchronized (this) {
+            while (!sealedSegments.isEmpty() && sealedSegments.peekFirst().lastSequence <= sequence) {
+                obsolete.add(sealedSegments.pollFirst());
+            }
+        }
+        for (Segment segment : obsolete) {
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                log.warn("Could not delete projected journal segment {}: {}", segment.path, e.getMessage());
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            List<PendingAppend> batch;
+            MappedByteBuffer buffer;
+            int from;
+            int to;
+            synchronized (this) {
+                while (pending.isEmpty() && running && failure == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Only stop() ends the flusher, after the last appends are flushed
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                buffer = current.buffer;
+                from = dirtyFrom;
+                to = current.writeOffset;
+                dirtyFrom = to;
+            }
+
+            if (fsync && to > from) {
+                try {
+                    buffer.force(from, to - from);
+                } catch (UncheckedIOException e) {
+                    synchronized (this) {
+                        pending.addAll(0, batch);
+                        fail(e.getCause(), "forcing appends to disk");
+                    }
+                    return;
+                }
+            }
+            for (PendingAppend append : batch) {
+                append.durable().complete(append.sequence());
+            }
+        }
+    }
+
+    /**
+     * Stops the journal after a write error. Appends waiting for their flush may or may not have
+     * reached the disk, so their futures fail with the cause; every later append is rejected.
+     * Called with the lock held.
+     */
+    private void fail(IOException cause, String operation) {
+        failure = cause;
+        log.error("Transaction journal failed while {}; rejecting appends from now on", operation, cause);
+        for (PendingAppend append : pending) {
+            append.durable().completeExceptionally(cause);
+        }
+        pending.clear();
+        notifyAll();
+    }
+
+    // Called with the lock held
+    private void roll(long nextSequence) throws IOException {
+        if (fsync) {
+            current.buffer.force(dirtyFrom, current.writeOffset - dirtyFrom);
+        }
+        sealedSegments.addLast(current);
+        current = openSegment(nextSequence);
+        dirtyFrom = 0;
+    }
+
+    private Segment openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+        private long lastSequence;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private record PendingAppend(long sequence, CompletableFuture<Long> durable) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.service.outbox;
+
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.OutboxEntry;
+import com.example.demo.entity.Transaction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes entries as length-prefixed binary records into {@code .bin} segments. All values are
+ * big-endian:
+ *
+ * <pre>
+ * int    record length, excluding this field
+ * long   outbox id
+ * byte   transaction type ordinal
+ * long   amount in minor units
+ * long   processed at, epoch milliseconds (UTC)
+ * short  reference length, followed by UTF-8 bytes
+ * short  from account number length (-1 if none), followed by UTF-8 bytes
+ * short  to account number length (-1 if none), followed by UTF-8 bytes
+ * </pre>
+ */
+public class BinaryOutboxSink extends SegmentedFileSink {
+    
+    private static final int FIXED_SIZE = 8 + 1 + 8 + 8 + 2 + 2 + 2;
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+    
+    public BinaryOutboxSink(OutboxProperties properties) {
+        super(properties, "bin");
+    }
+    
+    @Override
+    void encode(OutboxEntry entry, ByteArrayOutputStream out) throws IOException {
+        byte[] reference = entry.getTransactionReference().getBytes(StandardCharsets.UTF_8);
+        byte[] from = bytes(entry.getFromAccountNumber());
+        byte[] to = bytes(entry.getToAccountNumber());
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(FIXED_SIZE + reference.length + length(from) + length(to));
+        data.writeLong(entry.getId());
+        data.writeByte(entry.getType().ordinal());
+        data.writeLong(entry.getAmount().minorUnits());
+        data.writeLong(entry.getProcessedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        writeString(data, reference);
+        writeString(data, from);
+        writeString(data, to);
+        data.flush();
+    }
+    
+    /**
+     * Reads the records of a segment. {@code recordedAt} is not part of the format and is left
+     * {@code null}.
+     */
+    public static List<OutboxEntry> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        List<OutboxEntry> entries = new ArrayList<>();
+        while (true) {
+            try {
+                data.readInt();
+            } catch (EOFException e) {
+                return entries;
+            }
+            OutboxEntry entry = new OutboxEntry();
+            entry.setId(data.readLong());
+            entry.setType(TYPES[data.readByte()]);
+            entry.setAmount(Money.ofMinor(data.readLong()));
+            entry.setProcessedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(data.readLong()), ZoneOffset.UTC));
+            entry.setTransactionReference(readString(data));
+            entry.setFromAccountNumber(readString(data));
+            entry.setToAccountNumber(readString(data));
+            entry.setRecordedAt(null);
+            entries.add(entry);
+        }
+    }
+    
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+    
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+    
+    private static void writeString(DataOutputStream data, byte[] value) throws IOException {
+        if (value == null) {
+            data.writeShort(-1);
+        } else {
+            data.writeShort(value.length);
+            data.write(value);
+        }
+    }
+    
+    private static String readString(DataInputStream data) throws IOException {
+        short length = data.readShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        data.readFully(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
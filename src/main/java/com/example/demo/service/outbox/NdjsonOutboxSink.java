@@ -0,0 +1,28 @@
+package com.example.demo.service.outbox;
+
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.entity.OutboxEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes each entry as one JSON object per line into {@code .ndjson} segments.
+ */
+public class NdjsonOutboxSink extends SegmentedFileSink {
+    
+    private final ObjectWriter writer;
+    
+    public NdjsonOutboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        super(properties, "ndjson");
+        this.writer = objectMapper.writerFor(OutboxEntry.class);
+    }
+    
+    @Override
+    void encode(OutboxEntry entry, ByteArrayOutputStream out) throws IOException {
+        out.write(writer.writeValueAsBytes(entry));
+        out.write('\n');
+    }
+}
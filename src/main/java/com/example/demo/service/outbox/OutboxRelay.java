@@ -0,0 +1,159 @@
+package com.example.demo.service.outbox;
+
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.dto.OutboxStatus;
+import com.example.demo.entity.OutboxCheckpoint;
+import com.example.demo.entity.OutboxEntry;
+import com.example.demo.repository.OutboxCheckpointRepository;
+import com.example.demo.repository.OutboxEntryRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers the {@link TransactionOutbox} to the configured {@link OutboxSink}, oldest entry first.
+ * Each batch is written to the sink and then deleted from the outbox together with the
+ * {@link OutboxCheckpoint} update, so delivery is at-least-once: a crash or sink failure between the
+ * two repeats the batch on the next run.
+ *
+ * <p>Entries are never skipped over by id. One that commits after higher ids have been delivered
+ * is simply the oldest entry on the next run; this cannot reorder a single account's entries, see
+ * {@link TransactionOutbox}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay implements MeterBinder {
+    
+    private final OutboxEntryRepository outboxEntryRepository;
+    private final OutboxCheckpointRepository checkpointRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+    private Timer batchTimer;
+    
+    @Scheduled(initialDelayString = "${banking.outbox.poll-interval:PT0.2S}",
+               fixedDelayString = "${banking.outbox.poll-interval:PT0.2S}")
+    public void scheduledDrain() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+        try {
+            drain();
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Outbox delivery failed, retrying in {}: {}", properties.getPollInterval(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Delivers batches until the outbox is empty and returns the number of entries delivered. A
+     * failing batch is left in the outbox and its exception is thrown.
+     */
+    public long drain() throws IOException {
+        drainLock.lock();
+        try {
+            int batchSize = Math.max(1, properties.getBatchSize());
+            long total = 0;
+            while (true) {
+                List<OutboxEntry> batch = outboxEntryRepository.findOldest(PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    oldestPending.set(null);
+                    return total;
+                }
+                oldestPending.set(batch.get(0).getRecordedAt());
+                
+                long start = System.nanoTime();
+                sink.write(batch);
+                checkpoint(batch);
+                if (batchTimer != null) {
+                    batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                delivered.addAndGet(batch.size());
+                total += batch.size();
+                log.debug("Delivered {} outbox entries up to id {}", batch.size(), batch.get(batch.size() - 1).getId());
+                
+                if (batch.size() < batchSize) {
+                    // Anything recorded since is picked up by the next run
+                    oldestPending.set(null);
+                    return total;
+                }
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+    
+    public OutboxStatus status() {
+        OutboxStatus status = new OutboxStatus();
+        status.setPending(outboxEntryRepository.count());
+        List<OutboxEntry> oldest = outboxEntryRepository.findOldest(PageRequest.of(0, 1));
+        if (!oldest.isEmpty()) {
+            status.setOldestPendingRecordedAt(oldest.get(0).getRecordedAt());
+        }
+        checkpointRepository.findById(OutboxCheckpoint.ID).ifPresent(checkpoint -> {
+            status.setLastDeliveredId(checkpoint.getLastDeliveredId());
+            status.setDeliveredCount(checkpoint.getDeliveredCount());
+            status.setLastDeliveredAt(checkpoint.getDeliveredAt());
+        });
+        return status;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.outbox.delivered", delivered, AtomicLong::get)
+                .description("Outbox entries delivered to the sink")
+                .register(registry);
+        FunctionCounter.builder("banking.outbox.failures", failures, AtomicLong::get)
+                .description("Relay runs that stopped on a sink or database error")
+                .register(registry);
+        TimeGauge.builder("banking.outbox.lag", this, TimeUnit.MILLISECONDS, OutboxRelay::lagMillis)
+                .description("Age of the oldest undelivered outbox entry when the relay last looked")
+                .register(registry);
+        batchTimer = Timer.builder("banking.outbox.batch")
+                .description("Time to write one batch to the sink and checkpoint it")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+    
+    private void checkpoint(List<OutboxEntry> batch) {
+        List<Long> ids = batch.stream().map(OutboxEntry::getId).toList();
+        long maxId = ids.stream().mapToLong(Long::longValue).max().orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEntryRepository.deleteAllByIdInBatch(ids);
+            OutboxCheckpoint checkpoint = checkpointRepository.findById(OutboxCheckpoint.ID)
+                    .orElseGet(() -> new OutboxCheckpoint(OutboxCheckpoint.ID, 0L, 0L, null));
+            checkpoint.setLastDeliveredId(Math.max(checkpoint.getLastDeliveredId(), maxId));
+            checkpoint.setDeliveredCount(checkpoint.getDeliveredCount() + batch.size());
+            checkpoint.setDeliveredAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+        });
+    }
+    
+    private double lagMillis() {
+        LocalDateTime oldest = oldestPending.get();
+        return oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) : 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.service.outbox;
+
+import com.example.demo.entity.OutboxEntry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. A batch counts as delivered once {@link #write} returns, after
+ * which its entries are deleted from the outbox; a failed or interrupted write is repeated with the
+ * same entries, so consumers must tolerate duplicates (the entry id identifies them).
+ *
+ * <p>Batches arrive in outbox id order, which is commit order for any single account.
+ */
+public interface OutboxSink extends Closeable {
+    
+    void write(List<OutboxEntry> batch) throws IOException;
+    
+    @Override
+    default void close() throws IOException {
+    }
+}
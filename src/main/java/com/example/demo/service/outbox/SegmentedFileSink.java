@@ -0,0 +1,84 @@
+package com.example.demo.service.outbox;
+
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.entity.OutboxEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends batches to segment files named after the id of their first entry, so segments sort in
+ * delivery order. A new segment is started once the current one reaches
+ * {@code banking.outbox.segment-size}, and on every start of the application.
+ */
+@Slf4j
+abstract class SegmentedFileSink implements OutboxSink {
+    
+    private final Path directory;
+    private final String extension;
+    private final long segmentSize;
+    private final boolean fsync;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    private FileChannel segment;
+    
+    SegmentedFileSink(OutboxProperties properties, String extension) {
+        this.directory = Paths.get(properties.getDirectory());
+        this.extension = extension;
+        this.segmentSize = properties.getSegmentSize().toBytes();
+        this.fsync = properties.isFsync();
+    }
+    
+    /**
+     * Appends the encoded entry to {@code out}.
+     */
+    abstract void encode(OutboxEntry entry, ByteArrayOutputStream out) throws IOException;
+    
+    @Override
+    public synchronized void write(List<OutboxEntry> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        buffer.reset();
+        for (OutboxEntry entry : batch) {
+            encode(entry, buffer);
+        }
+        if (segment == null) {
+            segment = open(batch.get(0).getId());
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            segment.write(bytes);
+        }
+        if (fsync) {
+            segment.force(false);
+        }
+        if (segment.size() >= segmentSize) {
+            segment.close();
+            segment = null;
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+    }
+    
+    private FileChannel open(long firstId) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("transactions-%019d.%s", firstId, extension));
+        log.info("Writing outbox segment {}", file);
+        // A batch redelivered after a crash may start the same segment again
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
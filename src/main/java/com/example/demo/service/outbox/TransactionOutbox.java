@@ -0,0 +1,52 @@
+package com.example.demo.service.outbox;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.OutboxEntry;
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.OutboxEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records completed transactions for export. Must run inside the database transaction that stores
+ * them, so an entry exists if and only if its transaction committed.
+ *
+ * <p>Entry ids come from a sequence and are assigned after the writing transaction has updated (and
+ * so locked or version-checked) its accounts. Two transactions on the same account therefore get
+ * ids in their commit order, which is what the relay delivers in.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionOutbox {
+    
+    private final OutboxEntryRepository outboxEntryRepository;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Transaction> transactions) {
+        List<OutboxEntry> entries = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() != Transaction.TransactionStatus.COMPLETED) {
+                continue;
+            }
+            OutboxEntry entry = new OutboxEntry();
+            entry.setTransactionReference(transaction.getTransactionReference());
+            entry.setType(transaction.getType());
+            entry.setAmount(transaction.getAmount());
+            entry.setFromAccountNumber(accountNumber(transaction.getFromAccount()));
+            entry.setToAccountNumber(accountNumber(transaction.getToAccount()));
+            entry.setProcessedAt(transaction.getProcessedAt());
+            entries.add(entry);
+        }
+        outboxEntryRepository.saveAll(entries);
+    }
+    
+    private static String accountNumber(Account account) {
+        return account != null ? account.getAccountNumber() : null;
+    }
+}
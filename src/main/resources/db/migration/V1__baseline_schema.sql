@@ -0,0 +1,73 @@
+-- Baseline schema for the file-backed prod profile. The in-memory default profile still lets
+-- Hibernate create the schema, so entity mappings and this file must be changed together.
+
+-- INCREMENT BY must match banking.ids.allocation-size
+CREATE SEQUENCE account_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE transaction_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE account_daily_balance_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE accounts (
+    id               BIGINT         NOT NULL,
+    version          BIGINT,
+    account_number   VARCHAR(255)   NOT NULL,
+    customer_name    VARCHAR(255)   NOT NULL,
+    email            VARCHAR(255)   NOT NULL,
+    balance          NUMERIC(19, 2) NOT NULL,
+    opening_balance  NUMERIC(19, 2) NOT NULL,
+    account_type     VARCHAR(20)    NOT NULL,
+    status           VARCHAR(20)    NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6),
+    CONSTRAINT pk_accounts PRIMARY KEY (id),
+    CONSTRAINT uk_accounts_account_number UNIQUE (account_number)
+);
+
+CREATE INDEX idx_accounts_created ON accounts (created_at, id);
+
+CREATE TABLE transactions (
+    id                     BIGINT         NOT NULL,
+    transaction_reference  VARCHAR(255)   NOT NULL,
+    amount                 NUMERIC(19, 2) NOT NULL,
+    type                   VARCHAR(20)    NOT NULL,
+    status                 VARCHAR(20)    NOT NULL,
+    from_account_id        BIGINT,
+    to_account_id          BIGINT,
+    description            VARCHAR(500),
+    idempotency_key        VARCHAR(100),
+    failure_reason         VARCHAR(500),
+    created_at             TIMESTAMP(6)   NOT NULL,
+    processed_at           TIMESTAMP(6),
+    CONSTRAINT pk_transactions PRIMARY KEY (id),
+    CONSTRAINT uk_transactions_reference UNIQUE (transaction_reference),
+    CONSTRAINT uk_transactions_idempotency_key UNIQUE (idempotency_key),
+    CONSTRAINT fk_transactions_from_account FOREIGN KEY (from_account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_transactions_to_account FOREIGN KEY (to_account_id) REFERENCES accounts (id)
+);
+
+-- Account history, ledger legs and reconciliation
+CREATE INDEX idx_transactions_from_account_created ON transactions (from_account_id, created_at, id);
+CREATE INDEX idx_transactions_to_account_created ON transactions (to_account_id, created_at, id);
+-- Global history and snapshot compaction
+CREATE INDEX idx_transactions_created ON transactions (created_at, id);
+-- Pending lookups, including the sweep of abandoned async transactions at startup
+CREATE INDEX idx_transactions_status ON transactions (status);
+
+CREATE TABLE account_daily_balances (
+    id                 BIGINT         NOT NULL,
+    account_id         BIGINT         NOT NULL,
+    business_date      DATE           NOT NULL,
+    opening_balance    NUMERIC(19, 2) NOT NULL,
+    closing_balance    NUMERIC(19, 2) NOT NULL,
+    debit_total        NUMERIC(19, 2) NOT NULL,
+    credit_total       NUMERIC(19, 2) NOT NULL,
+    transaction_count  INTEGER        NOT NULL,
+    CONSTRAINT pk_account_daily_balances PRIMARY KEY (id),
+    CONSTRAINT uk_account_daily_balances_account_date UNIQUE (account_id, business_date),
+    CONSTRAINT fk_account_daily_balances_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
+
+CREATE TABLE snapshot_checkpoints (
+    id                 BIGINT NOT NULL,
+    compacted_through  DATE   NOT NULL,
+    CONSTRAINT pk_snapshot_checkpoints PRIMARY KEY (id)
+);
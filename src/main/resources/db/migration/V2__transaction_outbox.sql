@@ -0,0 +1,24 @@
+-- Completed transactions awaiting export by the outbox relay; delivered rows are deleted
+
+-- INCREMENT BY must match banking.ids.allocation-size
+CREATE SEQUENCE outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE transaction_outbox (
+    id                     BIGINT         NOT NULL,
+    transaction_reference  VARCHAR(255)   NOT NULL,
+    type                   VARCHAR(20)    NOT NULL,
+    amount                 NUMERIC(19, 2) NOT NULL,
+    from_account_number    VARCHAR(255),
+    to_account_number      VARCHAR(255),
+    processed_at           TIMESTAMP(6)   NOT NULL,
+    recorded_at            TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_transaction_outbox PRIMARY KEY (id)
+);
+
+CREATE TABLE outbox_checkpoints (
+    id                 BIGINT       NOT NULL,
+    last_delivered_id  BIGINT       NOT NULL,
+    delivered_count    BIGINT       NOT NULL,
+    delivered_at       TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_outbox_checkpoints PRIMARY KEY (id)
+);
@@ -0,0 +1,19 @@
+-- Running per-account totals by month and transaction type, kept up to date by the writers and
+-- recomputed from the transactions table by POST /api/admin/totals/rebuild
+
+-- INCREMENT BY must match banking.ids.allocation-size
+CREATE SEQUENCE account_monthly_total_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE account_monthly_totals (
+    id                 BIGINT         NOT NULL,
+    version            BIGINT,
+    account_id         BIGINT         NOT NULL,
+    month_start        DATE           NOT NULL,
+    type               VARCHAR(20)    NOT NULL,
+    transaction_count  BIGINT         NOT NULL,
+    inflow             NUMERIC(19, 2) NOT NULL,
+    outflow            NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_account_monthly_totals PRIMARY KEY (id),
+    CONSTRAINT uk_account_monthly_totals_account_month_type UNIQUE (account_id, month_start, type),
+    CONSTRAINT fk_account_monthly_totals_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
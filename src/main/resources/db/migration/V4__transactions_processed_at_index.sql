@@ -0,0 +1,3 @@
+-- Snapshot compaction, statements and snapshot reconciliation bucket legs by processing time,
+-- which can lag creation time by as long as a transaction waits in the async queue
+CREATE INDEX idx_transactions_processed_at ON transactions (processed_at);
@@ -0,0 +1,65 @@
+package com.example.demo;
+
+import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.service.BankingService;
+
+import java.math.BigDecimal;
+
+/**
+ * Accounts and transaction requests shared by the tests. Account numbers double as the customer's
+ * email address, so they only need to be unique.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static CreateAccountRequest accountRequest(String accountNumber, Account.AccountType accountType, String balance) {
+        CreateAccountRequest request = new CreateAccountRequest();
+        request.setAccountNumber(accountNumber);
+        request.setCustomerName("Customer " + accountNumber);
+        request.setEmail(accountNumber.toLowerCase() + "@example.com");
+        request.setAccountType(accountType);
+        request.setInitialBalance(balance != null ? new BigDecimal(balance) : null);
+        return request;
+    }
+
+    public static Account createAccount(BankingService bankingService, String accountNumber, String balance) {
+        return createAccount(bankingService, accountNumber, Account.AccountType.CHECKING, balance);
+    }
+
+    public static Account createAccount(BankingService bankingService, String accountNumber,
+                                        Account.AccountType accountType, String balance) {
+        return bankingService.createAccount(accountRequest(accountNumber, accountType, balance));
+    }
+
+    /**
+     * Unsaved account entity, for tests that write through the repositories directly.
+     */
+    public static Account account(String accountNumber, Account.AccountType accountType, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setCustomerName("Customer " + accountNumber);
+        account.setEmail(accountNumber.toLowerCase() + "@example.com");
+        account.setAccountType(accountType);
+        account.setBalance(Money.parse(balance));
+        return account;
+    }
+
+    public static TransactionRequest transaction(TransactionType type, String from, String to, String amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setType(type);
+        request.setFromAccountNumber(from);
+        request.setToAccountNumber(to);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    public static TransactionRequest transfer(String from, String to, String amount) {
+        return transaction(TransactionType.TRANSFER, from, to, amount);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo;
+
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.example.demo.TestFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Restarts the prod profile on a file-backed database holding many transactions and reports how
+ * long the warm start takes. Run with {@code -PwarmStartTransactions=10000000} for the full-size
+ * measurement; the default keeps the suite fast.
+ */
+class WarmStartTests {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmStartTests.class);
+
+    private static final long TRANSACTIONS = Long.getLong("warmStart.transactions", 200_000);
+    private static final int ACCOUNTS = 10_000;
+    private static final int INSERT_CHUNK = 1_000_000;
+
+    @TempDir
+    private Path dataDirectory;
+
+    @Test
+    void restartKeepsDataAndSkipsSchemaCreation() throws IOException {
+        long coldStart = System.nanoTime();
+        try (ConfigurableApplicationContext context = start()) {
+            long coldMillis = (System.nanoTime() - coldStart) / 1_000_000;
+            long seedStart = System.nanoTime();
+            seed(context.getBean(JdbcTemplate.class));
+            log.info("Cold start with migrations: {} ms, seeding {} transactions: {} ms",
+                    coldMillis, TRANSACTIONS, (System.nanoTime() - seedStart) / 1_000_000);
+        }
+
+        long warmStart = System.nanoTime();
+        try (ConfigurableApplicationContext context = start()) {
+            long warmMillis = (System.nanoTime() - warmStart) / 1_000_000;
+            log.info("Warm start with {} transactions on disk: {} ms", TRANSACTIONS, warmMillis);
+
+            MigrationInfoService migrations = context.getBean(Flyway.class).info();
+            assertThat(migrations.pending()).isEmpty();
+            assertThat(migrations.applied()).hasSize(migrationScripts());
+            assertThat(context.getBean(AccountRepository.class).count()).isEqualTo(ACCOUNTS);
+            Transaction last = context.getBean(TransactionRepository.class)
+                    .findByTransactionReference("WARM-" + TRANSACTIONS).orElseThrow();
+            assertThat(last.getStatus()).isEqualTo(Transaction.TransactionStatus.COMPLETED);
+
+            // New rows continue after the seeded ids
+            Account account = account("WARM-NEW", Account.AccountType.CHECKING, "0.00");
+            assertThat(context.getBean(AccountRepository.class).save(account).getId()).isGreaterThan(ACCOUNTS);
+        }
+    }
+
+    private static int migrationScripts() throws IOException {
+        return new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql").length;
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:file:" + dataDirectory.resolve("bankingdb") + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "banking.reconciliation.cron=-",
+                        "banking.snapshots.enabled=false")
+                .run();
+    }
+
+    /**
+     * Bulk-loads accounts and completed deposits with set-based inserts, then moves the sequences
+     * past the loaded ids.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO accounts (id, version, account_number, customer_name, email, balance, opening_balance,
+                                      account_type, status, created_at)
+                SELECT X, 0, 'WARM-' || X, 'Warm Start ' || X, 'warm' || X || '@example.com', 0, 0,
+                       'CHECKING', 'ACTIVE', TIMESTAMP '2025-01-01 00:00:00'
+                FROM SYSTEM_RANGE(1, ?)""", ACCOUNTS);
+        for (long from = 1; from <= TRANSACTIONS; from += INSERT_CHUNK) {
+            jdbcTemplate.update("""
+                    INSERT INTO transactions (id, transaction_reference, amount, type, status, to_account_id,
+                                              created_at, processed_at)
+                    SELECT X, 'WARM-' || X, 10.00, 'DEPOSIT', 'COMPLETED', MOD(X, ?) + 1,
+                           DATEADD('SECOND', X / 100, TIMESTAMP '2025-01-01 00:00:00'),
+                           DATEADD('SECOND', X / 100, TIMESTAMP '2025-01-01 00:00:00')
+                    FROM SYSTEM_RANGE(?, ?)""", ACCOUNTS, from, Math.min(from + INSERT_CHUNK - 1, TRANSACTIONS));
+        }
+        jdbcTemplate.update("UPDATE accounts SET balance = 10.00 * (SELECT COUNT(*) FROM transactions t "
+                + "WHERE t.to_account_id = accounts.id)");
+        jdbcTemplate.execute("ALTER SEQUENCE account_seq RESTART WITH " + (ACCOUNTS + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE transaction_seq RESTART WITH " + (TRANSACTIONS + 1));
+    }
+}
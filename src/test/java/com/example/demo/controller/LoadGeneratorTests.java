@@ -0,0 +1,50 @@
+package com.example.demo.controller;
+
+import com.example.demo.loadtest.LoadGenerator;
+import com.example.demo.loadtest.LoadReport;
+import com.example.demo.loadtest.LoadTestOptions;
+import com.example.demo.loadtest.Operation;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Short run of the load generator against the application on a random port. Long soaks run the
+ * same generator through {@code ./gradlew loadTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "banking.reconciliation.cron=-"})
+class LoadGeneratorTests {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGeneratorTests.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void mixedTrafficConservesTheLedger() throws Exception {
+        LoadReport report;
+        try (LoadGenerator generator = new LoadGenerator(LoadTestOptions.parse(
+                "--base-url=http://localhost:" + port,
+                "--rate=150",
+                "--duration=PT3S",
+                "--accounts=50",
+                "--initial-balance=100.00",
+                "--mix=DEPOSIT=20,WITHDRAWAL=20,TRANSFER=30,PAYMENT=10,REFUND=10,BALANCE=5,SEARCH=5",
+                "--prefix=LG-"))) {
+            report = generator.run();
+        }
+        log.info("{}", report);
+
+        assertThat(report.sent()).isGreaterThan(100);
+        assertThat(report.latencies().get(Operation.TRANSFER).getTotalCount()).isPositive();
+        assertThat(report.latencies().get(Operation.SEARCH).getTotalCount()).isPositive();
+        // Insufficient balances and lock conflicts are expected, server errors are not
+        assertThat(report.errors()).allSatisfy((type, count) -> assertThat(type).doesNotStartWith("5"));
+        assertThat(report.ledgerConserved()).isTrue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.AccountSearchIndex;
+import com.example.demo.service.BankingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements behind the listing and processing endpoints. Serializing transaction
+ * entities used to load every distinct counterparty account lazily, one query each; the response
+ * DTOs are now built from a single projection query or from accounts already in hand.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "banking.reconciliation.cron=-"
+})
+class ResponseProjectionTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseProjectionTests.class);
+
+    private static final int COUNTERPARTIES = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private AccountSearchIndex accountSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void historyIsServedByOneQueryWithoutLoadingAccounts() throws Exception {
+        createAccount(bankingService, "PROJ-HOME", "10000.00");
+        for (int i = 0; i < COUNTERPARTIES; i++) {
+            createAccount(bankingService, "PROJ-" + i, "0.00");
+            bankingService.processTransaction(transfer("PROJ-HOME", "PROJ-" + i, "1.00"));
+        }
+        // Keep the startup index rebuild out of the counts
+        while (!accountSearchIndex.isReady()) {
+            Thread.sleep(10);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            statistics.clear();
+            JsonNode history = get(client, "/api/accounts/PROJ-HOME/transactions");
+            long historyStatements = statistics.getPrepareStatementCount();
+            log.info("GET /api/accounts/{n}/transactions: {} rows, {} SQL statements",
+                    history.size(), historyStatements);
+            assertThat(history).hasSize(COUNTERPARTIES);
+            assertThat(history.get(0).get("fromAccountNumber").asText()).isEqualTo("PROJ-HOME");
+            assertThat(history.get(0).get("toAccountNumber").asText()).isEqualTo("PROJ-" + (COUNTERPARTIES - 1));
+            assertThat(history.get(0).has("fromAccount")).isFalse();
+            // The account itself may come from the account cache
+            assertThat(historyStatements).isLessThanOrEqualTo(2);
+            assertThat(statistics.getEntityLoadCount()).isLessThanOrEqualTo(1);
+
+            statistics.clear();
+            JsonNode all = get(client, "/api/transactions");
+            log.info("GET /api/transactions: {} rows, {} SQL statements",
+                    all.size(), statistics.getPrepareStatementCount());
+            assertThat(all.size()).isGreaterThanOrEqualTo(COUNTERPARTIES);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+
+            statistics.clear();
+            JsonNode account = get(client, "/api/accounts/PROJ-HOME");
+            log.info("GET /api/accounts/{n}: {} SQL statements", statistics.getPrepareStatementCount());
+            assertThat(account.get("balance").decimalValue()).isEqualByComparingTo("9980.00");
+            assertThat(account.has("version")).isFalse();
+
+            statistics.clear();
+            HttpResponse<String> processed = client.send(HttpRequest.newBuilder(uri("/api/transactions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"fromAccountNumber":"PROJ-HOME","toAccountNumber":"PROJ-0","amount":2.50,"type":"PAYMENT"}"""))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            log.info("POST /api/transactions: {} SQL statements", statistics.getPrepareStatementCount());
+            assertThat(processed.statusCode()).isEqualTo(200);
+            JsonNode payment = objectMapper.readTree(processed.body());
+            assertThat(payment.get("fromAccountNumber").asText()).isEqualTo("PROJ-HOME");
+            assertThat(payment.get("toAccountNumber").asText()).isEqualTo("PROJ-0");
+            assertThat(payment.has("toAccount")).isFalse();
+        }
+    }
+
+    private JsonNode get(HttpClient client, String path) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri(path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.controller;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform and virtual request threads under a burst of concurrent HTTP clients that is
+ * larger than Tomcat's default pool of 200 worker threads.
+ */
+class ThreadingModeLoadTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeLoadTests.class);
+
+    private static final int ACCOUNTS = 100;
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 25;
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {"spring.threads.virtual.enabled=false", "spring.jpa.show-sql=false"})
+    class PlatformThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void burstOfBalanceInquiriesAndDeposits() throws Exception {
+            Report report = runBurst(port, "PLT-");
+            log.info("Platform threads: {}", report);
+            assertThat(report.serverErrors()).isZero();
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {"spring.threads.virtual.enabled=true", "spring.jpa.show-sql=false"})
+    class VirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void burstOfBalanceInquiriesAndDeposits() throws Exception {
+            Report report = runBurst(port, "VRT-");
+            log.info("Virtual threads: {}", report);
+            assertThat(report.serverErrors()).isZero();
+        }
+    }
+
+    private static Report runBurst(int port, String prefix) throws Exception {
+        String baseUrl = "http://localhost:" + port + "/api";
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ACCOUNTS; i++) {
+                HttpResponse<String> created = send(client, post(baseUrl + "/accounts", """
+                        {"accountNumber":"%s%d","customerName":"Load Test","email":"load%d@example.com",\
+                        "accountType":"CHECKING","initialBalance":1000.00}""".formatted(prefix, i, i)));
+                assertThat(created.statusCode()).isEqualTo(201);
+            }
+
+            AtomicInteger conflicts = new AtomicInteger();
+            AtomicInteger serverErrors = new AtomicInteger();
+            List<Future<long[]>> results = new ArrayList<>(CLIENTS);
+            long start = System.nanoTime();
+            for (int c = 0; c < CLIENTS; c++) {
+                results.add(clients.submit(() -> {
+                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        String accountNumber = prefix + random.nextInt(ACCOUNTS);
+                        // Four balance inquiries for every deposit
+                        HttpRequest request = random.nextInt(5) == 0
+                                ? post(baseUrl + "/transactions", """
+                                        {"toAccountNumber":"%s","amount":1.00,"type":"DEPOSIT"}""".formatted(accountNumber))
+                                : HttpRequest.newBuilder(URI.create(baseUrl + "/accounts/" + accountNumber + "/balance")).GET().build();
+                        long requestStart = System.nanoTime();
+                        HttpResponse<String> response = send(client, request);
+                        latencies[r] = System.nanoTime() - requestStart;
+                        if (response.statusCode() == 409) {
+                            conflicts.incrementAndGet();
+                        } else if (response.statusCode() >= 500) {
+                            serverErrors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+
+            long[] all = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            int index = 0;
+            for (Future<long[]> result : results) {
+                long[] latencies = result.get();
+                System.arraycopy(latencies, 0, all, index, latencies.length);
+                index += latencies.length;
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(all);
+            return new Report(all.length, conflicts.get(), serverErrors.get(), elapsed,
+                    all[all.length / 2], all[Math.min(all.length - 1, (int) (all.length * 0.99))]);
+        }
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    record Report(int requests, int conflicts, int serverErrors, long elapsedNanos, long p50Nanos, long p99Nanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d conflicts, %d server errors, %.0f req/s, p50 %.2f ms, p99 %.2f ms",
+                    requests, conflicts, serverErrors, requests / (elapsedNanos / 1e9),
+                    p50Nanos / 1e6, p99Nanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void arithmeticIsExactAndOverflowChecked() {
+        assertThat(Money.parse("10.05").minus(Money.parse("10.10"))).isEqualTo(Money.ofMinor(-5));
+        assertThat(Money.parse("0.1").plus(Money.parse("0.2"))).isEqualTo(Money.parse("0.30"));
+        assertThat(Money.parse("5.00").isLessThan(Money.parse("5.01"))).isTrue();
+
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.parse("1.005"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void keepsTheDecimalWireFormat() throws Exception {
+        assertThat(Money.parse("1234.5").toString()).isEqualTo("1234.50");
+        assertThat(Money.ofMinor(-5).toString()).isEqualTo("-0.05");
+        assertThat(Money.ofMinor(-1205).toString()).isEqualTo("-12.05");
+        assertThat(Money.ofMinor(-5).toBigDecimal()).isEqualTo(new BigDecimal("-0.05"));
+
+        Account account = new Account();
+        account.setBalance(Money.parse("5000.00"));
+        assertThat(objectMapper.writeValueAsString(account.getBalance())).isEqualTo("5000.00");
+        assertThat(objectMapper.readValue("125.3", Money.class)).isEqualTo(Money.parse("125.30"));
+        assertThat(objectMapper.readValue("\"125.30\"", Money.class)).isEqualTo(Money.parse("125.30"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AccountCacheProperties;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.exception.ConcurrentTransactionException;
+import com.example.demo.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AccountCacheTests {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountCacheTests.class);
+
+    private static final int ACCOUNTS = 50;
+    private static final int OPERATIONS = 20_000;
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private AccountCacheProperties accountCacheProperties;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void writesRefreshTheCachedSnapshot() {
+        createAccount(bankingService, "CACHE-A", "100.00");
+        createAccount(bankingService, "CACHE-B", "100.00");
+        assertThat(bankingService.getAccountBalance("CACHE-A")).isEqualByComparingTo("100.00");
+
+        bankingService.processTransaction(transaction(TransactionType.TRANSFER, "CACHE-A", "CACHE-B", "40.00"));
+        long hits = accountCache.stats().getHitCount();
+
+        assertThat(bankingService.getAccountBalance("CACHE-A")).isEqualByComparingTo("60.00");
+        assertThat(bankingService.getAccountBalance("CACHE-B")).isEqualByComparingTo("140.00");
+        assertThat(accountCache.stats().getHitCount()).isEqualTo(hits + 2);
+
+        bankingService.updateAccountStatus("CACHE-B", Account.AccountStatus.FROZEN);
+        assertThat(bankingService.getAccountByNumber("CACHE-B").getStatus()).isEqualTo(Account.AccountStatus.FROZEN);
+        assertThat(bankingService.getAccountByNumber("CACHE-B").getVersion())
+                .isEqualTo(accountRepository.findByAccountNumber("CACHE-B").orElseThrow().getVersion());
+    }
+
+    @Test
+    void staleSnapshotFailsLikeAConcurrentModification() {
+        createAccount(bankingService, "CACHE-C", "100.00");
+        bankingService.getAccountBalance("CACHE-C");
+
+        // Change the row behind the cache's back
+        Account account = accountRepository.findByAccountNumber("CACHE-C").orElseThrow();
+        account.setBalance(Money.parse("10.00"));
+        accountRepository.save(account);
+
+        assertThatThrownBy(() -> bankingService.processTransaction(
+                transaction(TransactionType.WITHDRAWAL, "CACHE-C", null, "50.00")))
+                .isInstanceOf(ConcurrentTransactionException.class);
+        // The conflicting entry was evicted, so the retry validates against the real balance
+        assertThat(bankingService.getAccountBalance("CACHE-C")).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void balanceInquiriesUnderReadHeavyMix() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            createAccount(bankingService, "CACHE-MIX-" + i, "1000000.00");
+        }
+
+        accountCacheProperties.setEnabled(false);
+        long[] uncached;
+        try {
+            uncached = runMix();
+        } finally {
+            accountCacheProperties.setEnabled(true);
+        }
+        accountCache.clear();
+        long[] cached = runMix();
+
+        log.info("Balance inquiry latency (90% reads / 10% transfers, {} operations): uncached p50={}us p99={}us, "
+                        + "cached p50={}us p99={}us, {}", OPERATIONS, percentile(uncached, 50), percentile(uncached, 99),
+                percentile(cached, 50), percentile(cached, 99), accountCache.stats());
+        assertThat(accountCache.stats().getHitRate()).isGreaterThan(0.5);
+    }
+
+    private long[] runMix() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[OPERATIONS];
+        int reads = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            String accountNumber = "CACHE-MIX-" + random.nextInt(ACCOUNTS);
+            if (random.nextInt(10) == 0) {
+                String toAccountNumber = "CACHE-MIX-" + random.nextInt(ACCOUNTS);
+                if (!toAccountNumber.equals(accountNumber)) {
+                    bankingService.processTransaction(transaction(TransactionType.TRANSFER, accountNumber, toAccountNumber, "1.00"));
+                }
+                continue;
+            }
+            long start = System.nanoTime();
+            bankingService.getAccountBalance(accountNumber);
+            latencies[reads++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, reads);
+    }
+
+    private static long percentile(long[] latencies, int percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1_000;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "banking.events.buffer-size=16",
+        "banking.events.heartbeat-interval=1s",
+        "banking.reconciliation.cron=-"
+})
+class AccountEventStreamTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private AccountEventStream accountEventStream;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void pushesCommittedChangesAndReplaysAfterReconnect() throws Exception {
+        createAccount(bankingService, "EVT-A", "100.00");
+        createAccount(bankingService, "EVT-B", "0.00");
+
+        long lastSeen;
+        try (HttpClient client = HttpClient.newHttpClient();
+             EventReader events = subscribe(client, null)) {
+            bankingService.processTransaction(transaction(TransactionType.TRANSFER, "EVT-A", "EVT-B", "30.00"));
+            bankingService.processTransaction(transaction(TransactionType.DEPOSIT, null, "EVT-B", "5.00"));
+            bankingService.updateAccountStatus("EVT-A", Account.AccountStatus.SUSPENDED);
+
+            Event transfer = events.next();
+            assertThat(transfer.name()).isEqualTo("transaction");
+            JsonNode data = objectMapper.readTree(transfer.data());
+            assertThat(data.get("accountNumber").asText()).isEqualTo("EVT-A");
+            assertThat(data.get("balance").decimalValue()).isEqualByComparingTo("70.00");
+            assertThat(data.get("amount").decimalValue()).isEqualByComparingTo("-30.00");
+            assertThat(data.get("transactionType").asText()).isEqualTo("TRANSFER");
+
+            // The deposit to EVT-B is filtered out
+            Event status = events.next();
+            assertThat(status.name()).isEqualTo("status");
+            assertThat(objectMapper.readTree(status.data()).get("status").asText()).isEqualTo("SUSPENDED");
+            assertThat(Long.parseLong(status.id())).isGreaterThan(Long.parseLong(transfer.id()));
+            lastSeen = Long.parseLong(status.id());
+        }
+
+        bankingService.updateAccountStatus("EVT-A", Account.AccountStatus.ACTIVE);
+        bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "EVT-A", null, "20.00"));
+        try (HttpClient client = HttpClient.newHttpClient();
+             EventReader events = subscribe(client, Long.toString(lastSeen))) {
+            assertThat(events.next().name()).isEqualTo("status");
+            Event withdrawal = events.next();
+            assertThat(withdrawal.name()).isEqualTo("transaction");
+            assertThat(objectMapper.readTree(withdrawal.data()).get("balance").decimalValue()).isEqualByComparingTo("50.00");
+        }
+
+        // More events than the ring holds
+        for (int i = 0; i < 20; i++) {
+            bankingService.processTransaction(transaction(TransactionType.DEPOSIT, null, "EVT-B", "1.00"));
+        }
+        try (HttpClient client = HttpClient.newHttpClient();
+             EventReader events = subscribe(client, Long.toString(lastSeen))) {
+            assertThat(events.next().name()).isEqualTo("reset");
+            bankingService.processTransaction(transaction(TransactionType.DEPOSIT, null, "EVT-A", "1.00"));
+            assertThat(objectMapper.readTree(events.next().data()).get("balance").decimalValue()).isEqualByComparingTo("51.00");
+        }
+    }
+
+    private EventReader subscribe(HttpClient client, String lastEventId) throws Exception {
+        int before = accountEventStream.subscriberCount();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/accounts/events?accounts=EVT-A"))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = client.send(request.GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (accountEventStream.subscriberCount() <= before && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return new EventReader(response.body());
+    }
+
+    private record Event(String id, String name, String data) {
+    }
+
+    /**
+     * Parses the SSE stream on a virtual thread. Heartbeat comments are skipped.
+     */
+    private static final class EventReader implements AutoCloseable {
+
+        private final InputStream body;
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+        EventReader(InputStream body) {
+            this.body = body;
+            Thread.ofVirtual().start(this::read);
+        }
+
+        Event next() throws InterruptedException {
+            Event event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("event within 5 seconds").isNotNull();
+            return event;
+        }
+
+        private void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                String id = null;
+                String name = null;
+                StringBuilder data = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (name != null) {
+                            events.add(new Event(id, name, data.toString()));
+                        }
+                        id = null;
+                        name = null;
+                        data.setLength(0);
+                    } else if (line.startsWith("id:")) {
+                        id = line.substring(3).strip();
+                    } else if (line.startsWith("event:")) {
+                        name = line.substring(6).strip();
+                    } else if (line.startsWith("data:")) {
+                        data.append(line.substring(5));
+                    }
+                }
+            } catch (IOException e) {
+                // Closed by the test
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+}
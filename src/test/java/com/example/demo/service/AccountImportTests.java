@@ -0,0 +1,141 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AccountImportError;
+import com.example.demo.dto.AccountImportFormat;
+import com.example.demo.dto.AccountImportReport;
+import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.example.demo.TestFixtures.accountRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:importdb"
+})
+@DirtiesContext
+class AccountImportTests {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountImportTests.class);
+
+    private static final int ROWS = Integer.getInteger("import.rows", 100_000);
+
+    @Autowired
+    private AccountImportService accountImportService;
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountSearchIndex accountSearchIndex;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void reportsRowErrorsWithoutAbortingTheImport() {
+        CreateAccountRequest existing = accountRequest("IMP-EXISTING", Account.AccountType.CHECKING, null);
+        bankingService.createAccount(existing);
+
+        String csv = """
+                accountNumber,customerName,email,accountType,initialBalance
+                IMP-1,"Doe, Jane",jane@example.com,savings,100.50
+                IMP-2,Bad Email,not-an-email,CHECKING,1.00
+                IMP-EXISTING,Someone,someone@example.com,CHECKING,0
+                IMP-3,Dup One,dup1@example.com,BUSINESS,5
+                IMP-3,Dup Two,dup2@example.com,BUSINESS,6
+                IMP-4,Bad Type,type@example.com,PIGGYBANK,1
+
+                IMP-5,John Roe,john@example.com,INVESTMENT,
+                """;
+        AccountImportReport report = accountImportService.importAccounts(stream(csv), AccountImportFormat.CSV);
+
+        assertThat(report.getTotal()).isEqualTo(7);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(4);
+        Map<Long, String> errors = report.getErrors().stream()
+                .collect(Collectors.toMap(AccountImportError::getLine, AccountImportError::getError));
+        assertThat(errors).containsOnlyKeys(3L, 4L, 6L, 7L);
+        assertThat(errors.get(3L)).contains("email");
+        assertThat(errors.get(4L)).isEqualTo("Account number already exists: IMP-EXISTING");
+        assertThat(errors.get(6L)).isEqualTo("Duplicate account number in import: IMP-3");
+        assertThat(errors.get(7L)).contains("PIGGYBANK");
+
+        Account imported = bankingService.getAccountByNumber("IMP-1");
+        assertThat(imported.getCustomerName()).isEqualTo("Doe, Jane");
+        assertThat(imported.getAccountType()).isEqualTo(Account.AccountType.SAVINGS);
+        assertThat(imported.getBalance()).isEqualTo(Money.parse("100.50"));
+        assertThat(imported.getOpeningBalance()).isEqualTo(Money.parse("100.50"));
+        assertThat(bankingService.getAccountByNumber("IMP-5").getBalance()).isEqualTo(Money.ZERO);
+        assertThat(bankingService.getAccountsByCustomerName("Roe")).extracting(Account::getAccountNumber).contains("IMP-5");
+
+        String ndjson = """
+                {"accountNumber":"IMP-6","customerName":"Json Customer","email":"json@example.com","accountType":"CHECKING","initialBalance":7.25}
+                {"accountNumber":"IMP-1","customerName":"Again","email":"again@example.com","accountType":"CHECKING"}
+                {not json
+                """;
+        AccountImportReport second = accountImportService.importAccounts(stream(ndjson), AccountImportFormat.NDJSON);
+        assertThat(second.getImported()).isEqualTo(1);
+        assertThat(second.getErrors()).extracting(AccountImportError::getLine).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(bankingService.getAccountBalance("IMP-6")).isEqualByComparingTo("7.25");
+
+        // Ids come from the shared sequence, so accounts created afterwards do not collide
+        existing.setAccountNumber("IMP-AFTER");
+        assertThat(bankingService.createAccount(existing).getId()).isNotNull();
+    }
+
+    @Test
+    void importsLargeFilesInConstantMemory() throws Exception {
+        Path file = directory.resolve("accounts.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("accountNumber,customerName,email,accountType,initialBalance");
+            writer.newLine();
+            for (int i = 0; i < ROWS; i++) {
+                writer.write("BULK-" + i + ",Bulk Customer " + i + ",bulk" + i + "@example.com,CHECKING,"
+                        + BigDecimal.valueOf(i % 10_000, 2));
+                writer.newLine();
+            }
+        }
+        long before = accountRepository.count();
+
+        AccountImportReport report;
+        try (InputStream input = Files.newInputStream(file)) {
+            report = accountImportService.importAccounts(input, AccountImportFormat.CSV);
+        }
+
+        log.info("Imported {} accounts in {} ms ({} rows/s)",
+                report.getImported(), report.getElapsedMillis(), report.getRowsPerSecond());
+        assertThat(report.getFailed()).isZero();
+        assertThat(report.getImported()).isEqualTo(ROWS);
+        assertThat(accountRepository.count()).isEqualTo(before + ROWS);
+        assertThat(accountSearchIndex.isReady()).isTrue();
+        assertThat(bankingService.getAccountBalance("BULK-" + (ROWS - 1)))
+                .isEqualByComparingTo(BigDecimal.valueOf((ROWS - 1) % 10_000, 2));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
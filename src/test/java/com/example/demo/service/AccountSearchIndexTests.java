@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AccountSearchHit;
+import com.example.demo.dto.AccountSearchPage;
+import com.example.demo.dto.CreateAccountRequest;
+import com.example.demo.entity.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.example.demo.TestFixtures.accountRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AccountSearchIndexTests {
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private AccountSearchIndex accountSearchIndex;
+
+    @Test
+    void ranksExactAndPrefixMatchesFirst() {
+        AccountSearchIndex index = new AccountSearchIndex(null, null, null);
+        index.index(1, "SRCH-001", "Maria Annette", "maria@example.com");
+        index.index(2, "SRCH-002", "Anne Miller", "anne@example.com");
+        index.index(3, "SRCH-003", "Joanne Smith", "js@example.com");
+        index.index(4, "SRCH-004", "Anne", "anne.solo@example.com");
+
+        assertThat(index.search("anne", 0, 10).hits()).extracting(AccountSearchHit::getId)
+                .containsExactly(4L, 2L, 1L, 3L);
+        assertThat(index.search("SRCH-003", 0, 10).hits()).extracting(AccountSearchHit::getId).first().isEqualTo(3L);
+        assertThat(index.search("an", 0, 10).total()).isEqualTo(4);
+        assertThat(index.search("xyz", 0, 10).total()).isZero();
+
+        AccountSearchIndex.Ranking second = index.search("anne", 2, 1);
+        assertThat(second.total()).isEqualTo(4);
+        assertThat(second.hits()).extracting(AccountSearchHit::getId).containsExactly(1L);
+    }
+
+    @Test
+    void reindexingReplacesTheOldEntry() {
+        AccountSearchIndex index = new AccountSearchIndex(null, null, null);
+        index.index(1, "SRCH-010", "Peter Parker", "peter@example.com");
+        index.index(1, "SRCH-010", "Peter Quill", "peter@example.com");
+
+        assertThat(index.search("parker", 0, 10).total()).isZero();
+        assertThat(index.search("quill", 0, 10).hits()).extracting(AccountSearchHit::getCustomerName)
+                .containsExactly("Peter Quill");
+    }
+
+    @Test
+    void createdAccountsAreSearchable() {
+        assertThat(accountSearchIndex.isReady()).isTrue();
+        createAccount("SRCH-100", "Zelda Quartermaine");
+        createAccount("SRCH-101", "Quartermaine Holdings");
+
+        assertThat(bankingService.getAccountsByCustomerName("QUARTERMAINE")).extracting(Account::getAccountNumber)
+                .containsExactly("SRCH-101", "SRCH-100");
+
+        AccountSearchPage page = listingService.searchAccounts("quarterm", 0, 1);
+        assertThat(page.getTotal()).isEqualTo(2);
+        assertThat(page.getItems()).extracting(AccountSearchHit::getAccountNumber).containsExactly("SRCH-101");
+    }
+
+    private void createAccount(String accountNumber, String customerName) {
+        CreateAccountRequest request = accountRequest(accountNumber, Account.AccountType.CHECKING, "10.00");
+        request.setCustomerName(customerName);
+        bankingService.createAccount(request);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AccountMonthlyTotals;
+import com.example.demo.dto.AccountTotalsRebuildReport;
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.BatchTransactionResponse;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.InsufficientBalanceException;
+import com.example.demo.repository.AccountMonthlyTotalRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:totalsdb",
+        "banking.totals.rebuild-range-size=2",
+        "banking.reconciliation.cron=-"
+})
+@DirtiesContext
+class AccountTotalsTests {
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private AccountTotalsService accountTotalsService;
+
+    @Autowired
+    private AccountMonthlyTotalRepository totalsRepository;
+
+    @Test
+    void totalsFollowWritesAndRebuildReproducesThem() {
+        createAccount(bankingService, "TOT-A", "100.00");
+        createAccount(bankingService, "TOT-B", "0.00");
+        createAccount(bankingService, "TOT-C", "0.00");
+
+        bankingService.processTransaction(transaction(TransactionType.TRANSFER, "TOT-A", "TOT-B", "30.00"));
+        bankingService.processTransaction(transaction(TransactionType.TRANSFER, "TOT-A", "TOT-B", "10.00"));
+        bankingService.processTransaction(transaction(TransactionType.DEPOSIT, null, "TOT-A", "5.50"));
+        bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "TOT-B", null, "15.00"));
+        assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "TOT-C", null, "1.00")))
+                .isInstanceOf(InsufficientBalanceException.class);
+        bankingService.processBatch(List.of(
+                transaction(TransactionType.DEPOSIT, null, "TOT-C", "2.00"),
+                transaction(TransactionType.WITHDRAWAL, "TOT-C", null, "1000.00"),
+                transaction(TransactionType.TRANSFER, "TOT-A", "TOT-C", "1.25")));
+
+        YearMonth month = YearMonth.now();
+        AccountMonthlyTotals a = accountTotalsService.monthTotals("TOT-A", month);
+        assertThat(a.getTransactionCount()).isEqualTo(4);
+        assertThat(a.getInflow()).isEqualTo(Money.parse("5.50"));
+        assertThat(a.getOutflow()).isEqualTo(Money.parse("41.25"));
+        assertThat(a.getByType().get(Transaction.TransactionType.TRANSFER).getTransactionCount()).isEqualTo(3);
+        assertThat(a.getByType().get(Transaction.TransactionType.DEPOSIT).getInflow()).isEqualTo(Money.parse("5.50"));
+
+        AccountMonthlyTotals b = accountTotalsService.monthTotals("TOT-B", month);
+        assertThat(b.getTransactionCount()).isEqualTo(3);
+        assertThat(b.getInflow()).isEqualTo(Money.parse("40.00"));
+        assertThat(b.getOutflow()).isEqualTo(Money.parse("15.00"));
+
+        // Failed transactions are not counted
+        AccountMonthlyTotals c = accountTotalsService.monthTotals("TOT-C", month);
+        assertThat(c.getTransactionCount()).isEqualTo(2);
+        assertThat(c.getInflow()).isEqualTo(Money.parse("3.25"));
+        assertThat(c.getOutflow()).isEqualTo(Money.ZERO);
+        assertThat(c.getByType()).doesNotContainKey(Transaction.TransactionType.WITHDRAWAL);
+
+        assertThat(accountTotalsService.monthTotals("TOT-A", month.minusMonths(1)).getTransactionCount()).isZero();
+
+        // Lost rows come back from the transaction history
+        totalsRepository.deleteAll();
+        AccountTotalsRebuildReport report = accountTotalsService.rebuild();
+        assertThat(report.getAccounts()).isEqualTo(3);
+        assertThat(report.getRanges()).isGreaterThanOrEqualTo(2);
+        assertThat(accountTotalsService.monthTotals("TOT-A", month)).isEqualTo(a);
+        assertThat(accountTotalsService.monthTotals("TOT-B", month)).isEqualTo(b);
+        assertThat(accountTotalsService.monthTotals("TOT-C", month)).isEqualTo(c);
+
+        // Writes after a rebuild keep adding to the rebuilt rows
+        bankingService.processTransaction(transaction(TransactionType.DEPOSIT, null, "TOT-B", "1.00"));
+        AccountMonthlyTotals updated = accountTotalsService.monthTotals("TOT-B", month);
+        assertThat(updated.getTransactionCount()).isEqualTo(4);
+        assertThat(updated.getInflow()).isEqualTo(Money.parse("41.00"));
+    }
+
+    @Test
+    void concurrentBatchesOpeningTheSameMonthRowFailPerChunk() {
+        createAccount(bankingService, "TOT-RACE", "0.00");
+
+        // Each batch opens the account's first DEPOSIT row of the month; the losers of the race
+        // must come back as per-item concurrent modification failures, not as an exception
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<BatchTransactionResponse>> batches = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            batches.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return bankingService.processBatch(List.of(transaction(TransactionType.DEPOSIT, null, "TOT-RACE", "1.00")));
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (CompletableFuture<BatchTransactionResponse> batch : batches) {
+            BatchItemResult result = batch.join().getResults().get(0);
+            if (result.getStatus() == BatchItemResult.ItemStatus.SUCCESS) {
+                succeeded++;
+            } else {
+                assertThat(result.getError()).contains("concurrent modification");
+            }
+        }
+        assertThat(succeeded).isPositive();
+        AccountMonthlyTotals totals = accountTotalsService.monthTotals("TOT-RACE", YearMonth.now());
+        assertThat(totals.getTransactionCount()).isEqualTo(succeeded);
+        assertThat(totals.getInflow()).isEqualTo(Money.parse(succeeded + ".00"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionStatusResponse;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.AccountNotFoundException;
+import com.example.demo.exception.TransactionQueueFullException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.async.workers=1",
+        "banking.async.queue-capacity=2"
+})
+class AsyncTransactionTests {
+
+    @MockitoSpyBean
+    private BankingService bankingService;
+
+    @Autowired
+    private AsyncTransactionService asyncTransactionService;
+
+    @Test
+    void acceptedTransactionsCompleteOrFailInTheBackground() throws Exception {
+        createAccount(bankingService, "ASYNC-A", "100.00");
+        createAccount(bankingService, "ASYNC-B", "0.00");
+
+        TransactionStatusResponse accepted = asyncTransactionService.submit(transfer("ASYNC-A", "ASYNC-B", "40.00"));
+        assertThat(accepted.getStatus()).isEqualTo(Transaction.TransactionStatus.PENDING);
+        assertThat(accepted.getFromAccountNumber()).isEqualTo("ASYNC-A");
+        TransactionStatusResponse rejected = asyncTransactionService.submit(transfer("ASYNC-A", "ASYNC-B", "500.00"));
+
+        TransactionStatusResponse completed = awaitFinished(accepted.getTransactionReference());
+        assertThat(completed.getStatus()).isEqualTo(Transaction.TransactionStatus.COMPLETED);
+        assertThat(completed.getProcessedAt()).isNotNull();
+        assertThat(bankingService.getAccountBalance("ASYNC-B")).isEqualByComparingTo("40.00");
+
+        TransactionStatusResponse failed = awaitFinished(rejected.getTransactionReference());
+        assertThat(failed.getStatus()).isEqualTo(Transaction.TransactionStatus.FAILED);
+        assertThat(failed.getFailureReason()).contains("Insufficient balance");
+        assertThat(bankingService.getAccountBalance("ASYNC-A")).isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    void unknownAccountsAreRejectedBeforeAnythingIsStored() {
+        createAccount(bankingService, "ASYNC-C", "10.00");
+
+        assertThatThrownBy(() -> asyncTransactionService.submit(transfer("ASYNC-C", "ASYNC-MISSING", "1.00")))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
+
+    @Test
+    void fullQueueRejectsSubmissions() throws Exception {
+        createAccount(bankingService, "ASYNC-D", "100.00");
+        createAccount(bankingService, "ASYNC-E", "0.00");
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(bankingService).completePendingTransaction(any(), any());
+
+        try {
+            // One transaction occupies the single worker and two fill the queue
+            for (int i = 0; i < 3; i++) {
+                asyncTransactionService.submit(transfer("ASYNC-D", "ASYNC-E", "1.00"));
+            }
+            assertThatThrownBy(() -> asyncTransactionService.submit(transfer("ASYNC-D", "ASYNC-E", "1.00")))
+                    .isInstanceOf(TransactionQueueFullException.class);
+        } finally {
+            release.countDown();
+            reset(bankingService);
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (bankingService.getAccountBalance("ASYNC-E").compareTo(new BigDecimal("3.00")) < 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(bankingService.getAccountBalance("ASYNC-E")).isEqualByComparingTo("3.00");
+        asyncTransactionService.submit(transfer("ASYNC-D", "ASYNC-E", "1.00"));
+    }
+
+    private TransactionStatusResponse awaitFinished(String reference) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        TransactionStatusResponse status = bankingService.getTransactionStatus(reference);
+        while (status.getStatus() == Transaction.TransactionStatus.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = bankingService.getTransactionStatus(reference);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AccountStatement;
+import com.example.demo.dto.BalanceMismatch;
+import com.example.demo.dto.DailyBalance;
+import com.example.demo.dto.SnapshotReconciliationReport;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BalanceSnapshotTests {
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private SnapshotReconciliationService snapshotReconciliationService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compactedDaysAnswerAsOfBalancesStatementsAndReconciliation() {
+        LocalDate today = LocalDate.now();
+        LocalDate first = today.minusDays(3);
+        LocalDate second = today.minusDays(2);
+        createAccount(bankingService, "SNAP-A", "100.00");
+        createAccount(bankingService, "SNAP-B", "0.00");
+        backdate(Transaction.TransactionType.TRANSFER, "SNAP-A", "SNAP-B", "30.00", first.atTime(10, 0));
+        backdate(Transaction.TransactionType.DEPOSIT, null, "SNAP-B", "5.00", second.atTime(9, 0));
+        backdate(Transaction.TransactionType.WITHDRAWAL, "SNAP-A", null, "10.00", second.atTime(15, 0));
+        setBalance("SNAP-A", "60.00");
+        setBalance("SNAP-B", "35.00");
+
+        assertThat(balanceSnapshotService.compactThrough(today.minusDays(1))).isEqualTo(today.minusDays(1));
+        bankingService.processTransaction(transfer("SNAP-A", "SNAP-B", "1.00"));
+
+        assertThat(balanceSnapshotService.balanceAsOf("SNAP-A", first.atStartOfDay())).isEqualTo(Money.parse("100.00"));
+        assertThat(balanceSnapshotService.balanceAsOf("SNAP-A", second.atStartOfDay())).isEqualTo(Money.parse("70.00"));
+        assertThat(balanceSnapshotService.balanceAsOf("SNAP-A", second.atTime(12, 0))).isEqualTo(Money.parse("70.00"));
+        assertThat(balanceSnapshotService.balanceAsOf("SNAP-A", second.atTime(16, 0))).isEqualTo(Money.parse("60.00"));
+        assertThat(balanceSnapshotService.balanceAsOf("SNAP-A", LocalDateTime.now().plusMinutes(1)))
+                .isEqualTo(Money.parse("59.00"));
+
+        AccountStatement statement = balanceSnapshotService.statement("SNAP-B", first, today);
+        assertThat(statement.getOpeningBalance()).isEqualTo(Money.ZERO);
+        assertThat(statement.getClosingBalance()).isEqualTo(Money.parse("36.00"));
+        assertThat(statement.getTotalCredits()).isEqualTo(Money.parse("36.00"));
+        assertThat(statement.getDays()).extracting(DailyBalance::getDate).containsExactly(first, second, today);
+        assertThat(statement.getDays()).extracting(DailyBalance::getClosingBalance)
+                .containsExactly(Money.parse("30.00"), Money.parse("35.00"), Money.parse("36.00"));
+
+        SnapshotReconciliationReport report = snapshotReconciliationService.reconcile();
+        assertThat(report.getCompactedThrough()).isEqualTo(today.minusDays(1));
+        assertThat(report.getMismatches()).extracting(BalanceMismatch::getAccountNumber)
+                .doesNotContain("SNAP-A", "SNAP-B");
+
+        setBalance("SNAP-B", "99.00");
+        assertThat(snapshotReconciliationService.reconcile().getMismatches())
+                .filteredOn(mismatch -> mismatch.getAccountNumber().equals("SNAP-B"))
+                .singleElement()
+                .satisfies(mismatch -> {
+                    assertThat(mismatch.getExpected()).isEqualTo(Money.parse("36.00"));
+                    assertThat(mismatch.getActual()).isEqualTo(Money.parse("99.00"));
+                });
+
+        // A transaction repaired into a compacted day counts once that day is compacted again
+        backdate(Transaction.TransactionType.DEPOSIT, null, "SNAP-B", "2.00", first.atTime(11, 0));
+        setBalance("SNAP-B", "38.00");
+        assertThat(balanceSnapshotService.compactThrough(first, first)).isEqualTo(today.minusDays(1));
+        assertThat(balanceSnapshotService.statement("SNAP-B", first, today).getDays())
+                .extracting(DailyBalance::getClosingBalance)
+                .containsExactly(Money.parse("32.00"), Money.parse("37.00"), Money.parse("38.00"));
+        assertThat(snapshotReconciliationService.reconcile().getMismatches()).extracting(BalanceMismatch::getAccountNumber)
+                .doesNotContain("SNAP-A", "SNAP-B");
+    }
+
+    private void backdate(Transaction.TransactionType type, String from, String to, String amount, LocalDateTime at) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(UUID.randomUUID().toString());
+        transaction.setType(type);
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setAmount(Money.parse(amount));
+        transaction.setFromAccount(from != null ? accountRepository.findByAccountNumber(from).orElseThrow() : null);
+        transaction.setToAccount(to != null ? accountRepository.findByAccountNumber(to).orElseThrow() : null);
+        transaction.setCreatedAt(at);
+        transaction.setProcessedAt(at);
+        transactionRepository.save(transaction);
+    }
+
+    private void setBalance(String accountNumber, String balance) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountRepository.findByAccountNumber(accountNumber).orElseThrow();
+            accountRepository.updateBalance(account.getId(), account.getVersion(), Money.parse(balance), LocalDateTime.now());
+        });
+        accountCache.evict(accountNumber);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.BatchTransactionResponse;
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BatchTransactionThroughputTests {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchTransactionThroughputTests.class);
+
+    private static final int TRANSFERS = 2_000;
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Test
+    void batchPathMatchesSingleCallPathAndReportsThroughput() {
+        createAccount(bankingService, "BATCH-A", Account.AccountType.BUSINESS, "100000.00");
+        createAccount(bankingService, "BATCH-B", Account.AccountType.BUSINESS, "100000.00");
+        List<TransactionRequest> requests = transfers("BATCH-A", "BATCH-B", TRANSFERS);
+
+        long singleStart = System.nanoTime();
+        for (TransactionRequest request : requests) {
+            bankingService.processTransaction(request);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        BatchTransactionResponse response = bankingService.processBatch(requests);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        log.info("Single-call path: {} transfers in {} ms ({} tx/s)",
+                TRANSFERS, singleNanos / 1_000_000, TRANSFERS * 1_000_000_000L / singleNanos);
+        log.info("Batch path: {} transfers in {} ms ({} tx/s)",
+                TRANSFERS, batchNanos / 1_000_000, TRANSFERS * 1_000_000_000L / batchNanos);
+
+        assertThat(response.getTotal()).isEqualTo(TRANSFERS);
+        assertThat(response.getFailed()).isZero();
+        // Transfers alternate direction, so both paths leave the balances where they started
+        assertThat(bankingService.getAccountBalance("BATCH-A")).isEqualByComparingTo("100000.00");
+        assertThat(bankingService.getAccountBalance("BATCH-B")).isEqualByComparingTo("100000.00");
+    }
+
+    @Test
+    void batchReportsPerItemFailuresWithoutAbortingTheChunk() {
+        createAccount(bankingService, "BATCH-C", Account.AccountType.BUSINESS, "50.00");
+        createAccount(bankingService, "BATCH-D", Account.AccountType.BUSINESS, "0.00");
+
+        List<TransactionRequest> requests = new ArrayList<>();
+        requests.add(transaction(TransactionType.TRANSFER, "BATCH-C", "BATCH-D", "40.00"));
+        requests.add(transaction(TransactionType.TRANSFER, "BATCH-C", "BATCH-D", "40.00"));
+        requests.add(transaction(TransactionType.DEPOSIT, null, "BATCH-UNKNOWN", "10.00"));
+        requests.add(transaction(TransactionType.WITHDRAWAL, "BATCH-D", null, "15.00"));
+
+        BatchTransactionResponse response = bankingService.processBatch(requests);
+
+        assertThat(response.getResults()).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemResult.ItemStatus.SUCCESS,
+                BatchItemResult.ItemStatus.FAILED,
+                BatchItemResult.ItemStatus.FAILED,
+                BatchItemResult.ItemStatus.SUCCESS);
+        assertThat(response.getResults().get(1).getError()).contains("Insufficient balance");
+        assertThat(response.getResults().get(2).getError()).contains("Account not found");
+        assertThat(bankingService.getAccountBalance("BATCH-C")).isEqualByComparingTo("10.00");
+        assertThat(bankingService.getAccountBalance("BATCH-D")).isEqualByComparingTo("25.00");
+    }
+
+    private static List<TransactionRequest> transfers(String first, String second, int count) {
+        List<TransactionRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean forward = i % 2 == 0;
+            requests.add(transaction(TransactionType.TRANSFER, forward ? first : second, forward ? second : first, "1.00"));
+        }
+        return requests;
+    }
+}
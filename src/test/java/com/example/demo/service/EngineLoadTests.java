@@ -0,0 +1,141 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Account;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.service.ledger.ShardedLedger;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the JPA engine under each locking strategy and the sharded engine under a Zipf-skewed
+ * transfer load.
+ */
+class EngineLoadTests {
+
+    private static final Logger log = LoggerFactory.getLogger(EngineLoadTests.class);
+
+    private static final int ACCOUNTS = 50;
+    private static final double SKEW = 1.2;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 250;
+
+    @Nested
+    @SpringBootTest(properties = {"banking.engine.mode=jpa", "spring.jpa.show-sql=false"})
+    class JpaEngine {
+
+        @Autowired
+        private BankingService bankingService;
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Test
+        void optimisticLockingConflictsUnderSkew() throws Exception {
+            ZipfLoadRunner runner = new ZipfLoadRunner(bankingService, "JPA-LOAD-", ACCOUNTS, SKEW, "1000000.00");
+
+            ZipfLoadRunner.Report report = runner.run(THREADS, TRANSFERS_PER_THREAD);
+            log.info("JPA engine: {}", report);
+
+            assertThat(report.failures()).isZero();
+            assertThat(totalBalance(accountRepository, runner)).isEqualByComparingTo(BigDecimal.valueOf(ACCOUNTS * 1_000_000L));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {"banking.engine.mode=jpa", "banking.engine.retry.max-attempts=10",
+            "spring.jpa.show-sql=false"})
+    class JpaEngineWithRetries {
+
+        @Autowired
+        private BankingService bankingService;
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Test
+        void retriesAbsorbMostConflicts() throws Exception {
+            ZipfLoadRunner runner = new ZipfLoadRunner(bankingService, "RETRY-LOAD-", ACCOUNTS, SKEW, "1000000.00");
+
+            ZipfLoadRunner.Report report = runner.run(THREADS, TRANSFERS_PER_THREAD);
+            log.info("JPA + retries: {}", report);
+
+            assertThat(report.failures()).isZero();
+            assertThat(totalBalance(accountRepository, runner)).isEqualByComparingTo(BigDecimal.valueOf(ACCOUNTS * 1_000_000L));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {"banking.engine.mode=jpa", "banking.engine.locking=pessimistic",
+            "spring.jpa.show-sql=false"})
+    class JpaEngineWithRowLocks {
+
+        @Autowired
+        private BankingService bankingService;
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Test
+        void noConflictsOrDeadlocksUnderSkew() throws Exception {
+            ZipfLoadRunner runner = new ZipfLoadRunner(bankingService, "LOCK-LOAD-", ACCOUNTS, SKEW, "1000000.00");
+
+            ZipfLoadRunner.Report report = runner.run(THREADS, TRANSFERS_PER_THREAD);
+            log.info("JPA + FOR UPDATE: {}", report);
+
+            assertThat(report.conflicts()).isZero();
+            assertThat(report.failures()).isZero();
+            assertThat(totalBalance(accountRepository, runner)).isEqualByComparingTo(BigDecimal.valueOf(ACCOUNTS * 1_000_000L));
+            for (String accountNumber : runner.accountNumbers()) {
+                // The cache holds the versions the row-locked updates committed
+                assertThat(bankingService.getAccountByNumber(accountNumber).getBalance())
+                        .isEqualTo(accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance());
+            }
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {"banking.engine.mode=sharded", "banking.engine.shards=4", "spring.jpa.show-sql=false"})
+    class ShardedEngine {
+
+        @Autowired
+        private BankingService bankingService;
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Autowired
+        private ShardedLedger shardedLedger;
+
+        @Test
+        void noConflictsUnderSkewAndWriteBehindConverges() throws Exception {
+            ZipfLoadRunner runner = new ZipfLoadRunner(bankingService, "SHARD-LOAD-", ACCOUNTS, SKEW, "1000000.00");
+
+            ZipfLoadRunner.Report report = runner.run(THREADS, TRANSFERS_PER_THREAD);
+            log.info("Sharded engine: {}", report);
+
+            assertThat(report.conflicts()).isZero();
+            assertThat(report.failures()).isZero();
+            assertThat(shardedLedger.awaitPersisted(Duration.ofSeconds(30))).isTrue();
+            assertThat(totalBalance(accountRepository, runner)).isEqualByComparingTo(BigDecimal.valueOf(ACCOUNTS * 1_000_000L));
+            for (String accountNumber : runner.accountNumbers()) {
+                assertThat(accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance().toBigDecimal())
+                        .isEqualByComparingTo(bankingService.getAccountBalance(accountNumber));
+            }
+        }
+    }
+
+    private static BigDecimal totalBalance(AccountRepository accountRepository, ZipfLoadRunner runner) {
+        return accountRepository.findByAccountNumberIn(runner.accountNumbers()).stream()
+                .map(account -> account.getBalance().toBigDecimal())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.IdempotencyKeyReusedException;
+import com.example.demo.exception.TransactionOutcomeUnknownException;
+import com.example.demo.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.demo.TestFixtures.account;
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class IdempotencyTests {
+
+    private static final int DUPLICATES = 16;
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyIndex idempotencyIndex;
+
+    @Test
+    void concurrentDuplicatesMoveMoneyOnce() throws Exception {
+        createAccount(bankingService, "IDEM-A", "100.00");
+        createAccount(bankingService, "IDEM-B", "0.00");
+        TransactionRequest request = transfer("IDEM-A", "IDEM-B", "30.00");
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Transaction>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES)) {
+            for (int i = 0; i < DUPLICATES; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return bankingService.processTransaction(request, "idem-transfer-1");
+                }));
+            }
+            start.countDown();
+            String reference = results.get(0).get().getTransactionReference();
+            for (Future<Transaction> result : results) {
+                assertThat(result.get().getTransactionReference()).isEqualTo(reference);
+            }
+        }
+
+        assertThat(bankingService.getAccountBalance("IDEM-A")).isEqualByComparingTo("70.00");
+        assertThat(bankingService.getAccountBalance("IDEM-B")).isEqualByComparingTo("30.00");
+        assertThat(transactionRepository.findByIdempotencyKey("idem-transfer-1")).isPresent();
+    }
+
+    @Test
+    void keyCannotBeReusedForADifferentTransaction() {
+        createAccount(bankingService, "IDEM-C", "100.00");
+        createAccount(bankingService, "IDEM-D", "0.00");
+        bankingService.processTransaction(transfer("IDEM-C", "IDEM-D", "10.00"), "idem-transfer-2");
+
+        assertThatThrownBy(() -> bankingService.processTransaction(transfer("IDEM-C", "IDEM-D", "20.00"), "idem-transfer-2"))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(bankingService.getAccountBalance("IDEM-C")).isEqualByComparingTo("90.00");
+    }
+
+    @Test
+    void unknownOutcomeIsNotRunAgainOnRetry() {
+        TransactionRequest request = transfer("IDEM-E", "IDEM-F", "5.00");
+        CompletableFuture<Transaction> outcome = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyIndex.execute("idem-unknown-1", request, () -> {
+            executions.incrementAndGet();
+            throw new TransactionOutcomeUnknownException("Timed out", "REF-UNKNOWN-1", outcome);
+        })).isInstanceOf(TransactionOutcomeUnknownException.class);
+
+        assertThatThrownBy(() -> idempotencyIndex.execute("idem-unknown-1", request, () -> {
+            executions.incrementAndGet();
+            return null;
+        })).isInstanceOf(TransactionOutcomeUnknownException.class)
+                .extracting(e -> ((TransactionOutcomeUnknownException) e).getTransactionReference())
+                .isEqualTo("REF-UNKNOWN-1");
+
+        Transaction applied = new Transaction();
+        applied.setTransactionReference("REF-UNKNOWN-1");
+        applied.setType(Transaction.TransactionType.TRANSFER);
+        applied.setAmount(Money.parse("5.00"));
+        applied.setFromAccount(account("IDEM-E", Account.AccountType.CHECKING, "0.00"));
+        applied.setToAccount(account("IDEM-F", Account.AccountType.CHECKING, "0.00"));
+        outcome.complete(applied);
+
+        assertThat(idempotencyIndex.execute("idem-unknown-1", request, () -> {
+            executions.incrementAndGet();
+            return null;
+        }).getTransactionReference()).isEqualTo("REF-UNKNOWN-1");
+        assertThat(executions).hasValue(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Account;
+import com.example.demo.repository.AccountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.demo.TestFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "banking.ids.allocation-size=50"
+})
+class InsertBatchingTests {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertBatchingTests.class);
+
+    private static final int ACCOUNTS = 200;
+    private static final int BATCH_SIZE = 20;
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertsCollapseIntoJdbcBatches() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(account("BATCHED-" + i, Account.AccountType.SAVINGS, "10.00"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> accountRepository.saveAll(accounts));
+
+        long statements = statistics.getPrepareStatementCount();
+        log.info("{} account inserts took {} JDBC statements", ACCOUNTS, statements);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ACCOUNTS);
+        // One statement per insert batch plus at most one sequence call per block of ids; IDENTITY needs one per row
+        assertThat(statements).isLessThanOrEqualTo(ACCOUNTS / BATCH_SIZE + ACCOUNTS / ALLOCATION_SIZE);
+        assertThat(accounts).extracting(Account::getId).doesNotContainNull().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void transactionReferencesAreTimeOrderedUuids() {
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            references.add(TransactionReferences.next());
+        }
+
+        assertThat(references).doesNotHaveDuplicates().isSorted();
+        assertThat(references).allSatisfy(reference -> {
+            UUID uuid = UUID.fromString(reference);
+            assertThat(uuid.version()).isEqualTo(7);
+            assertThat(uuid.variant()).isEqualTo(2);
+        });
+        long millis = UUID.fromString(references.get(0)).getMostSignificantBits() >>> 16;
+        assertThat(millis).isCloseTo(System.currentTimeMillis(), within(60_000L));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.LedgerMismatch;
+import com.example.demo.dto.ReconciliationReport;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.reconciliation.cron=-",
+        "banking.reconciliation.range-size=2",
+        "banking.reconciliation.parallelism=3"
+})
+class LedgerReconciliationTests {
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private LedgerReconciliationService ledgerReconciliationService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reportsMismatchedBalancesWithTheTransactionsBehindThem() {
+        createAccount(bankingService, "RECON-A", "100.00");
+        createAccount(bankingService, "RECON-B", "0.00");
+        createAccount(bankingService, "RECON-C", "50.00");
+        bankingService.processTransaction(transaction(TransactionType.TRANSFER, "RECON-A", "RECON-B", "30.00"));
+        Transaction deposit = bankingService.processTransaction(transaction(TransactionType.DEPOSIT, null, "RECON-C", "12.34"));
+        bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "RECON-A", null, "5.00"));
+
+        ReconciliationReport clean = ledgerReconciliationService.reconcile();
+        assertThat(clean.getAccountsChecked()).isGreaterThanOrEqualTo(3);
+        assertThat(clean.getLegsScanned()).isGreaterThanOrEqualTo(4);
+        assertThat(clean.getMismatches()).extracting(LedgerMismatch::getAccountNumber)
+                .doesNotContain("RECON-A", "RECON-B", "RECON-C");
+
+        // The deposit applied twice
+        setBalance("RECON-C", "74.68");
+        try {
+            assertThat(ledgerReconciliationService.reconcile().getMismatches())
+                    .filteredOn(mismatch -> mismatch.getAccountNumber().equals("RECON-C"))
+                    .singleElement()
+                    .satisfies(mismatch -> {
+                        assertThat(mismatch.getExpected()).isEqualTo(Money.parse("62.34"));
+                        assertThat(mismatch.getActual()).isEqualTo(Money.parse("74.68"));
+                        assertThat(mismatch.getDifference()).isEqualTo(Money.parse("12.34"));
+                        assertThat(mismatch.getTransactionReferences()).containsExactly(deposit.getTransactionReference());
+                    });
+            assertThat(ledgerReconciliationService.progress().isRunning()).isFalse();
+            assertThat(ledgerReconciliationService.progress().getLastReport().getMismatches()).isNotEmpty();
+        } finally {
+            setBalance("RECON-C", "62.34");
+        }
+    }
+
+    private void setBalance(String accountNumber, String balance) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountRepository.findByAccountNumber(accountNumber).orElseThrow();
+            accountRepository.updateBalance(account.getId(), account.getVersion(), Money.parse(balance), LocalDateTime.now());
+        });
+        accountCache.evict(accountNumber);
+    }
+}
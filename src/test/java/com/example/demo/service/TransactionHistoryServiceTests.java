@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionHistoryPage;
+import com.example.demo.dto.TransactionHistoryRow;
+import com.example.demo.dto.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class TransactionHistoryServiceTests {
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Test
+    void keysetPagesCoverTheWholeHistoryNewestFirst() throws Exception {
+        createAccount(bankingService, "HIST-A", "1000.00");
+        createAccount(bankingService, "HIST-B", "1000.00");
+        for (int i = 0; i < 12; i++) {
+            bankingService.processTransaction(transaction(TransactionType.TRANSFER, "HIST-A", "HIST-B", "1.00"));
+            bankingService.processTransaction(transaction(TransactionType.TRANSFER, "HIST-B", "HIST-A", "1.00"));
+        }
+        bankingService.processTransaction(transaction(TransactionType.DEPOSIT, null, "HIST-A", "1.00"));
+
+        List<TransactionHistoryRow> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionHistoryPage page = transactionHistoryService.getAccountTransactionsPage("HIST-A", cursor, 10);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(10);
+            paged.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> expected = bankingService.getAccountTransactions("HIST-A").stream()
+                .sorted((left, right) -> left.getCreatedAt().equals(right.getCreatedAt())
+                        ? right.getId().compareTo(left.getId())
+                        : right.getCreatedAt().compareTo(left.getCreatedAt()))
+                .map(transaction -> transaction.getId())
+                .toList();
+        assertThat(paged).extracting(TransactionHistoryRow::getId).containsExactlyElementsOf(expected);
+        assertThat(paged).hasSize(25);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionHistoryService.exportAccountTransactions("HIST-A", out);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(25);
+    }
+
+    @Test
+    void rejectsTamperedCursorAndOversizedPages() {
+        createAccount(bankingService, "HIST-C", "10.00");
+
+        assertThatThrownBy(() -> transactionHistoryService.getAccountTransactionsPage("HIST-C", "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transactionHistoryService.getAccountTransactionsPage("HIST-C", null, 100_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchTransactionResponse;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.InsufficientBalanceException;
+import com.example.demo.exception.TransactionLimitExceededException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionLimitsTests {
+
+    @Test
+    void slidingWindowForgetsValuesOlderThanTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(1), 60);
+
+        long slot = counter.tryAdd(0, 2, 3);
+        assertThat(slot).isNotNegative();
+        assertThat(counter.tryAdd(30_000, 1, 3)).isNotNegative();
+        assertThat(counter.tryAdd(45_000, 1, 3)).isNegative();
+        assertThat(counter.sum(45_000)).isEqualTo(3);
+
+        counter.remove(slot, 2);
+        assertThat(counter.sum(45_000)).isEqualTo(1);
+        counter.add(46_000, 2);
+        assertThat(counter.tryAdd(60_000, 1, 3)).isNegative();
+        // The value added at 30 s has left the window
+        assertThat(counter.tryAdd(91_000, 1, 3)).isNotNegative();
+        assertThat(counter.sum(91_000)).isEqualTo(3);
+        assertThat(counter.sum(200_000)).isZero();
+    }
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.jpa.show-sql=false",
+            "spring.datasource.url=jdbc:h2:mem:limitsdb",
+            "banking.limits.enabled=true",
+            "banking.limits.account-types.SAVINGS.daily-withdrawal=100.00",
+            "banking.limits.account-types.SAVINGS.transfers-per-minute=3",
+            "banking.reconciliation.cron=-"
+    })
+    @DirtiesContext
+    class JpaEngine {
+
+        @Autowired
+        private BankingService bankingService;
+
+        @Autowired
+        private TransactionLimits transactionLimits;
+
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+
+        @Test
+        void withdrawalsAndTransfersAreCappedPerAccountType() {
+            createAccount(bankingService, "LIM-S1", Account.AccountType.SAVINGS, "1000.00");
+            createAccount(bankingService, "LIM-S2", Account.AccountType.SAVINGS, "60.00");
+            createAccount(bankingService, "LIM-C1", Account.AccountType.CHECKING, "1000.00");
+
+            bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-S1", null, "60.00"));
+            assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-S1", null, "50.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class)
+                    .hasMessageContaining("LIM-S1");
+            assertThat(bankingService.getAccountBalance("LIM-S1")).isEqualByComparingTo("940.00");
+            bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-S1", null, "40.00"));
+
+            // Rejected for its balance, so it takes no share of the limit
+            assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-S2", null, "70.00")))
+                    .isInstanceOf(InsufficientBalanceException.class);
+            bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-S2", null, "60.00"));
+
+            for (int i = 0; i < 3; i++) {
+                bankingService.processTransaction(transaction(TransactionType.TRANSFER, "LIM-S1", "LIM-C1", "1.00"));
+            }
+            assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.TRANSFER, "LIM-S1", "LIM-C1", "1.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+            for (int i = 0; i < 10; i++) {
+                bankingService.processTransaction(transaction(TransactionType.TRANSFER, "LIM-C1", "LIM-S1", "1.00"));
+                bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-C1", null, "50.00"));
+            }
+
+            // Batch items are rejected one by one
+            BatchTransactionResponse batch = bankingService.processBatch(List.of(
+                    transaction(TransactionType.WITHDRAWAL, "LIM-S1", null, "1.00"),
+                    transaction(TransactionType.DEPOSIT, null, "LIM-S1", "1.00")));
+            assertThat(batch.getSucceeded()).isEqualTo(1);
+            assertThat(batch.getResults().get(0).getError()).contains("Daily withdrawal limit");
+
+            // The counters come back from the transactions table
+            transactionLimits.rehydrate();
+            assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-S1", null, "0.01")))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+            assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.TRANSFER, "LIM-S1", "LIM-C1", "1.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+        }
+
+        @Test
+        void rolledBackTransactionsReleaseTheirShare() {
+            createAccount(bankingService, "LIM-R1", Account.AccountType.SAVINGS, "1000.00");
+            Account account = bankingService.getAccountByNumber("LIM-R1");
+
+            transactionTemplate.executeWithoutResult(status -> {
+                transactionLimits.check(account, Transaction.TransactionType.WITHDRAWAL, 100_00);
+                status.setRollbackOnly();
+            });
+
+            bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-R1", null, "100.00"));
+            assertThatThrownBy(() -> transactionLimits.check(account, Transaction.TransactionType.WITHDRAWAL, 1))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.jpa.show-sql=false",
+            "spring.datasource.url=jdbc:h2:mem:limitsshardeddb",
+            "banking.engine.mode=sharded",
+            "banking.engine.shards=2",
+            "banking.limits.enabled=true",
+            "banking.limits.account-types.SAVINGS.daily-withdrawal=100.00",
+            "banking.limits.account-types.SAVINGS.transfers-per-minute=3",
+            "banking.reconciliation.cron=-"
+    })
+    @DirtiesContext
+    class ShardedEngine {
+
+        @Autowired
+        private BankingService bankingService;
+
+        @Test
+        void ledgerEnforcesTheSameLimits() {
+            createAccount(bankingService, "LIM-SH-S", Account.AccountType.SAVINGS, "1000.00");
+            createAccount(bankingService, "LIM-SH-C", Account.AccountType.CHECKING, "0.00");
+
+            bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-SH-S", null, "90.00"));
+            assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "LIM-SH-S", null, "20.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+            assertThat(bankingService.getAccountBalance("LIM-SH-S")).isEqualByComparingTo("910.00");
+
+            for (int i = 0; i < 3; i++) {
+                bankingService.processTransaction(transaction(TransactionType.TRANSFER, "LIM-SH-S", "LIM-SH-C", "1.00"));
+            }
+            assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.TRANSFER, "LIM-SH-S", "LIM-SH-C", "1.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+            assertThat(bankingService.getAccountBalance("LIM-SH-S")).isEqualByComparingTo("907.00");
+            assertThat(bankingService.getAccountBalance("LIM-SH-C")).isEqualByComparingTo("3.00");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionType;
+import com.example.demo.exception.AccountInactiveException;
+import com.example.demo.exception.InsufficientBalanceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TransactionMetrics metrics = new TransactionMetrics(registry);
+
+    @Test
+    void recordsLatencyByTypeAndFailuresByReason() {
+        long start = metrics.start();
+        assertThat(registry.get(TransactionMetrics.IN_FLIGHT).gauge().value()).isEqualTo(1);
+        metrics.succeeded(TransactionType.TRANSFER, start);
+
+        metrics.failed(TransactionType.WITHDRAWAL, metrics.start(), new InsufficientBalanceException("empty"));
+        metrics.failed(TransactionType.DEPOSIT, metrics.start(), new AccountInactiveException("frozen"));
+
+        assertThat(registry.get(TransactionMetrics.IN_FLIGHT).gauge().value()).isZero();
+        assertThat(registry.get(TransactionMetrics.TRANSACTIONS).tags("type", "TRANSFER", "outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get(TransactionMetrics.TRANSACTIONS).tags("type", "WITHDRAWAL", "outcome", "failure").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get(TransactionMetrics.FAILURES).tag("reason", "insufficient_balance").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get(TransactionMetrics.FAILURES).tag("reason", "inactive_account").counter().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.service;
+
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.dto.OutboxStatus;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.OutboxEntry;
+import com.example.demo.entity.Transaction;
+import com.example.demo.exception.InsufficientBalanceException;
+import com.example.demo.repository.OutboxCheckpointRepository;
+import com.example.demo.repository.OutboxEntryRepository;
+import com.example.demo.service.outbox.BinaryOutboxSink;
+import com.example.demo.service.outbox.OutboxRelay;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:outboxdb",
+        "banking.outbox.relay-enabled=false",
+        "banking.outbox.batch-size=7",
+        "banking.reconciliation.cron=-"
+})
+@DirtiesContext
+class TransactionOutboxTests {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void outboxDirectory(DynamicPropertyRegistry registry) {
+        registry.add("banking.outbox.directory", () -> directory.resolve("ndjson").toString());
+    }
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEntryRepository outboxEntryRepository;
+
+    @Autowired
+    private OutboxCheckpointRepository outboxCheckpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void deliversCommittedTransactionsInOrderAndRetriesFailedBatches() throws Exception {
+        createAccount(bankingService, "OBX-A", "100.00");
+        createAccount(bankingService, "OBX-B", "0.00");
+        outboxRelay.drain();
+
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            references.add(bankingService.processTransaction(transaction(TransactionType.TRANSFER, "OBX-A", "OBX-B", "1.00"))
+                    .getTransactionReference());
+        }
+        assertThatThrownBy(() -> bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, "OBX-B", null, "500.00")))
+                .isInstanceOf(InsufficientBalanceException.class);
+        bankingService.processBatch(List.of(
+                transaction(TransactionType.DEPOSIT, null, "OBX-A", "5.00"),
+                transaction(TransactionType.WITHDRAWAL, "OBX-A", null, "1000.00")));
+        assertThat(outboxEntryRepository.count()).isEqualTo(11);
+
+        // A sink outage keeps the batch in the outbox
+        OutboxRelay failing = new OutboxRelay(outboxEntryRepository, outboxCheckpointRepository,
+                batch -> { throw new IOException("sink unavailable"); }, transactionTemplate, outboxProperties);
+        assertThatThrownBy(failing::drain).isInstanceOf(IOException.class);
+        assertThat(outboxEntryRepository.count()).isEqualTo(11);
+
+        assertThat(outboxRelay.drain()).isEqualTo(11);
+        OutboxStatus status = outboxRelay.status();
+        assertThat(status.getPending()).isZero();
+        assertThat(status.getDeliveredCount()).isEqualTo(11);
+        assertThat(status.getLastDeliveredId()).isNotNull();
+
+        List<JsonNode> delivered = new ArrayList<>();
+        try (Stream<Path> segments = Files.list(directory.resolve("ndjson"))) {
+            for (Path segment : segments.sorted().toList()) {
+                for (String line : Files.readAllLines(segment)) {
+                    delivered.add(objectMapper.readTree(line));
+                }
+            }
+        }
+        assertThat(delivered).hasSize(11);
+        assertThat(delivered.stream().limit(10).map(entry -> entry.get("transactionReference").asText()))
+                .containsExactlyElementsOf(references);
+        JsonNode deposit = delivered.get(10);
+        assertThat(deposit.get("type").asText()).isEqualTo("DEPOSIT");
+        assertThat(deposit.get("toAccountNumber").asText()).isEqualTo("OBX-A");
+        assertThat(deposit.get("fromAccountNumber").isNull()).isTrue();
+        assertThat(deposit.get("amount").decimalValue()).isEqualByComparingTo("5.00");
+        assertThat(delivered.stream().mapToLong(entry -> entry.get("id").asLong()))
+                .isSorted();
+    }
+
+    @Test
+    void binarySinkRoundTrips() throws Exception {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setDirectory(directory.resolve("binary").toString());
+        properties.setSink(OutboxProperties.SinkType.BINARY);
+        OutboxEntry transfer = new OutboxEntry(41L, "TXN-1", Transaction.TransactionType.TRANSFER, Money.of(new BigDecimal("12.34")),
+                "OBX-A", "OBX-B", LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_000_000), null);
+        OutboxEntry deposit = new OutboxEntry(42L, "TXN-2", Transaction.TransactionType.DEPOSIT, Money.of(new BigDecimal("0.01")),
+                null, "OBX-\u00c4", LocalDateTime.of(2026, 3, 1, 9, 31), null);
+        try (BinaryOutboxSink sink = new BinaryOutboxSink(properties)) {
+            sink.write(List.of(transfer));
+            sink.write(List.of(deposit));
+        }
+
+        Path segment = directory.resolve("binary").resolve("transactions-0000000000000000041.bin");
+        try (InputStream in = Files.newInputStream(segment)) {
+            assertThat(BinaryOutboxSink.read(in)).containsExactly(transfer, deposit);
+        }
+    }
+}
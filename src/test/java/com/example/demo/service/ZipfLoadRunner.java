@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TransactionRequest;
+import com.example.demo.entity.Account;
+import com.example.demo.exception.ConcurrentTransactionException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transfer;
+
+/**
+ * Drives concurrent transfers through {@link BankingService} with Zipf-skewed account selection,
+ * so a handful of accounts receive most of the traffic.
+ */
+class ZipfLoadRunner {
+
+    private final BankingService bankingService;
+    private final List<String> accountNumbers;
+    private final double[] cumulative;
+
+    ZipfLoadRunner(BankingService bankingService, String prefix, int accounts, double skew, String balance) {
+        this.bankingService = bankingService;
+        this.accountNumbers = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            String accountNumber = prefix + i;
+            createAccount(bankingService, accountNumber, Account.AccountType.BUSINESS, balance);
+            accountNumbers.add(accountNumber);
+        }
+
+        this.cumulative = new double[accounts];
+        double sum = 0;
+        for (int rank = 1; rank <= accounts; rank++) {
+            sum += 1.0 / Math.pow(rank, skew);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < accounts; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    List<String> accountNumbers() {
+        return accountNumbers;
+    }
+
+    Report run(int threads, int transfersPerThread) throws Exception {
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long[][] latencies = new long[threads][transfersPerThread];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long[] threadLatencies = latencies[t];
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        TransactionRequest request = nextTransfer();
+                        long begin = System.nanoTime();
+                        try {
+                            bankingService.processTransaction(request);
+                        } catch (ConcurrentTransactionException e) {
+                            conflicts.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                        threadLatencies[i] = System.nanoTime() - begin;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Report(all.length, conflicts.get(), failures.get(), elapsed,
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private TransactionRequest nextTransfer() {
+        String from = pick();
+        String to = pick();
+        while (to.equals(from)) {
+            to = pick();
+        }
+        return transfer(from, to, "1.00");
+    }
+
+    private String pick() {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return accountNumbers.get(Math.min(index < 0 ? -index - 1 : index, accountNumbers.size() - 1));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    record Report(int operations, int conflicts, int failures, long elapsedNanos, long p50Nanos, long p99Nanos) {
+
+        double conflictRate() {
+            return (double) conflicts / operations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d transfers, conflict rate %.2f%%, other failures %d, %.0f tx/s, p50 %.2f ms, p99 %.2f ms",
+                    operations, conflictRate() * 100, failures, operations * 1e9 / elapsedNanos,
+                    p50Nanos / 1e6, p99Nanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.config.EngineProperties;
+import com.example.demo.dto.TransactionType;
+import com.example.demo.entity.Account;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.AccountCache;
+import com.example.demo.service.AccountTotalsService;
+import com.example.demo.service.BankingService;
+import com.example.demo.service.outbox.TransactionOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:writebehinddb",
+        "banking.reconciliation.cron=-"
+})
+class LedgerWriteBehindTests {
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private TransactionOutbox transactionOutbox;
+
+    @Autowired
+    private AccountTotalsService accountTotalsService;
+
+    @Test
+    void rejectedPostingIsParkedWithoutHoldingUpTheOthers() throws Exception {
+        Account from = createAccount(bankingService, "WB-FROM", "100.00");
+        Account to = createAccount(bankingService, "WB-TO", "0.00");
+        bankingService.processTransaction(transaction(TransactionType.DEPOSIT, null, "WB-FROM", "1.00"), "wb-duplicate-key");
+
+        AtomicLong checkpoint = new AtomicLong();
+        LedgerWriteBehind writeBehind = new LedgerWriteBehind(new EngineProperties.WriteBehind(), transactionTemplate,
+                accountRepository, transactionRepository, accountCache, transactionOutbox, accountTotalsService,
+                new ProcessingWatermark(), checkpoint::set);
+        writeBehind.enqueue(posting(1, "WB-REF-1", from, to, null));
+        // The idempotency key is already stored, so the unique constraint rejects this one every time
+        writeBehind.enqueue(posting(2, "WB-REF-2", from, to, "wb-duplicate-key"));
+        writeBehind.enqueue(posting(3, "WB-REF-3", from, to, null));
+        writeBehind.start();
+
+        assertThat(writeBehind.awaitPersisted(Duration.ofSeconds(10))).isTrue();
+        writeBehind.stop(Duration.ofSeconds(5));
+
+        assertThat(transactionRepository.findByTransactionReference("WB-REF-1")).isPresent();
+        assertThat(transactionRepository.findByTransactionReference("WB-REF-2")).isEmpty();
+        assertThat(transactionRepository.findByTransactionReference("WB-REF-3")).isPresent();
+        assertThat(writeBehind.parked()).isEqualTo(1);
+        assertThat(checkpoint).hasValue(3);
+        assertThat(accountRepository.findByAccountNumber("WB-TO").orElseThrow().getBalance()).isEqualTo(Money.parse("2.00"));
+    }
+
+    private static LedgerPosting posting(long sequence, String reference, Account from, Account to, String idempotencyKey) {
+        LocalDateTime now = LocalDateTime.now();
+        return new LedgerPosting(sequence, reference, Transaction.TransactionType.TRANSFER, Money.parse("1.00"),
+                from.getId(), to.getId(), null, idempotencyKey, now, now);
+    }
+}
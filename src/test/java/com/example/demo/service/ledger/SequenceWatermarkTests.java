@@ -0,0 +1,33 @@
+package com.example.demo.service.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SequenceWatermarkTests {
+
+    @Test
+    void holdsBackSequencesAboveAGap() {
+        SequenceWatermark watermark = new SequenceWatermark(0);
+
+        assertThat(watermark.mark(2)).isFalse();
+        assertThat(watermark.mark(3)).isFalse();
+        assertThat(watermark.get()).isZero();
+
+        assertThat(watermark.mark(1)).isTrue();
+        assertThat(watermark.get()).isEqualTo(3);
+
+        assertThat(watermark.mark(5)).isFalse();
+        assertThat(watermark.get()).isEqualTo(3);
+    }
+
+    @Test
+    void ignoresUnjournaledAndAlreadyCoveredSequences() {
+        SequenceWatermark watermark = new SequenceWatermark(10);
+
+        assertThat(watermark.mark(0)).isFalse();
+        assertThat(watermark.mark(7)).isFalse();
+        assertThat(watermark.mark(11)).isTrue();
+        assertThat(watermark.get()).isEqualTo(11);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.dto.TransactionType;
+import com.example.demo.service.BankingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static com.example.demo.TestFixtures.createAccount;
+import static com.example.demo.TestFixtures.transaction;
+import static com.example.demo.TestFixtures.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:shardedledgerdb",
+        "banking.engine.mode=sharded",
+        "banking.engine.shards=2",
+        "banking.reconciliation.cron=-"
+})
+@DirtiesContext
+class ShardedLedgerTests {
+
+    private static final int SHARDS = 2;
+
+    @Autowired
+    private BankingService bankingService;
+
+    @Autowired
+    private ShardedLedger shardedLedger;
+
+    @Test
+    void failedCreditOnAnotherShardCompensatesTheDebit() throws Exception {
+        String from = onShard("SHL-FROM-", 0);
+        String to = onShard("SHL-TO-", 1);
+        createAccount(bankingService, from, "100.00");
+        // One more cent does not fit into the balance
+        createAccount(bankingService, to, "92233720368547758.07");
+
+        assertThatThrownBy(() -> bankingService.processTransaction(transfer(from, to, "0.01")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("out of range");
+        assertThat(bankingService.getAccountBalance(from)).isEqualByComparingTo("100.00");
+        assertThat(bankingService.getAccountBalance(to)).isEqualByComparingTo("92233720368547758.07");
+
+        bankingService.processTransaction(transaction(TransactionType.WITHDRAWAL, to, null, "1.00"));
+        bankingService.processTransaction(transfer(from, to, "0.01"));
+        assertThat(bankingService.getAccountBalance(from)).isEqualByComparingTo("99.99");
+        assertThat(shardedLedger.awaitPersisted(Duration.ofSeconds(10))).isTrue();
+    }
+
+    /**
+     * Returns the first account number with the given prefix that hashes to the shard.
+     */
+    private static String onShard(String prefix, int shard) {
+        for (int i = 0; ; i++) {
+            String accountNumber = prefix + i;
+            if (Math.floorMod(Objects.hashCode(accountNumber), SHARDS) == shard) {
+                return accountNumber;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.service.ledger;
+
+import com.example.demo.config.JournalProperties;
+import com.example.demo.entity.Money;
+import com.example.demo.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionJournalTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversEveryDurableAppendAcrossSegments() throws Exception {
+        TransactionJournal journal = new TransactionJournal(properties());
+        assertThat(journal.recover()).isEmpty();
+        journal.start();
+
+        List<CompletableFuture<Long>> appends = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            appends.add(journal.append(posting("REF-" + i, i % 2 == 0 ? "note " + i : null)));
+        }
+        CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new)).join();
+        journal.stop();
+        assertThat(segmentCount()).isGreaterThan(1);
+
+        List<LedgerPosting> recovered = new TransactionJournal(properties()).recover();
+
+        assertThat(recovered).hasSize(200);
+        for (int i = 0; i < recovered.size(); i++) {
+            LedgerPosting posting = recovered.get(i);
+            assertThat(posting.sequence()).isEqualTo(i + 1);
+            assertThat(posting.transactionReference()).isEqualTo("REF-" + i);
+            assertThat(posting.description()).isEqualTo(i % 2 == 0 ? "note " + i : null);
+            assertThat(posting.idempotencyKey()).isEqualTo("key-REF-" + i);
+            assertThat(posting.amount()).isEqualTo(Money.parse("12.34"));
+        }
+    }
+
+    @Test
+    void tornRecordEndsRecovery() throws Exception {
+        byte[] first = JournalCodec.encode(posting("REF-1", null), 1);
+        byte[] second = JournalCodec.encode(posting("REF-2", "torn"), 2);
+        second[second.length - 1] ^= 0x7F;
+        byte[] segment = new byte[4096];
+        System.arraycopy(first, 0, segment, 0, first.length);
+        System.arraycopy(second, 0, segment, first.length, second.length);
+        Files.write(directory.resolve("journal-00000000000000000001.log"), segment);
+
+        List<LedgerPosting> recovered = new TransactionJournal(properties()).recover();
+
+        assertThat(recovered).extracting(LedgerPosting::transactionReference).containsExactly("REF-1");
+    }
+
+    @Test
+    void checkpointDeletesProjectedSegments() throws Exception {
+        TransactionJournal journal = new TransactionJournal(properties());
+        journal.recover();
+        journal.start();
+        CompletableFuture<Long> last = null;
+        for (int i = 0; i < 200; i++) {
+            last = journal.append(posting("REF-" + i, null));
+        }
+        long lastSequence = last.join();
+        long before = segmentCount();
+
+        journal.checkpoint(lastSequence);
+        journal.stop();
+
+        assertThat(segmentCount()).isEqualTo(1).isLessThan(before);
+    }
+
+    private JournalProperties properties() {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(4));
+        return properties;
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static LedgerPosting posting(String reference, String description) {
+        LocalDateTime now = LocalDateTime.now();
+        return new LedgerPosting(0L, reference, Transaction.TransactionType.TRANSFER, Money.parse("12.34"),
+                1L, 2L, description, "key-" + reference, now, now);
+    }
+}